@@ -0,0 +1,122 @@
+package com.example.admission;
+
+import com.example.exception.BulkheadRejectedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Обмежує кількість одночасних запитів класу; ліміт змінюється за схемою AIMD:
+// +1/ліміт за кожну швидку відповідь, x0.9 за повільну або з помилкою
+public class AdaptiveBulkhead {
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final EndpointClass endpointClass;
+    private final BulkheadProperties.Settings settings;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long rejected;
+
+    public AdaptiveBulkhead(EndpointClass endpointClass, BulkheadProperties.Settings settings) {
+        this.endpointClass = endpointClass;
+        this.settings = settings;
+        this.latencyThresholdNanos = settings.latencyThreshold().toNanos();
+        this.limit = settings.initialLimit();
+    }
+
+    public void acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return;
+            }
+            if (queued >= settings.maxQueue()) {
+                throw reject();
+            }
+            queued++;
+            try {
+                long remaining = settings.queueTimeout().toNanos();
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        throw reject();
+                    }
+                    remaining = permitReleased.awaitNanos(remaining);
+                }
+                inFlight++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(settings.minLimit(), limit * DECREASE_FACTOR);
+            } else {
+                limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+            }
+            permitReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private BulkheadRejectedException reject() {
+        rejected++;
+        return new BulkheadRejectedException(endpointClass, settings.retryAfter());
+    }
+
+    public EndpointClass endpointClass() {
+        return endpointClass;
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejected() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
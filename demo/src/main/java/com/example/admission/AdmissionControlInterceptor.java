@@ -0,0 +1,70 @@
+package com.example.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final Map<EndpointClass, AdaptiveBulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlInterceptor(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(endpointClass, properties.settings(endpointClass));
+            bulkheads.put(endpointClass, bulkhead);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("library.bulkhead.limit", bulkhead, AdaptiveBulkhead::limit)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("library.bulkhead.inflight", bulkhead, AdaptiveBulkhead::inFlight)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("library.bulkhead.queued", bulkhead, AdaptiveBulkhead::queued)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("library.bulkhead.rejected", bulkhead, AdaptiveBulkhead::rejected)
+                    .tag("class", tag).register(meterRegistry);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Асинхронне повторне диспетчеризування (SSE) вже пройшло контроль
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Bulkhead annotation = method.getMethodAnnotation(Bulkhead.class);
+        if (annotation == null) {
+            return true;
+        }
+        AdaptiveBulkhead bulkhead = bulkheads.get(annotation.value());
+        bulkhead.acquire();
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(bulkhead, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            // Помилки сервера теж сигнал перевантаження; 4xx — ні
+            boolean failed = ex != null || response.getStatus() >= 500;
+            permit.bulkhead().release(System.nanoTime() - permit.startNanos(), failed);
+        }
+    }
+
+    AdaptiveBulkhead bulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    private record Permit(AdaptiveBulkhead bulkhead, long startNanos) {
+    }
+}
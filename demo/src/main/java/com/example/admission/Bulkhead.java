@@ -0,0 +1,13 @@
+package com.example.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Відносить ендпоінт до класу з окремим лімітом одночасних запитів
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+    EndpointClass value();
+}
@@ -0,0 +1,36 @@
+package com.example.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@ConfigurationProperties("library.bulkhead")
+public record BulkheadProperties(Map<EndpointClass, Settings> classes) {
+
+    public BulkheadProperties {
+        classes = classes == null ? new EnumMap<>(EndpointClass.class) : new EnumMap<>(classes);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            classes.putIfAbsent(endpointClass, Settings.DEFAULT);
+        }
+    }
+
+    public Settings settings(EndpointClass endpointClass) {
+        return classes.get(endpointClass);
+    }
+
+    public record Settings(
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("2") int minLimit,
+            @DefaultValue("100") int maxLimit,
+            @DefaultValue("50") int maxQueue,
+            @DefaultValue("500ms") Duration queueTimeout,
+            @DefaultValue("250ms") Duration latencyThreshold,
+            @DefaultValue("1s") Duration retryAfter
+    ) {
+        static final Settings DEFAULT = new Settings(20, 2, 100, 50,
+                Duration.ofMillis(500), Duration.ofMillis(250), Duration.ofSeconds(1));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.admission;
+
+public enum EndpointClass {
+    BORROW_RETURN,
+    POINT_READ,
+    HEAVY_READ,
+    BULK_WRITE
+}
@@ -0,0 +1,57 @@
+package com.example.analytics;
+
+import java.util.Arrays;
+
+// Верхня оцінка частоти ключа; похибка не перевищує e/width від суми всіх додавань з імовірністю 1 - e^-depth
+final class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final int[] counters;
+
+    CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Ширина має бути степенем двійки, глибина — додатною");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.mask = width - 1;
+        this.counters = new int[depth * width];
+    }
+
+    void add(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + (int) ((h1 + row * h2) >>> 32 & mask)]++;
+        }
+    }
+
+    int estimate(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + (int) ((h1 + row * h2) >>> 32 & mask)]);
+        }
+        return min;
+    }
+
+    // Скетчі лінійні: віднімання кошика з суми дає суму решти кошиків
+    void subtract(CountMinSketch other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    // Фіналізатор SplitMix64: сусідні ID книг розходяться по всій ширині
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
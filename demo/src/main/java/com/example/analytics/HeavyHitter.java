@@ -0,0 +1,5 @@
+package com.example.analytics;
+
+// Оцінка кількості згори: реальне значення не більше за count
+public record HeavyHitter(long key, long count) {
+}
@@ -0,0 +1,84 @@
+package com.example.analytics;
+
+import com.example.event.LibraryEvent;
+import com.example.event.LibraryEventListener;
+import com.example.event.LibraryEventType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+// Найпопулярніші книги за годину/день/тиждень у фіксованій пам'яті, незалежно від розміру каталогу
+@Component
+public class PopularTitles implements LibraryEventListener {
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    // Скільки останніх id подій пам'ятати для відсіювання повторних доставок
+    private static final int RECENT_EVENTS = 4096;
+
+    // Година — 60 хвилинних кошиків; день і тиждень — останні 24 та 168 годинних
+    private final SlidingTopK minutes;
+    private final SlidingTopK hours;
+    private final int capacity;
+    private final LongSupplier clock;
+    private final Set<Long> recentEventIds = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_EVENTS;
+        }
+    });
+
+    @Autowired
+    public PopularTitles(@Value("${library.analytics.popular.capacity:256}") int capacity,
+                         @Value("${library.analytics.popular.sketch-depth:4}") int sketchDepth,
+                         @Value("${library.analytics.popular.sketch-width:1024}") int sketchWidth) {
+        this(capacity, sketchDepth, sketchWidth, System::currentTimeMillis);
+    }
+
+    PopularTitles(int capacity, int sketchDepth, int sketchWidth, LongSupplier clock) {
+        this.minutes = new SlidingTopK(MINUTE, 60, new int[]{60}, capacity, sketchDepth, sketchWidth);
+        this.hours = new SlidingTopK(HOUR, 168, new int[]{24, 168}, capacity, sketchDepth, sketchWidth);
+        this.capacity = capacity;
+        this.clock = clock;
+    }
+
+    // id в outbox видаються при вставці, а видимими події стають при коміті, тож подія з меншим id
+    // може прийти пізніше. Тому повтори відсіюються за самим id, а не за порогом останнього
+    @Override
+    public void onEvent(LibraryEvent event) {
+        if (event.type() != LibraryEventType.BOOK_BORROWED || event.bookId() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!recentEventIds.add(event.id())) {
+                return;
+            }
+        }
+        record(event.bookId(), event.occurredAt() != null ? event.occurredAt().toEpochMilli() : clock.getAsLong());
+    }
+
+    public synchronized void record(long bookId, long timeMillis) {
+        minutes.add(bookId, timeMillis);
+        hours.add(bookId, timeMillis);
+    }
+
+    public synchronized List<HeavyHitter> top(PopularityWindow window, int limit) {
+        long now = clock.getAsLong();
+        return switch (window) {
+            case HOUR -> minutes.top(limit, now, 60);
+            case DAY -> hours.top(limit, now, 24);
+            case WEEK -> hours.top(limit, now, 168);
+        };
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
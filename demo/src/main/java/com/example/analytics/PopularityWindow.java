@@ -0,0 +1,7 @@
+package com.example.analytics;
+
+public enum PopularityWindow {
+    HOUR,
+    DAY,
+    WEEK
+}
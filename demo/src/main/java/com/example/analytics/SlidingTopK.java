@@ -0,0 +1,124 @@
+package com.example.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Кільце часових кошиків фіксованого розміру; кожен кошик має власні Count-Min Sketch і Space-Saving.
+// Для кожного вікна підтримується сума скетчів його кошиків, тож запит не обходить усе кільце для кожного ключа
+final class SlidingTopK {
+    private final long bucketMillis;
+    private final Bucket[] ring;
+    private final int[] windows;
+    private final CountMinSketch[] totals;
+    // Найновіший кошик, врахований у сумі вікна
+    private final long[] newest;
+
+    SlidingTopK(long bucketMillis, int buckets, int[] windows, int capacity, int sketchDepth, int sketchWidth) {
+        this.bucketMillis = bucketMillis;
+        this.ring = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            ring[i] = new Bucket(capacity, sketchDepth, sketchWidth);
+        }
+        this.windows = windows.clone();
+        this.totals = new CountMinSketch[windows.length];
+        this.newest = new long[windows.length];
+        for (int w = 0; w < windows.length; w++) {
+            if (windows[w] < 1 || windows[w] > buckets) {
+                throw new IllegalArgumentException("Вікно має вміщатися в кільце кошиків");
+            }
+            totals[w] = new CountMinSketch(sketchDepth, sketchWidth);
+            newest[w] = Long.MIN_VALUE;
+        }
+    }
+
+    // Подія старша за кільце (або за вже перевикористаний кошик) відкидається
+    void add(long key, long timeMillis) {
+        long index = Math.floorDiv(timeMillis, bucketMillis);
+        advance(index);
+        Bucket bucket = ring[(int) Math.floorMod(index, ring.length)];
+        if (bucket.index != index) {
+            if (index < bucket.index) {
+                return;
+            }
+            bucket.reset(index);
+        }
+        bucket.sketch.add(key);
+        bucket.candidates.offer(key);
+        for (int w = 0; w < windows.length; w++) {
+            if (index > newest[w] - windows[w]) {
+                totals[w].add(key);
+            }
+        }
+    }
+
+    // Кандидати — об'єднання Space-Saving кошиків вікна, ранжування — за сумарним Count-Min вікна
+    List<HeavyHitter> top(int limit, long nowMillis, int window) {
+        int w = indexOf(window);
+        long now = Math.floorDiv(nowMillis, bucketMillis);
+        advance(now);
+        long oldest = newest[w] - windows[w] + 1;
+
+        Set<Long> keys = new HashSet<>();
+        for (Bucket bucket : ring) {
+            if (bucket.index >= oldest && bucket.index <= newest[w]) {
+                bucket.candidates.forEachKey(keys::add);
+            }
+        }
+        List<HeavyHitter> hits = new ArrayList<>(keys.size());
+        for (long key : keys) {
+            hits.add(new HeavyHitter(key, totals[w].estimate(key)));
+        }
+        hits.sort(Comparator.comparingLong(HeavyHitter::count).reversed().thenComparingLong(HeavyHitter::key));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    // Зсуває вікна до кошика index, віднімаючи з сум кошики, що з них випали.
+    // Виконується до перевикористання слота кільця, тому дані кошика ще на місці
+    private void advance(long index) {
+        for (int w = 0; w < windows.length; w++) {
+            if (index <= newest[w]) {
+                continue;
+            }
+            if (newest[w] == Long.MIN_VALUE || index - newest[w] >= windows[w]) {
+                totals[w].clear();
+            } else {
+                for (long expired = newest[w] - windows[w] + 1; expired <= index - windows[w]; expired++) {
+                    Bucket bucket = ring[(int) Math.floorMod(expired, ring.length)];
+                    if (bucket.index == expired) {
+                        totals[w].subtract(bucket.sketch);
+                    }
+                }
+            }
+            newest[w] = index;
+        }
+    }
+
+    private int indexOf(int window) {
+        for (int w = 0; w < windows.length; w++) {
+            if (windows[w] == window) {
+                return w;
+            }
+        }
+        throw new IllegalArgumentException("Невідоме вікно: " + window);
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private final SpaceSaving candidates;
+        private long index = Long.MIN_VALUE;
+
+        private Bucket(int capacity, int sketchDepth, int sketchWidth) {
+            this.sketch = new CountMinSketch(sketchDepth, sketchWidth);
+            this.candidates = new SpaceSaving(capacity);
+        }
+
+        private void reset(long index) {
+            this.index = index;
+            sketch.clear();
+            candidates.clear();
+        }
+    }
+}
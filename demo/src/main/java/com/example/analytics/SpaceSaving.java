@@ -0,0 +1,157 @@
+package com.example.analytics;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+// Алгоритм Space-Saving: не більше capacity ключів; будь-який ключ з частотою понад N/capacity гарантовано присутній
+final class SpaceSaving {
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final int capacity;
+    private final long[] keys;
+    private final int[] counts;
+    // Мін-купа номерів слотів за лічильником і зворотний індекс слот -> позиція в купі
+    private final int[] heap;
+    private final int[] heapPosition;
+    // Відкрита адресація ключ -> слот, без упаковки в Long на кожну подію
+    private final long[] tableKeys;
+    private final int[] tableSlots;
+    private final int tableMask;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Місткість має бути додатною");
+        }
+        this.capacity = capacity;
+        this.keys = new long[capacity];
+        this.counts = new int[capacity];
+        this.heap = new int[capacity];
+        this.heapPosition = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.tableKeys = new long[tableSize];
+        this.tableSlots = new int[tableSize];
+        this.tableMask = tableSize - 1;
+        Arrays.fill(tableKeys, EMPTY);
+    }
+
+    void offer(long key) {
+        int slot = find(key);
+        if (slot >= 0) {
+            counts[slot]++;
+            siftDown(heapPosition[slot]);
+            return;
+        }
+        if (size < capacity) {
+            slot = size++;
+            keys[slot] = key;
+            counts[slot] = 1;
+            heap[slot] = slot;
+            heapPosition[slot] = slot;
+            insert(key, slot);
+            siftUp(slot);
+            return;
+        }
+        // Витісняємо найменший лічильник: новий ключ успадковує його значення як верхню межу
+        slot = heap[0];
+        remove(keys[slot]);
+        keys[slot] = key;
+        counts[slot]++;
+        insert(key, slot);
+        siftDown(0);
+    }
+
+    void forEachKey(LongConsumer action) {
+        for (int slot = 0; slot < size; slot++) {
+            action.accept(keys[slot]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+        Arrays.fill(tableKeys, EMPTY);
+    }
+
+    private int find(long key) {
+        for (int i = index(key); ; i = (i + 1) & tableMask) {
+            long current = tableKeys[i];
+            if (current == key) {
+                return tableSlots[i];
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(long key, int slot) {
+        int i = index(key);
+        while (tableKeys[i] != EMPTY) {
+            i = (i + 1) & tableMask;
+        }
+        tableKeys[i] = key;
+        tableSlots[i] = slot;
+    }
+
+    // Видалення зі зсувом назад, щоб ланцюжки лінійного зондування лишалися цілими без "надгробків"
+    private void remove(long key) {
+        int i = index(key);
+        while (tableKeys[i] != key) {
+            i = (i + 1) & tableMask;
+        }
+        int gap = i;
+        for (int j = (gap + 1) & tableMask; tableKeys[j] != EMPTY; j = (j + 1) & tableMask) {
+            int home = index(tableKeys[j]);
+            if (((j - home) & tableMask) >= ((j - gap) & tableMask)) {
+                tableKeys[gap] = tableKeys[j];
+                tableSlots[gap] = tableSlots[j];
+                gap = j;
+            }
+        }
+        tableKeys[gap] = EMPTY;
+    }
+
+    private int index(long key) {
+        long h = key * 0x9e3779b97f4a7c15L;
+        return (int) (h ^ (h >>> 32)) & tableMask;
+    }
+
+    private void siftUp(int position) {
+        int slot = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (counts[heap[parent]] <= counts[slot]) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(slot, position);
+    }
+
+    private void siftDown(int position) {
+        int slot = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                child++;
+            }
+            if (counts[slot] <= counts[heap[child]]) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(slot, position);
+    }
+
+    private void place(int slot, int position) {
+        heap[position] = slot;
+        heapPosition[slot] = position;
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.bloom;
+
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+// Фільтри Блума над нормалізованими ключами: "точно немає" відповідає без запиту до БД.
+// Поки фільтри не побудовані (або інвалідовані масовим записом повз сервіси), перевірка пропускається
+@Slf4j
+@Component
+public class CatalogKeyFilters {
+    private final BookRepository bookRepository;
+    private final MemberRepository memberRepository;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final double driftRatio;
+    private final int parallelism;
+    private final int chunkSize;
+
+    private final Map<KeyFilter, Map<Result, Counter>> lookups = new EnumMap<>(KeyFilter.class);
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("bloom-rebuild").daemon().factory());
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Змінюється при кожній інвалідації: побудову, що почалася раніше, не можна робити поточною
+    private final AtomicLong epoch = new AtomicLong();
+
+    private volatile Generation generation = new Generation(null, null, null);
+
+    private enum Result {
+        ABSENT, MAYBE, BYPASS
+    }
+
+    public CatalogKeyFilters(BookRepository bookRepository,
+                             MemberRepository memberRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${library.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                             @Value("${library.bloom.min-capacity:100000}") long minCapacity,
+                             @Value("${library.bloom.drift-ratio:0.2}") double driftRatio,
+                             @Value("${library.bloom.rebuild-parallelism:4}") int parallelism,
+                             @Value("${library.bloom.rebuild-chunk-size:10000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.memberRepository = memberRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.driftRatio = driftRatio;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+
+        for (KeyFilter filter : KeyFilter.values()) {
+            Map<Result, Counter> counters = new EnumMap<>(Result.class);
+            for (Result result : Result.values()) {
+                counters.put(result, Counter.builder("library.bloom.lookups")
+                        .tag("filter", filter.tag())
+                        .tag("result", result.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            lookups.put(filter, counters);
+            Gauge.builder("library.bloom.expected.fpp", this, filters -> filters.expectedFalsePositiveRate(filter))
+                    .tag("filter", filter.tag())
+                    .description("Оцінка частки хибних спрацювань за заповненістю фільтра")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isReady() {
+        return generation.current != null;
+    }
+
+    public boolean definitelyAbsent(KeyFilter filter, String key) {
+        Filters current = generation.current;
+        if (current == null) {
+            lookups.get(filter).get(Result.BYPASS).increment();
+            return false;
+        }
+        boolean absent = !current.bloom(filter).mightContain(key);
+        lookups.get(filter).get(absent ? Result.ABSENT : Result.MAYBE).increment();
+        return absent;
+    }
+
+    public boolean definitelyAbsentBook(String titleKey, String authorKey) {
+        return definitelyAbsent(KeyFilter.BOOK, KeyFilter.bookKey(titleKey, authorKey));
+    }
+
+    // Ключ додається до коміту: відкат дає лише зайве хибне спрацювання, а не хибне "немає"
+    public void bookAdded(Book book) {
+        write(filters -> filters.addBook(book.getTitleKey(), book.getAuthorKey()));
+    }
+
+    // Видалити ключ з фільтра Блума неможливо: рахуємо дрейф і перебудовуємо, коли його забагато
+    public void bookRemoved() {
+        Filters current = generation.current;
+        if (current != null) {
+            current.removed(KeyFilter.BOOK);
+            current.removed(KeyFilter.TITLE);
+            checkDrift(current);
+        }
+    }
+
+    public void memberAdded(Member member) {
+        write(filters -> filters.addMember(member.getNameKey()));
+    }
+
+    public void memberRemoved() {
+        membersRemoved(1);
+    }
+
+    public void membersRemoved(long count) {
+        Filters current = generation.current;
+        if (current != null && count > 0) {
+            current.removed(KeyFilter.MEMBER_NAME, count);
+            checkDrift(current);
+        }
+    }
+
+    // Для масових записів повз сервіси (JDBC): викликається до і після запису, далі rebuildAsync.
+    // До наступної перебудови перевірки йдуть у БД
+    public void invalidate() {
+        synchronized (this) {
+            epoch.incrementAndGet();
+            generation = new Generation(null, generation.building, generation);
+        }
+    }
+
+    // До прогріву (StartupWarmup): інакше він проганяв би лише гілки повз фільтр
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() {
+        rebuildRequested.set(true);
+        drainRebuilds();
+    }
+
+    public void rebuildAsync() {
+        rebuildRequested.set(true);
+        if (!rebuilding.get() && !rebuilder.isShutdown()) {
+            rebuilder.execute(this::drainRebuilds);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private void drainRebuilds() {
+        while (rebuildRequested.get() && rebuilding.compareAndSet(false, true)) {
+            try {
+                while (rebuildRequested.getAndSet(false)) {
+                    buildOnce();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | ExecutionException e) {
+                log.error("Не вдалося перебудувати фільтри Блума", e);
+                return;
+            } finally {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private void buildOnce() throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        long startEpoch = epoch.get();
+        Filters next = new Filters(capacity(bookRepository.count()), capacity(memberRepository.count()));
+
+        // Нові записи йдуть і в поточні, і в нові фільтри; чекаємо транзакції, що почали запис до перемикання,
+        // щоб їхні рядки вже були закомічені на момент сканування
+        Generation previous;
+        synchronized (this) {
+            previous = generation;
+            generation = new Generation(previous.current, next, previous);
+        }
+        previous.awaitWriters();
+        long bookMaxId = bookRepository.findMaxId();
+        long memberMaxId = memberRepository.findMaxId();
+
+        List<Callable<Void>> chunks = new ArrayList<>();
+        addChunks(chunks, bookMaxId, from -> () -> {
+            for (Book book : bookRepository.findByIdBetween(from, Math.min(from + chunkSize - 1, bookMaxId))) {
+                next.addBook(book.getTitleKey(), book.getAuthorKey());
+            }
+            return null;
+        });
+        addChunks(chunks, memberMaxId, from -> () -> {
+            for (Member member : memberRepository.findByIdBetween(from, Math.min(from + chunkSize - 1, memberMaxId))) {
+                next.addMember(member.getNameKey());
+            }
+            return null;
+        });
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (Future<Void> chunk : executor.invokeAll(chunks)) {
+                chunk.get();
+            }
+        }
+        // Рядки з ID понад знімок максимуму додали самі записувачі (вони вже бачили next)
+        next.markBuilt();
+
+        synchronized (this) {
+            boolean invalidated = epoch.get() != startEpoch;
+            generation = new Generation(invalidated ? null : next, null, generation);
+        }
+        log.info("Фільтри Блума перебудовано: {} книг, {} учасників за {} мс",
+                next.built(KeyFilter.BOOK), next.built(KeyFilter.MEMBER_NAME), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void addChunks(List<Callable<Void>> chunks, long maxId, LongFunction<Callable<Void>> chunk) {
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            chunks.add(chunk.apply(from));
+        }
+    }
+
+    private long capacity(long rows) {
+        // Запас удвічі, щоб вставки між перебудовами не піднімали частку хибних спрацювань
+        return Math.max(minCapacity, rows * 2);
+    }
+
+    private void write(Consumer<Filters> change) {
+        Generation current = enter();
+        try {
+            if (current.current != null) {
+                change.accept(current.current);
+            }
+            if (current.building != null) {
+                change.accept(current.building);
+            }
+        } finally {
+            exitOnCompletion(current);
+        }
+        if (current.current != null) {
+            checkDrift(current.current);
+        }
+    }
+
+    // Реєстрація записувача з повторною перевіркою: після перемикання покоління старе вже не отримає нових
+    private Generation enter() {
+        while (true) {
+            Generation current = generation;
+            current.writers.incrementAndGet();
+            if (generation == current) {
+                return current;
+            }
+            current.writers.decrementAndGet();
+        }
+    }
+
+    private static void exitOnCompletion(Generation generation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.writers.decrementAndGet();
+                }
+            });
+        } else {
+            generation.writers.decrementAndGet();
+        }
+    }
+
+    private void checkDrift(Filters filters) {
+        for (KeyFilter filter : KeyFilter.values()) {
+            if (filters.drifted(filter, driftRatio)) {
+                log.info("Дрейф фільтра Блума {}: запускаємо перебудову", filter.tag());
+                rebuildAsync();
+                return;
+            }
+        }
+    }
+
+    private double expectedFalsePositiveRate(KeyFilter filter) {
+        Filters current = generation.current;
+        return current == null ? Double.NaN : current.bloom(filter).expectedFalsePositiveRate();
+    }
+
+    private static final class Generation {
+        private final Filters current;
+        private final Filters building;
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile Generation older;
+
+        private Generation(Filters current, Filters building, Generation older) {
+            this.current = current;
+            this.building = building;
+            this.older = older;
+        }
+
+        // Чекає на записувачів цього і всіх попередніх поколінь (інвалідація теж створює покоління)
+        void awaitWriters() throws InterruptedException {
+            for (Generation g = this; g != null; g = g.older) {
+                while (g.writers.get() > 0) {
+                    Thread.sleep(1);
+                }
+            }
+            older = null;
+        }
+    }
+
+    private final class Filters {
+        private final Map<KeyFilter, BloomFilter> blooms = new EnumMap<>(KeyFilter.class);
+        private final Map<KeyFilter, Long> capacities = new EnumMap<>(KeyFilter.class);
+        private final Map<KeyFilter, AtomicLong> added = new EnumMap<>(KeyFilter.class);
+        private final Map<KeyFilter, AtomicLong> removed = new EnumMap<>(KeyFilter.class);
+        private final Map<KeyFilter, Long> built = new EnumMap<>(KeyFilter.class);
+
+        Filters(long bookCapacity, long memberCapacity) {
+            for (KeyFilter filter : KeyFilter.values()) {
+                long capacity = filter == KeyFilter.MEMBER_NAME ? memberCapacity : bookCapacity;
+                blooms.put(filter, BloomFilter.create(capacity, falsePositiveRate));
+                capacities.put(filter, capacity);
+                added.put(filter, new AtomicLong());
+                removed.put(filter, new AtomicLong());
+                built.put(filter, 0L);
+            }
+        }
+
+        BloomFilter bloom(KeyFilter filter) {
+            return blooms.get(filter);
+        }
+
+        void addBook(String titleKey, String authorKey) {
+            put(KeyFilter.BOOK, KeyFilter.bookKey(titleKey, authorKey));
+            put(KeyFilter.TITLE, titleKey);
+        }
+
+        void addMember(String nameKey) {
+            put(KeyFilter.MEMBER_NAME, nameKey);
+        }
+
+        private void put(KeyFilter filter, String key) {
+            if (key != null) {
+                blooms.get(filter).put(key);
+                added.get(filter).incrementAndGet();
+            }
+        }
+
+        void removed(KeyFilter filter) {
+            removed(filter, 1);
+        }
+
+        void removed(KeyFilter filter, long count) {
+            removed.get(filter).addAndGet(count);
+        }
+
+        // Після побудови лічимо лише зміни відносно неї
+        void markBuilt() {
+            for (KeyFilter filter : KeyFilter.values()) {
+                built.put(filter, added.get(filter).getAndSet(0));
+                removed.get(filter).set(0);
+            }
+        }
+
+        long built(KeyFilter filter) {
+            return built.get(filter);
+        }
+
+        boolean drifted(KeyFilter filter, double ratio) {
+            long capacity = capacities.get(filter);
+            return removed.get(filter).get() > ratio * capacity
+                    || built.get(filter) + added.get(filter).get() > capacity;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bloom;
+
+public enum KeyFilter {
+    BOOK("book"),
+    TITLE("title"),
+    MEMBER_NAME("member-name");
+
+    private final String tag;
+
+    KeyFilter(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    // Ключ пари (назва, автор); \u0000 не трапляється в нормалізованому тексті
+    public static String bookKey(String titleKey, String authorKey) {
+        return titleKey + '\u0000' + authorKey;
+    }
+}
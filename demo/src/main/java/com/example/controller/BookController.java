@@ -1,7 +1,16 @@
 package com.example.controller;
 
+import com.example.admission.Bulkhead;
+import com.example.admission.EndpointClass;
+import com.example.dto.BookResponse;
+import com.example.dto.LookupResult;
 import com.example.entity.Book;
+import com.example.etag.CatalogScope;
+import com.example.etag.ConditionalGet;
+import com.example.event.BookAvailabilityStream;
+import com.example.search.BookSearchHit;
 import com.example.service.BookService;
+import com.example.service.ProjectionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,11 +18,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/books")
@@ -21,6 +34,9 @@ import java.util.Optional;
 @Tag(name = "Книги", description = "API для управління книгами")
 public class BookController {
     private final BookService bookService;
+    private final ProjectionService projectionService;
+    private final BookAvailabilityStream bookAvailabilityStream;
+    private final ConditionalGet conditionalGet;
 
     @Operation(summary = "Створити нову книгу")
     @ApiResponses({
@@ -28,17 +44,23 @@ public class BookController {
             @ApiResponse(responseCode = "400", description = "Неправильні вхідні дані")
     })
     @PostMapping
-    public ResponseEntity<Book> createBook(
+    public ResponseEntity<BookResponse> createBook(
             @Parameter(description = "Дані книги") @RequestBody Book book
     ) {
-        return new ResponseEntity<>(bookService.createBook(book), HttpStatus.CREATED);
+        return new ResponseEntity<>(BookResponse.from(bookService.createBook(book)), HttpStatus.CREATED);
     }
 
     @Operation(summary = "Отримати всі книги")
     @ApiResponse(responseCode = "200", description = "Список всіх книг успішно отримано")
+    @Bulkhead(EndpointClass.HEAVY_READ)
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        return ResponseEntity.ok(bookService.getAllBooks());
+    public ResponseEntity<List<?>> getAllBooks(
+            @Parameter(description = "Поля через кому, напр. id,title; без параметра — повний об'єкт") @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        return conditionalGet.respond(request, () -> fields != null
+                ? projectionService.getAllBooks(fields)
+                : toResponses(bookService.getAllBooks()), CatalogScope.BOOKS);
     }
 
     @Operation(summary = "Отримати книгу за ID")
@@ -46,11 +68,28 @@ public class BookController {
             @ApiResponse(responseCode = "200", description = "Книгу знайдено"),
             @ApiResponse(responseCode = "404", description = "Книгу не знайдено")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/{id}")
-    public ResponseEntity<Book> getBookById(
-            @Parameter(description = "ID книги") @PathVariable Long id
+    public ResponseEntity<BookResponse> getBookById(
+            @Parameter(description = "ID книги") @PathVariable Long id,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(bookService.getBookById(id));
+        return conditionalGet.respond(request, () -> BookResponse.from(bookService.getBookById(id)), CatalogScope.BOOKS);
+    }
+
+    @Operation(summary = "Отримати книги за списком ID")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Результати в порядку запиту, відсутні ID позначено found=false"),
+            @ApiResponse(responseCode = "400", description = "Забагато або некоректні ID")
+    })
+    @Bulkhead(EndpointClass.HEAVY_READ)
+    @PostMapping("/lookup")
+    public ResponseEntity<List<LookupResult<BookResponse>>> lookupBooks(
+            @Parameter(description = "Список ID книг") @RequestBody List<Long> ids
+    ) {
+        return ResponseEntity.ok(bookService.lookupBooks(ids).stream()
+                .map(result -> result.map(BookResponse::from))
+                .toList());
     }
 
     @Operation(summary = "Знайти книгу за назвою")
@@ -58,22 +97,28 @@ public class BookController {
             @ApiResponse(responseCode = "200", description = "Книгу знайдено"),
             @ApiResponse(responseCode = "404", description = "Книгу не знайдено")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/title")
     public ResponseEntity<?> findByTitle(
             @Parameter(description = "Назва книги") @RequestParam String title
     ) {
         Optional<Book> book = bookService.findByTitle(title);
-        return book.map(ResponseEntity::ok)
+        return book.map(BookResponse::from).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Знайти книги за автором")
     @ApiResponse(responseCode = "200", description = "Список книг автора")
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/author")
-    public ResponseEntity<List<Book>> findByAuthor(
-            @Parameter(description = "Ім'я автора") @RequestParam String author
+    public ResponseEntity<List<?>> findByAuthor(
+            @Parameter(description = "Ім'я автора") @RequestParam String author,
+            @Parameter(description = "Поля через кому, напр. id,title; без параметра — повний об'єкт") @RequestParam(required = false) String fields,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(bookService.findByAuthor(author));
+        return conditionalGet.respond(request, () -> fields != null
+                ? projectionService.findBooksByAuthor(author, fields)
+                : toResponses(bookService.findByAuthor(author)), CatalogScope.BOOKS);
     }
 
     @Operation(summary = "Оновити інформацію про книгу")
@@ -82,11 +127,11 @@ public class BookController {
             @ApiResponse(responseCode = "404", description = "Книгу не знайдено")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(
+    public ResponseEntity<BookResponse> updateBook(
             @Parameter(description = "ID книги") @PathVariable Long id,
             @Parameter(description = "Оновлені дані книги") @RequestBody Book book
     ) {
-        return ResponseEntity.ok(bookService.updateBook(id, book));
+        return ResponseEntity.ok(BookResponse.from(bookService.updateBook(id, book)));
     }
 
     @Operation(summary = "Видалити книгу")
@@ -107,13 +152,41 @@ public class BookController {
             @ApiResponse(responseCode = "200", description = "Книгу знайдено"),
             @ApiResponse(responseCode = "404", description = "Книгу не знайдено")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/search")
     public ResponseEntity<?> findByTitleAndAuthor(
             @Parameter(description = "Назва книги") @RequestParam String title,
             @Parameter(description = "Автор книги") @RequestParam String author
     ) {
         Optional<Book> book = bookService.findByTitleAndAuthor(title, author);
-        return book.map(ResponseEntity::ok)
+        return book.map(BookResponse::from).map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @Operation(summary = "Нечіткий пошук книг за назвою та автором")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Знайдені книги, найрелевантніші першими"),
+            @ApiResponse(responseCode = "400", description = "Порожній запит або неправильний ліміт")
+    })
+    @Bulkhead(EndpointClass.POINT_READ)
+    @GetMapping("/search/query")
+    public ResponseEntity<List<BookSearchHit>> searchBooks(
+            @Parameter(description = "Пошуковий запит: слова або їх початок") @RequestParam String q,
+            @Parameter(description = "Максимальна кількість результатів") @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(bookService.searchBooks(q, limit));
+    }
+
+    @Operation(summary = "Підписатися на зміни кількості доступних копій")
+    @ApiResponse(responseCode = "200", description = "Потік подій відкрито")
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @Parameter(description = "ID книг; якщо не вказано — усі книги") @RequestParam(required = false) Set<Long> bookIds
+    ) {
+        return bookAvailabilityStream.subscribe(bookIds == null ? Set.of() : bookIds);
+    }
+
+    private static List<BookResponse> toResponses(List<Book> books) {
+        return books.stream().map(BookResponse::from).toList();
+    }
 }
@@ -1,51 +1,95 @@
 
 package com.example.controller;
 
+import com.example.admission.Bulkhead;
+import com.example.admission.EndpointClass;
+import com.example.analytics.PopularityWindow;
+import com.example.dto.BorrowedBookResponse;
+import com.example.dto.MemberLoansResponse;
+import com.example.dto.PopularBookResponse;
 import com.example.entity.BorrowedBook;
+import com.example.etag.CatalogScope;
+import com.example.etag.ConditionalGet;
+import com.example.exception.ValidationException;
+import com.example.idempotency.IdempotencyStore;
+import com.example.ratelimit.RateLimiter;
 import com.example.service.BorrowingService;
+import com.example.service.ProjectionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/borrowings")
 @RequiredArgsConstructor
 @Tag(name = "Позичення", description = "API для управління позиченнями книг")
 public class BorrowingController {
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final BorrowingService borrowingService;
+    private final ProjectionService projectionService;
+    private final RateLimiter rateLimiter;
+    private final IdempotencyStore idempotencyStore;
+    private final ConditionalGet conditionalGet;
 
     @Operation(summary = "Позичити книгу")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Книгу успішно позичено"),
             @ApiResponse(responseCode = "400", description = "Неможливо позичити книгу"),
-            @ApiResponse(responseCode = "404", description = "Книгу або користувача не знайдено")
+            @ApiResponse(responseCode = "404", description = "Книгу або користувача не знайдено"),
+            @ApiResponse(responseCode = "422", description = "Ключ ідемпотентності використано для іншого запиту"),
+            @ApiResponse(responseCode = "429", description = "Перевищено ліміт запитів")
     })
+    @Bulkhead(EndpointClass.BORROW_RETURN)
     @PostMapping("/borrow")
-    public ResponseEntity<BorrowedBook> borrowBook(
+    public ResponseEntity<BorrowedBookResponse> borrowBook(
             @Parameter(description = "ID користувача") @RequestParam Long memberId,
-            @Parameter(description = "ID книги") @RequestParam Long bookId
+            @Parameter(description = "ID книги") @RequestParam Long bookId,
+            @Parameter(description = "Ключ ідемпотентності: повтор з тим самим ключем поверне результат першого виконання")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request
     ) {
-        return ResponseEntity.ok(borrowingService.borrowBook(memberId, bookId));
+        String clientId = clientId(request);
+        BorrowedBook borrowed = idempotent("borrow:" + memberId, idempotencyKey, String.valueOf(bookId), () -> {
+            rateLimiter.check("borrow", memberId, clientId);
+            return borrowingService.borrowBook(memberId, bookId);
+        });
+        return ResponseEntity.ok(BorrowedBookResponse.from(borrowed));
     }
 
     @Operation(summary = "Повернути книгу")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Книгу успішно повернено"),
-            @ApiResponse(responseCode = "404", description = "Запис про позичення не знайдено")
+            @ApiResponse(responseCode = "404", description = "Запис про позичення не знайдено"),
+            @ApiResponse(responseCode = "422", description = "Ключ ідемпотентності використано для іншого запиту"),
+            @ApiResponse(responseCode = "429", description = "Перевищено ліміт запитів")
     })
+    @Bulkhead(EndpointClass.BORROW_RETURN)
     @PostMapping("/return/{borrowingId}")
     public ResponseEntity<Void> returnBook(
-            @Parameter(description = "ID позичення") @PathVariable Long borrowingId
+            @Parameter(description = "ID позичення") @PathVariable Long borrowingId,
+            @Parameter(description = "Ключ ідемпотентності: повтор з тим самим ключем не повертає книгу вдруге")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request
     ) {
-        borrowingService.returnBook(borrowingId);
+        String clientId = clientId(request);
+        idempotent("return:" + borrowingId, idempotencyKey, String.valueOf(borrowingId), () -> {
+            rateLimiter.check("return", null, clientId);
+            borrowingService.returnBook(borrowingId);
+            return null;
+        });
         return ResponseEntity.ok().build();
     }
 
@@ -54,24 +98,83 @@ public class BorrowingController {
             @ApiResponse(responseCode = "200", description = "Список позичених книг отримано"),
             @ApiResponse(responseCode = "404", description = "Користувача не знайдено")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/member/{memberName}")
-    public ResponseEntity<List<BorrowedBook>> getBorrowedBooksByMember(
-            @Parameter(description = "Ім'я користувача") @PathVariable String memberName
+    public ResponseEntity<List<?>> getBorrowedBooksByMember(
+            @Parameter(description = "Ім'я користувача") @PathVariable String memberName,
+            @Parameter(description = "Поля через кому, напр. id,bookTitle; без параметра — повний об'єкт") @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        return conditionalGet.respond(request, () -> fields != null
+                ? projectionService.getBorrowedBooksByMemberName(memberName, fields)
+                : borrowingService.getBorrowedBooksByMemberName(memberName).stream()
+                        .map(BorrowedBookResponse::from)
+                        .toList(), CatalogScope.LOANS, CatalogScope.MEMBERS, CatalogScope.BOOKS);
+    }
+
+    @Operation(summary = "Поточні позичення учасника з моделі читання в пам'яті")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Позичення, їх кількість і залишок ліміту"),
+            @ApiResponse(responseCode = "404", description = "Учасника не знайдено"),
+            @ApiResponse(responseCode = "503", description = "Модель читання ще завантажується")
+    })
+    @Bulkhead(EndpointClass.POINT_READ)
+    @GetMapping("/members/{memberId}")
+    public ResponseEntity<MemberLoansResponse> getMemberLoans(
+            @Parameter(description = "ID учасника") @PathVariable Long memberId
     ) {
-        return ResponseEntity.ok(borrowingService.getBorrowedBooksByMemberName(memberName));
+        return ResponseEntity.ok(borrowingService.getMemberLoans(memberId));
     }
 
     @Operation(summary = "Отримати список унікальних назв позичених книг")
     @ApiResponse(responseCode = "200", description = "Список назв отримано")
+    @Bulkhead(EndpointClass.HEAVY_READ)
     @GetMapping("/books/distinct")
-    public ResponseEntity<List<String>> getDistinctBorrowedBooks() {
-        return ResponseEntity.ok(borrowingService.getAllBorrowedBookNames());
+    public ResponseEntity<List<String>> getDistinctBorrowedBooks(WebRequest request) {
+        return conditionalGet.respond(request, borrowingService::getAllBorrowedBookNames,
+                CatalogScope.LOANS, CatalogScope.BOOKS);
     }
 
     @Operation(summary = "Отримати статистику позичень книг")
     @ApiResponse(responseCode = "200", description = "Статистику отримано")
+    @Bulkhead(EndpointClass.HEAVY_READ)
     @GetMapping("/books/statistics")
-    public ResponseEntity<List<Map<String, Object>>> getBorrowedBooksWithCount() {
-        return ResponseEntity.ok(borrowingService.getBorrowedBooksWithCount());
+    public ResponseEntity<List<Map<String, Object>>> getBorrowedBooksWithCount(WebRequest request) {
+        return conditionalGet.respond(request, borrowingService::getBorrowedBooksWithCount,
+                CatalogScope.LOANS, CatalogScope.BOOKS);
+    }
+
+    @Operation(summary = "Найпопулярніші книги за останню годину, день або тиждень")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Книги за спаданням кількості позичень (оцінка згори)"),
+            @ApiResponse(responseCode = "400", description = "Неправильна кількість книг або вікно")
+    })
+    @Bulkhead(EndpointClass.POINT_READ)
+    @GetMapping("/books/popular")
+    public ResponseEntity<List<PopularBookResponse>> getPopularBooks(
+            @Parameter(description = "Часове вікно: HOUR, DAY або WEEK") @RequestParam(defaultValue = "DAY") PopularityWindow window,
+            @Parameter(description = "Кількість книг") @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(borrowingService.getPopularBooks(window, limit));
+    }
+
+    // Область ключа — ресурс запиту (учасник або позичення), а не адреса клієнта: повтор з іншої адреси
+    // (NAT, мобільна мережа, проксі) має знайти свій ключ. Ліміт перевіряється всередині дії,
+    // тож повтор уже виконаного запиту отримує збережений результат і не витрачає токени
+    private <T> T idempotent(String scope, String idempotencyKey, String fingerprint, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ValidationException("Ключ ідемпотентності не може бути довшим за "
+                    + MAX_IDEMPOTENCY_KEY_LENGTH + " символів");
+        }
+        return idempotencyStore.execute(scope, idempotencyKey, fingerprint, action);
+    }
+
+    // Клієнт ідентифікується адресою, яку визначив сервер: заголовок від клієнта можна міняти на кожен запит
+    // і щоразу отримувати нове відро. За проксі адресу з X-Forwarded-For бере контейнер лише від довірених проксі
+    private static String clientId(HttpServletRequest request) {
+        return request.getRemoteAddr();
     }
 }
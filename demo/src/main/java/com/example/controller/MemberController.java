@@ -1,26 +1,57 @@
 package com.example.controller;
 
+import com.example.admission.Bulkhead;
+import com.example.admission.EndpointClass;
+import com.example.dto.LookupResult;
+import com.example.dto.MemberDeleteReport;
+import com.example.dto.MemberImportReport;
+import com.example.dto.MemberResponse;
 import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.ConditionalGet;
+import com.example.exception.ValidationException;
+import com.example.service.MemberBulkService;
 import com.example.service.MemberService;
+import com.example.service.ProjectionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/members")
-@RequiredArgsConstructor
 @Tag(name = "Користувачі", description = "API для управління користувачами бібліотеки")
 public class MemberController {
     private final MemberService memberService;
+    private final ProjectionService projectionService;
+    private final ConditionalGet conditionalGet;
+    private final MemberBulkService memberBulkService;
+    private final ObjectReader memberReader;
+
+    public MemberController(MemberService memberService, ProjectionService projectionService,
+                            ConditionalGet conditionalGet, MemberBulkService memberBulkService,
+                            ObjectMapper objectMapper) {
+        this.memberService = memberService;
+        this.projectionService = projectionService;
+        this.conditionalGet = conditionalGet;
+        this.memberBulkService = memberBulkService;
+        this.memberReader = objectMapper.readerFor(Member.class);
+    }
 
     @Operation(summary = "Створити нового користувача")
     @ApiResponses({
@@ -28,17 +59,60 @@ public class MemberController {
             @ApiResponse(responseCode = "400", description = "Неправильні вхідні дані")
     })
     @PostMapping
-    public ResponseEntity<Member> createMember(
+    public ResponseEntity<MemberResponse> createMember(
             @Parameter(description = "Дані користувача") @RequestBody Member member
     ) {
-        return new ResponseEntity<>(memberService.createMember(member), HttpStatus.CREATED);
+        return new ResponseEntity<>(MemberResponse.from(memberService.createMember(member)), HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Масовий імпорт користувачів",
+            description = "Приймає JSON-масив або NDJSON і читає його потоково; записи пишуться пакетами, кожен пакет — окрема транзакція")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Звіт: імпортовано, відхилено з причинами, рядків за секунду"),
+            @ApiResponse(responseCode = "400", description = "Некоректний JSON; пакети до помилки вже імпортовано")
+    })
+    @Bulkhead(EndpointClass.BULK_WRITE)
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<MemberImportReport> importMembers(HttpServletRequest request) throws IOException {
+        // Тіло не буферизується: MappingIterator розбирає масив або послідовність об'єктів по одному
+        try (MappingIterator<Member> members = memberReader.readValues(request.getInputStream())) {
+            return ResponseEntity.ok(memberBulkService.importMembers(members));
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некоректний JSON: " + e.getOriginalMessage());
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof JsonProcessingException json) {
+                throw new ValidationException("Некоректний JSON: " + json.getOriginalMessage()
+                        + "; попередні пакети вже імпортовано");
+            }
+            throw e;
+        }
+    }
+
+    @Operation(summary = "Масове видалення користувачів",
+            description = "Закриває позичення видалених користувачів і повертає примірники до фонду")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Звіт: видалено, закрито позичень, рядків за секунду"),
+            @ApiResponse(responseCode = "400", description = "Порожній список або забагато ID")
+    })
+    @Bulkhead(EndpointClass.BULK_WRITE)
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<MemberDeleteReport> deleteMembers(
+            @Parameter(description = "Список ID користувачів; відсутні ID пропускаються") @RequestBody List<Long> ids
+    ) {
+        return ResponseEntity.ok(memberBulkService.deleteMembers(ids));
     }
 
     @Operation(summary = "Отримати всіх користувачів")
     @ApiResponse(responseCode = "200", description = "Список користувачів отримано")
+    @Bulkhead(EndpointClass.HEAVY_READ)
     @GetMapping
-    public ResponseEntity<List<Member>> getAllMembers() {
-        return ResponseEntity.ok(memberService.getAllMembers());
+    public ResponseEntity<List<?>> getAllMembers(
+            @Parameter(description = "Поля через кому, напр. id,name; без параметра — повний об'єкт") @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        return conditionalGet.respond(request, () -> fields != null
+                ? projectionService.getAllMembers(fields)
+                : memberService.getAllMembers().stream().map(MemberResponse::from).toList(), CatalogScope.MEMBERS);
     }
 
     @Operation(summary = "Отримати користувача за ID")
@@ -46,25 +120,47 @@ public class MemberController {
             @ApiResponse(responseCode = "200", description = "Користувача знайдено"),
             @ApiResponse(responseCode = "404", description = "Користувача не знайдено")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/{id}")
-    public ResponseEntity<Member> getMemberById(
-            @Parameter(description = "ID користувача") @PathVariable Long id
+    public ResponseEntity<MemberResponse> getMemberById(
+            @Parameter(description = "ID користувача") @PathVariable Long id,
+            WebRequest request
     ) {
-        return ResponseEntity.ok(memberService.getMemberById(id));
+        return conditionalGet.respond(request, () -> MemberResponse.from(memberService.getMemberById(id)), CatalogScope.MEMBERS);
     }
 
-    @Operation(summary = "Пошук користувача за ім'ям")
+    @Operation(summary = "Отримати користувачів за списком ID")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Користувача знайдено"),
-            @ApiResponse(responseCode = "404", description = "Користувача не знайдено")
+            @ApiResponse(responseCode = "200", description = "Результати в порядку запиту, відсутні ID позначено found=false"),
+            @ApiResponse(responseCode = "400", description = "Забагато або некоректні ID")
+    })
+    @Bulkhead(EndpointClass.HEAVY_READ)
+    @PostMapping("/lookup")
+    public ResponseEntity<List<LookupResult<MemberResponse>>> lookupMembers(
+            @Parameter(description = "Список ID користувачів") @RequestBody List<Long> ids
+    ) {
+        return ResponseEntity.ok(memberService.lookupMembers(ids).stream()
+                .map(result -> result.map(MemberResponse::from))
+                .toList());
+    }
+
+    @Operation(summary = "Пошук користувачів за початком імені")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Сторінка знайдених користувачів"),
+            @ApiResponse(responseCode = "400", description = "Порожнє ім'я або неправильний розмір сторінки")
     })
+    @Bulkhead(EndpointClass.POINT_READ)
     @GetMapping("/search")
-    public ResponseEntity<?> findByName(
-            @Parameter(description = "Ім'я користувача") @RequestParam String name
+    public ResponseEntity<PagedModel<?>> searchByName(
+            @Parameter(description = "Початок імені користувача, без урахування регістру") @RequestParam String name,
+            @Parameter(description = "Номер сторінки, з нуля") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Розмір сторінки") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Поля через кому, напр. id,name; без параметра — повний об'єкт") @RequestParam(required = false) String fields,
+            WebRequest request
     ) {
-        Optional<Member> member = memberService.findByName(name);
-        return member.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return conditionalGet.respond(request, () -> fields != null
+                ? new PagedModel<>(projectionService.searchMembersByName(name, page, size, fields))
+                : new PagedModel<>(memberService.searchByName(name, page, size).map(MemberResponse::from)), CatalogScope.MEMBERS);
     }
 
     @Operation(summary = "Оновити дані користувача")
@@ -73,11 +169,11 @@ public class MemberController {
             @ApiResponse(responseCode = "404", description = "Користувача не знайдено")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<Member> updateMember(
+    public ResponseEntity<MemberResponse> updateMember(
             @Parameter(description = "ID користувача") @PathVariable Long id,
             @Parameter(description = "Оновлені дані користувача") @RequestBody Member member
     ) {
-        return ResponseEntity.ok(memberService.updateMember(id, member));
+        return ResponseEntity.ok(MemberResponse.from(memberService.updateMember(id, member)));
     }
 
     @Operation(summary = "Видалити користувача")
@@ -0,0 +1,82 @@
+package com.example.controller;
+
+import com.example.admission.Bulkhead;
+import com.example.admission.EndpointClass;
+import com.example.report.CatalogReports;
+import com.example.report.ReportStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Звіти віддаються як NDJSON: рядки пишуться у відповідь у міру готовності фрагментів
+@RestController
+@RequestMapping("/api/reports")
+@Tag(name = "Звіти", description = "Агрегати каталогу, що обчислюються на сервері")
+public class ReportController {
+    private final CatalogReports catalogReports;
+    private final ObjectWriter lineWriter;
+
+    public ReportController(CatalogReports catalogReports, ObjectMapper objectMapper) {
+        this.catalogReports = catalogReports;
+        this.lineWriter = objectMapper.writer().withRootValueSeparator("\n");
+    }
+
+    @Operation(summary = "Кількість назв і примірників за автором")
+    @ApiResponse(responseCode = "200", description = "Автори за спаданням кількості примірників, по одному на рядок")
+    @Bulkhead(EndpointClass.HEAVY_READ)
+    @GetMapping(value = "/authors/copies", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> copiesPerAuthor() {
+        return ndjson(catalogReports.copiesPerAuthor());
+    }
+
+    @Operation(summary = "Книги без доступних примірників")
+    @ApiResponse(responseCode = "200", description = "Книги в порядку ID, по одній на рядок")
+    @Bulkhead(EndpointClass.HEAVY_READ)
+    @GetMapping(value = "/books/unavailable", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> booksWithoutCopies() {
+        return ndjson(catalogReports.booksWithoutCopies());
+    }
+
+    @Operation(summary = "Користувачі, близькі до ліміту позичень")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Користувачі в порядку ID, по одному на рядок"),
+            @ApiResponse(responseCode = "400", description = "Неправильний запас до ліміту")
+    })
+    @Bulkhead(EndpointClass.HEAVY_READ)
+    @GetMapping(value = "/members/near-limit", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> membersNearLimit(
+            @Parameter(description = "Скільки книг максимум лишилося до ліміту") @RequestParam(defaultValue = "1") int margin
+    ) {
+        return ndjson(catalogReports.membersNearLimit(margin));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(ReportStream<?> report) {
+        StreamingResponseBody body = output -> {
+            try (SequenceWriter writer = lineWriter.writeValues(output)) {
+                report.forEach(row -> {
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.datagen;
+
+import com.example.util.TextNormalizer;
+
+// Назви та імена, що проходять BookValidator: автор — два слова з великої літери без апострофів і "ґ"
+final class CatalogNames {
+    private static final String[] UKRAINIAN_FIRST = {
+            "Олена", "Тарас", "Іван", "Марія", "Оксана", "Андрій", "Богдан", "Ірина", "Наталія", "Петро",
+            "Юрій", "Софія", "Василь", "Галина", "Дмитро", "Катерина", "Микола", "Євген", "Ольга", "Степан"};
+    private static final String[] UKRAINIAN_LAST = {
+            "Шевченко", "Франко", "Коваленко", "Бондаренко", "Ткаченко", "Кравченко", "Мельник", "Шевчук",
+            "Поліщук", "Лисенко", "Марченко", "Савченко", "Руденко", "Гончар", "Іваненко", "Левченко",
+            "Павленко", "Мороз", "Кузьменко", "Остапчук"};
+    private static final String[] LATIN_FIRST = {
+            "John", "Emma", "Lucas", "Olivia", "Noah", "Mia", "Liam", "Sofia", "Ethan", "Clara"};
+    private static final String[] LATIN_LAST = {
+            "Smith", "Johnson", "Brown", "Miller", "Garcia", "Wilson", "Taylor", "Clark", "Walker", "Young"};
+
+    private static final String[] UKRAINIAN_HEAD = {
+            "Пісня", "Тіні", "Дорога", "Легенда", "Таємниця", "Хроніки", "Листи", "Сни", "Берег", "Голос"};
+    private static final String[] UKRAINIAN_TAIL = {
+            "моря", "степу", "міста", "вітру", "ночі", "дому", "серця", "гір", "зими", "річки"};
+    private static final String[] LATIN_HEAD = {
+            "Shadows", "Songs", "Letters", "Chronicles", "Echoes", "Maps", "Rivers", "Silence"};
+    private static final String[] LATIN_TAIL = {
+            "North", "Sea", "City", "Night", "Winter", "Forest", "Valley", "Stars"};
+
+    private static final int UKRAINIAN_AUTHORS = UKRAINIAN_FIRST.length * UKRAINIAN_LAST.length;
+    static final int AUTHORS = UKRAINIAN_AUTHORS + LATIN_FIRST.length * LATIN_LAST.length;
+    private static final int UKRAINIAN_TITLES = UKRAINIAN_HEAD.length * UKRAINIAN_TAIL.length;
+    static final int TITLES = UKRAINIAN_TITLES + LATIN_HEAD.length * LATIN_TAIL.length;
+
+    // Нормалізовані ключі обчислюються один раз: NFKC і регулярні вирази на кожен рядок помітно гальмують вставку
+    private static final String[] AUTHOR_KEYS = new String[AUTHORS];
+    private static final String[] TITLE_KEYS = new String[TITLES];
+
+    static {
+        for (int i = 0; i < AUTHORS; i++) {
+            AUTHOR_KEYS[i] = TextNormalizer.normalize(author(i));
+        }
+        for (int i = 0; i < TITLES; i++) {
+            TITLE_KEYS[i] = TextNormalizer.normalize(title(i));
+        }
+    }
+
+    record BookName(String title, String author, String titleKey, String authorKey) {
+    }
+
+    private CatalogNames() {
+    }
+
+    static String author(int index) {
+        int i = Math.floorMod(index, AUTHORS);
+        if (i < UKRAINIAN_AUTHORS) {
+            return UKRAINIAN_FIRST[i % UKRAINIAN_FIRST.length] + " " + UKRAINIAN_LAST[i / UKRAINIAN_FIRST.length];
+        }
+        i -= UKRAINIAN_AUTHORS;
+        return LATIN_FIRST[i % LATIN_FIRST.length] + " " + LATIN_LAST[i / LATIN_FIRST.length];
+    }
+
+    static String title(int index) {
+        int i = Math.floorMod(index, TITLES);
+        if (i < UKRAINIAN_TITLES) {
+            return UKRAINIAN_HEAD[i % UKRAINIAN_HEAD.length] + " " + UKRAINIAN_TAIL[i / UKRAINIAN_HEAD.length];
+        }
+        i -= UKRAINIAN_TITLES;
+        return LATIN_HEAD[i % LATIN_HEAD.length] + " of the " + LATIN_TAIL[i / LATIN_HEAD.length];
+    }
+
+    // Пара (назва, автор) унікальна для кожного номера; після вичерпання комбінацій додається номер тому
+    static BookName book(long number) {
+        int author = (int) (number % AUTHORS);
+        long rest = number / AUTHORS;
+        int title = (int) (rest % TITLES);
+        long volume = rest / TITLES;
+        String suffix = volume == 0 ? "" : " " + (volume + 1);
+        return new BookName(title(title) + suffix, author(author), TITLE_KEYS[title] + suffix, AUTHOR_KEYS[author]);
+    }
+
+    static String authorKey(int index) {
+        return AUTHOR_KEYS[Math.floorMod(index, AUTHORS)];
+    }
+}
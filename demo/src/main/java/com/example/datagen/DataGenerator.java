@@ -0,0 +1,207 @@
+package com.example.datagen;
+
+import com.example.bloom.CatalogKeyFilters;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// java -jar demo.jar --spring.profiles.active=datagen --library.datagen.books=10000000 --library.datagen.loans=50000000
+@Slf4j
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+@RequiredArgsConstructor
+public class DataGenerator implements ApplicationRunner {
+    // Дати реєстрації відраховуються від фіксованого моменту, щоб дані залежали лише від seed
+    private static final Instant REFERENCE = Instant.parse("2026-01-01T00:00:00Z");
+    private static final long REGISTRATION_SPAN_MS = Duration.ofDays(3 * 365).toMillis();
+    private static final int BOOKS_STREAM = 1;
+    private static final int MEMBERS_STREAM = 2;
+    private static final int LOANS_STREAM = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataGeneratorProperties properties;
+    private final CatalogVersions catalogVersions;
+    private final CatalogKeyFilters catalogKeyFilters;
+
+    @Value("${library.max.books.per.member:10}")
+    private int maxBooksPerMember;
+
+    public record TableReport(String table, long rows, long millis) {
+        public long rowsPerSecond() {
+            return millis == 0 ? rows : rows * 1000 / millis;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, long row, SplittableRandom random) throws SQLException;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        generate(properties);
+    }
+
+    public List<TableReport> generate(DataGeneratorProperties properties) throws InterruptedException {
+        int books = properties.books();
+        int members = properties.members();
+        long loans = properties.loans();
+        // Позичення розподіляються по колу між новими користувачами, тож на одного припадає не більше ceil(loans / members)
+        if (loans > 0 && (members == 0 || books == 0 || (loans + members - 1) / members > maxBooksPerMember)) {
+            throw new IllegalArgumentException("Забагато позичень: не більше " + maxBooksPerMember
+                    + " на користувача, тобто до " + (long) members * maxBooksPerMember);
+        }
+
+        // Рядки пишуться повз сервіси, тож фільтри Блума не знатимуть про них до перебудови
+        catalogKeyFilters.invalidate();
+
+        // Нові рядки додаються після наявних, тож генератор можна запускати повторно
+        long bookBase = maxId("book");
+        long memberBase = maxId("member");
+        long loanBase = maxId("borrowed_book");
+        long started = System.nanoTime();
+
+        List<TableReport> reports = new ArrayList<>();
+        reports.add(insert(properties, "book", books, BOOKS_STREAM,
+                "insert into book (id, title, author, copies_amount, title_key, author_key) values (?, ?, ?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    CatalogNames.BookName book = CatalogNames.book(bookBase + row);
+                    statement.setLong(1, bookBase + row + 1);
+                    statement.setString(2, book.title());
+                    statement.setString(3, book.author());
+                    statement.setInt(4, random.nextInt(properties.maxSpareCopies() + 1));
+                    statement.setString(5, book.titleKey());
+                    statement.setString(6, book.authorKey());
+                }));
+
+        reports.add(insert(properties, "member", members, MEMBERS_STREAM,
+                "insert into member (id, name, creation_date, name_key) values (?, ?, ?, ?)",
+                (statement, row, random) -> {
+                    int name = random.nextInt(CatalogNames.AUTHORS);
+                    statement.setLong(1, memberBase + row + 1);
+                    statement.setString(2, CatalogNames.author(name));
+                    statement.setTimestamp(3, Timestamp.from(REFERENCE.minusMillis(random.nextLong(REGISTRATION_SPAN_MS))));
+                    statement.setString(4, CatalogNames.authorKey(name));
+                }));
+
+        ZipfSampler popularity = new ZipfSampler(Math.max(books, 1), properties.zipfExponent());
+        long stride = coprimeStride(books);
+        reports.add(insert(properties, "borrowed_book", loans, LOANS_STREAM,
+                "insert into borrowed_book (id, member_id, book_id) values (?, ?, ?)",
+                (statement, row, random) -> {
+                    // Ранг популярності розкидається по ID, щоб популярні книги не були лише першими
+                    long book = (popularity.sample(random) - 1) * stride % books;
+                    statement.setLong(1, loanBase + row + 1);
+                    statement.setLong(2, memberBase + row % members + 1);
+                    statement.setLong(3, bookBase + book + 1);
+                }));
+
+        restartIdentity("book", bookBase + books + 1);
+        restartIdentity("member", memberBase + members + 1);
+        restartIdentity("borrowed_book", loanBase + loans + 1);
+        catalogVersions.changed(CatalogScope.BOOKS, CatalogScope.MEMBERS, CatalogScope.LOANS);
+        catalogKeyFilters.invalidate();
+        catalogKeyFilters.rebuildAsync();
+
+        for (TableReport report : reports) {
+            log.info("Згенеровано {}: {} рядків за {} мс ({} рядків/с)",
+                    report.table(), report.rows(), report.millis(), report.rowsPerSecond());
+        }
+        log.info("Генерацію завершено за {} мс", (System.nanoTime() - started) / 1_000_000);
+        return reports;
+    }
+
+    // Таблиця ділиться на фрагменти з власним seed: результат не залежить від кількості потоків і порядку виконання
+    private TableReport insert(DataGeneratorProperties properties, String table, long rows, int stream, String sql,
+                               RowWriter writer)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        int chunkSize = properties.chunkSize();
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(properties.threads())) {
+            for (long from = 0; from < rows; from += chunkSize) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(from + chunkSize, rows);
+                SplittableRandom random = new SplittableRandom(properties.seed() * 1_000_003L + stream * 7_919L + from);
+                results.add(executor.submit(() -> insertChunk(sql, chunkFrom, chunkTo, properties.batchSize(), random, writer)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Не вдалося згенерувати " + table, e.getCause());
+        }
+        return new TableReport(table, rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void insertChunk(String sql, long from, long to, int batchSize, SplittableRandom random, RowWriter writer) {
+        jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (long row = from; row < to; row++) {
+                    writer.write(statement, row, random);
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    // Явні ID не зсувають лічильник identity, тому без цього наступний insert застосунку впаде на ключі
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + next);
+    }
+
+    // Крок, взаємно простий з n, робить відображення rank -> rank * stride mod n перестановкою
+    static long coprimeStride(long n) {
+        long stride = Math.max(1, (long) (n * 0.6180339887)) | 1;
+        while (n > 1 && gcd(stride, n) != 1) {
+            stride += 2;
+        }
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.datagen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("library.datagen")
+public record DataGeneratorProperties(
+        @DefaultValue("100000") int books,
+        @DefaultValue("10000") int members,
+        @DefaultValue("50000") long loans,
+        @DefaultValue("42") long seed,
+        // Показник розподілу Ціпфа для популярності книг; 1.0 — класичний "закон 80/20"
+        @DefaultValue("1.0") double zipfExponent,
+        // Вільні примірники понад ті, що на руках
+        @DefaultValue("3") int maxSpareCopies,
+        @DefaultValue("8") int threads,
+        @DefaultValue("50000") int chunkSize,
+        @DefaultValue("1000") int batchSize
+) {
+}
@@ -0,0 +1,4 @@
+package com.example.dto;
+
+public record ApiError(String code, String error) {
+}
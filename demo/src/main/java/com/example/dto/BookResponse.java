@@ -0,0 +1,9 @@
+package com.example.dto;
+
+import com.example.entity.Book;
+
+public record BookResponse(Long id, String title, String author, int copiesAmount) {
+    public static BookResponse from(Book book) {
+        return new BookResponse(book.getId(), book.getTitle(), book.getAuthor(), book.getCopiesAmount());
+    }
+}
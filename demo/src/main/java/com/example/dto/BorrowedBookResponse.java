@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import com.example.entity.BorrowedBook;
+
+public record BorrowedBookResponse(Long id, MemberResponse member, BookResponse book) {
+    public static BorrowedBookResponse from(BorrowedBook borrowedBook) {
+        return new BorrowedBookResponse(borrowedBook.getId(),
+                MemberResponse.from(borrowedBook.getMember()), BookResponse.from(borrowedBook.getBook()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.function.Function;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LookupResult<T>(Long id, boolean found, T item) {
+    public static <T> LookupResult<T> found(Long id, T item) {
+        return new LookupResult<>(id, true, item);
+    }
+
+    public static <T> LookupResult<T> missing(Long id) {
+        return new LookupResult<>(id, false, null);
+    }
+
+    public <R> LookupResult<R> map(Function<T, R> mapper) {
+        return new LookupResult<>(id, found, item == null ? null : mapper.apply(item));
+    }
+}
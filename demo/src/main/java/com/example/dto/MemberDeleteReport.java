@@ -0,0 +1,5 @@
+package com.example.dto;
+
+public record MemberDeleteReport(int requested, int deleted, int loansClosed, int booksRestocked,
+                                 long millis, long rowsPerSecond) {
+}
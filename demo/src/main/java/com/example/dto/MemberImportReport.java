@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import java.util.List;
+
+// Рядки нумеруються з 1 у порядку надходження; помилки повертаються лише для перших кількох
+public record MemberImportReport(long received, long imported, long rejected, List<RowError> errors,
+                                 long millis, long rowsPerSecond) {
+
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import java.util.List;
+
+public record MemberLoansResponse(long memberId, String memberName, int loanCount, int remainingAllowance,
+                                  List<Loan> loans) {
+
+    public record Loan(long borrowingId, long bookId, String title, String author) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.dto;
+
+import com.example.entity.Member;
+
+import java.util.Date;
+
+public record MemberResponse(long id, String name, Date creationDate) {
+    public static MemberResponse from(Member member) {
+        return new MemberResponse(member.getId(), member.getName(), member.getCreationDate());
+    }
+}
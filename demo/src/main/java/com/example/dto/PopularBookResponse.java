@@ -0,0 +1,10 @@
+package com.example.dto;
+
+import com.example.entity.Book;
+
+// borrowings — оцінка згори за Count-Min Sketch, а не точний підрахунок
+public record PopularBookResponse(Long id, String title, String author, long borrowings) {
+    public static PopularBookResponse from(Book book, long borrowings) {
+        return new PopularBookResponse(book.getId(), book.getTitle(), book.getAuthor(), borrowings);
+    }
+}
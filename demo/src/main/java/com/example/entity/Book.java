@@ -1,14 +1,20 @@
 package com.example.entity;
 
+import com.example.util.TextNormalizer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_title_author_key", columnList = "title_key, author_key"),
+        @Index(name = "idx_book_author_key", columnList = "author_key")
+})
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,4 +29,31 @@ public class Book {
     @Column(name = "copiesAmount")
     private int copiesAmount;
 
+    // Нормалізовані ключі для пошуку та дедуплікації; оновлюються разом з назвою та автором
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "title_key")
+    private String titleKey;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "author_key")
+    private String authorKey;
+
+    public Book(Long id, String title, String author, int copiesAmount) {
+        this.id = id;
+        setTitle(title);
+        setAuthor(author);
+        this.copiesAmount = copiesAmount;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titleKey = TextNormalizer.normalize(title);
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+        this.authorKey = TextNormalizer.normalize(author);
+    }
 }
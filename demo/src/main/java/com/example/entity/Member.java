@@ -1,16 +1,19 @@
 package com.example.entity;
 
+import com.example.util.TextNormalizer;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.util.Date;
 
 @Entity
+@Table(indexes = @Index(name = "idx_member_name_key", columnList = "name_key"))
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Member {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,8 +25,24 @@ public class Member {
     @Column(name = "creationDate")
     private Date creationDate;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key")
+    private String nameKey;
+
+    public Member(long id, String name, Date creationDate) {
+        this.id = id;
+        setName(name);
+        this.creationDate = creationDate;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = TextNormalizer.normalize(name);
+    }
+
     @PrePersist
     protected void onCreate() {
         creationDate = new Date();
     }
-}
\ No newline at end of file
+}
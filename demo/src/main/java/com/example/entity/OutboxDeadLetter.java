@@ -0,0 +1,69 @@
+package com.example.entity;
+
+import com.example.event.LibraryEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Подія, яку не вдалося доставити за відведену кількість спроб; лишається для розбору вручну
+@Entity
+@Table(name = "outbox_dead_letter")
+@Data
+@NoArgsConstructor
+public class OutboxDeadLetter {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "eventId", nullable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "eventType", length = 32, nullable = false)
+    private LibraryEventType eventType;
+
+    @Column(name = "bookId")
+    private Long bookId;
+
+    @Column(name = "memberId")
+    private Long memberId;
+
+    @Column(name = "borrowingId")
+    private Long borrowingId;
+
+    @Column(name = "copiesAmount")
+    private Integer copiesAmount;
+
+    @Column(name = "createdAt", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "lastError", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    @Column(name = "failedAt", nullable = false)
+    private Instant failedAt;
+
+    public static OutboxDeadLetter from(OutboxEvent event, String error, Instant failedAt) {
+        OutboxDeadLetter deadLetter = new OutboxDeadLetter();
+        deadLetter.setEventId(event.getId());
+        deadLetter.setEventType(event.getEventType());
+        deadLetter.setBookId(event.getBookId());
+        deadLetter.setMemberId(event.getMemberId());
+        deadLetter.setBorrowingId(event.getBorrowingId());
+        deadLetter.setCopiesAmount(event.getCopiesAmount());
+        deadLetter.setCreatedAt(event.getCreatedAt());
+        deadLetter.setAttempts(event.getAttempts());
+        deadLetter.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+        deadLetter.setFailedAt(failedAt);
+        return deadLetter;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.entity;
+
+import com.example.event.LibraryEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "outbox_event")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "eventType", length = 32, nullable = false)
+    private LibraryEventType eventType;
+
+    @Column(name = "bookId")
+    private Long bookId;
+
+    @Column(name = "memberId")
+    private Long memberId;
+
+    @Column(name = "borrowingId")
+    private Long borrowingId;
+
+    @Column(name = "copiesAmount")
+    private Integer copiesAmount;
+
+    @Column(name = "createdAt", nullable = false)
+    private Instant createdAt;
+
+    // Невдалі спроби доставки і момент, раніше якого подію не опитують повторно
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "nextAttemptAt")
+    private Instant nextAttemptAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+}
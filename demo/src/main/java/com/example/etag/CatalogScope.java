@@ -0,0 +1,7 @@
+package com.example.etag;
+
+public enum CatalogScope {
+    BOOKS,
+    MEMBERS,
+    LOANS
+}
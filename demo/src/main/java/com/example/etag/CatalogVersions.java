@@ -0,0 +1,38 @@
+package com.example.etag;
+
+import com.example.util.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Лічильники змін каталогу, які підтримують сервіси при записі; з них будуються ETag без запитів до БД
+@Component
+public class CatalogVersions {
+    private final AtomicLongArray versions = new AtomicLongArray(CatalogScope.values().length);
+    // Після перезапуску лічильники починаються з нуля, тож старі ETag не мають збігатися з новими
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Лише після коміту: збільшення до коміту дало б новий ETag відповіді, прочитаній до коміту зі старими даними.
+    // Читання між комітом і збільшенням отримує старий ETag зі свіжими даними, що лише спричинить зайве 200
+    public void changed(CatalogScope... scopes) {
+        AfterCommit.run(() -> increment(scopes));
+    }
+
+    public long current(CatalogScope scope) {
+        return versions.get(scope.ordinal());
+    }
+
+    public String fingerprint(CatalogScope... scopes) {
+        StringBuilder fingerprint = new StringBuilder(epoch);
+        for (CatalogScope scope : scopes) {
+            fingerprint.append('-').append(Long.toString(current(scope), 36));
+        }
+        return fingerprint.toString();
+    }
+
+    private void increment(CatalogScope... scopes) {
+        for (CatalogScope scope : scopes) {
+            versions.incrementAndGet(scope.ordinal());
+        }
+    }
+}
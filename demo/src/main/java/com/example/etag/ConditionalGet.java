@@ -0,0 +1,38 @@
+package com.example.etag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Відповідає 304 на If-None-Match, не виконуючи запит до БД і серіалізацію
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+    private final CatalogVersions catalogVersions;
+
+    public <T> ResponseEntity<T> respond(WebRequest request, Supplier<T> body, CatalogScope... scopes) {
+        String etag = etag(request, scopes);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        // ETag береться з версії до читання тіла: тіло не може бути старшим за неї, тож клієнт не отримає
+        // 304 на застарілі дані. Якщо версія змінилася під час читання, ETag не віддаємо зовсім
+        T result = body.get();
+        if (!etag.equals(etag(request, scopes))) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(result);
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(result);
+    }
+
+    // Сильний ETag має відрізнятися для різних представлень, тому враховуємо формат з Accept
+    String etag(WebRequest request, CatalogScope... scopes) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        String variant = accept == null ? "" : "-" + Integer.toString(accept.hashCode() & 0x7fffffff, 36);
+        return "\"" + catalogVersions.fingerprint(scopes) + variant + "\"";
+    }
+}
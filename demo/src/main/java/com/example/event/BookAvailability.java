@@ -0,0 +1,4 @@
+package com.example.event;
+
+public record BookAvailability(Long bookId, int copiesAmount) {
+}
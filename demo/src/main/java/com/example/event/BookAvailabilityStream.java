@@ -0,0 +1,179 @@
+package com.example.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Component
+public class BookAvailabilityStream implements LibraryEventListener {
+    private static final Set<LibraryEventType> AVAILABILITY_EVENTS = EnumSet.of(
+            LibraryEventType.BOOK_BORROWED,
+            LibraryEventType.BOOK_RETURNED,
+            LibraryEventType.BOOK_CREATED,
+            LibraryEventType.BOOK_UPDATED,
+            LibraryEventType.BOOK_DELETED);
+
+    // Остання відома кількість копій за книгою разом з ID події outbox. Relay повторює невдалі події
+    // із затримкою, тож старіша подія може прийти після новішої і не має її перезаписати.
+    // Запис лишається й після розсилки (і видалення книги): це один рядок на книгу каталогу
+    private final Map<Long, Availability> latest = new ConcurrentHashMap<>();
+    // Книги, змінені з моменту попередньої розсилки
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> subscribersByBook = new ConcurrentHashMap<>();
+    private final Set<Subscriber> allBooksSubscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Відправка в SseEmitter блокується на повільному клієнті, тому кожен підписник розвантажується окремо
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int subscriberBuffer;
+    private final long subscriberTimeoutMs;
+    private final Counter droppedCounter;
+
+    public BookAvailabilityStream(MeterRegistry meterRegistry,
+                                  @Value("${library.availability.subscriber-buffer:64}") int subscriberBuffer,
+                                  @Value("${library.availability.subscriber-timeout-ms:1800000}") long subscriberTimeoutMs) {
+        this.subscriberBuffer = subscriberBuffer;
+        this.subscriberTimeoutMs = subscriberTimeoutMs;
+        this.droppedCounter = meterRegistry.counter("library.availability.subscribers.dropped");
+        Gauge.builder("library.availability.subscribers", this, BookAvailabilityStream::subscriberCount)
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Set<Long> bookIds) {
+        SseEmitter emitter = new SseEmitter(subscriberTimeoutMs);
+        register(emitter, bookIds);
+        return emitter;
+    }
+
+    void register(SseEmitter emitter, Set<Long> bookIds) {
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(bookIds));
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        subscribers.add(subscriber);
+        if (subscriber.bookIds.isEmpty()) {
+            allBooksSubscribers.add(subscriber);
+        } else {
+            subscriber.bookIds.forEach(bookId -> subscribersByBook.compute(bookId, (id, bookSubscribers) -> {
+                Set<Subscriber> result = bookSubscribers != null ? bookSubscribers : ConcurrentHashMap.newKeySet();
+                result.add(subscriber);
+                return result;
+            }));
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        allBooksSubscribers.remove(subscriber);
+        subscriber.bookIds.forEach(bookId -> subscribersByBook.computeIfPresent(bookId, (id, bookSubscribers) -> {
+            bookSubscribers.remove(subscriber);
+            return bookSubscribers.isEmpty() ? null : bookSubscribers;
+        }));
+    }
+
+    @Override
+    public void onEvent(LibraryEvent event) {
+        if (AVAILABILITY_EVENTS.contains(event.type()) && event.bookId() != null && event.copiesAmount() != null) {
+            Availability update = new Availability(event.id(), event.copiesAmount());
+            Availability current = latest.merge(event.bookId(), update,
+                    (known, added) -> added.eventId() > known.eventId() ? added : known);
+            if (current == update) {
+                pending.add(event.bookId());
+            }
+        }
+    }
+
+    // Усі зміни книги в межах вікна зливаються в одне повідомлення з останнім значенням
+    @Scheduled(fixedDelayString = "${library.availability.coalesce-window-ms:250}")
+    public void flush() {
+        for (Long bookId : pending) {
+            if (!pending.remove(bookId)) {
+                continue;
+            }
+            // Значення читається після зняття позначки: новіша подія, що прийде зараз, позначить книгу знову
+            BookAvailability update = new BookAvailability(bookId, latest.get(bookId).copiesAmount());
+            allBooksSubscribers.forEach(subscriber -> subscriber.offer(update));
+            Set<Subscriber> bookSubscribers = subscribersByBook.get(bookId);
+            if (bookSubscribers != null) {
+                bookSubscribers.forEach(subscriber -> subscriber.offer(update));
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private record Availability(long eventId, int copiesAmount) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> bookIds;
+        private final BlockingQueue<BookAvailability> buffer = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> bookIds) {
+            this.emitter = emitter;
+            this.bookIds = bookIds;
+        }
+
+        private void offer(BookAvailability update) {
+            if (!buffer.offer(update)) {
+                // Клієнт не встигає читати: відключаємо його, після перепідключення він отримає актуальні дані
+                droppedCounter.increment();
+                unregister(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                BookAvailability update;
+                while ((update = buffer.poll()) != null) {
+                    emitter.send(SseEmitter.event().name("availability").data(update));
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Підписник відключився: {}", e.getMessage());
+                unregister(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // Оновлення могло надійти між останнім poll() та скиданням прапорця
+            if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
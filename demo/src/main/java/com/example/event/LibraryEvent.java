@@ -0,0 +1,20 @@
+package com.example.event;
+
+import com.example.entity.OutboxEvent;
+
+import java.time.Instant;
+
+public record LibraryEvent(
+        long id,
+        LibraryEventType type,
+        Long bookId,
+        Long memberId,
+        Long borrowingId,
+        Integer copiesAmount,
+        Instant occurredAt
+) {
+    public static LibraryEvent from(OutboxEvent event) {
+        return new LibraryEvent(event.getId(), event.getEventType(), event.getBookId(),
+                event.getMemberId(), event.getBorrowingId(), event.getCopiesAmount(), event.getCreatedAt());
+    }
+}
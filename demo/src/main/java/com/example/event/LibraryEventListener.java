@@ -0,0 +1,6 @@
+package com.example.event;
+
+// Доставка "щонайменше один раз": обробник має бути ідемпотентним щодо LibraryEvent.id
+public interface LibraryEventListener {
+    void onEvent(LibraryEvent event);
+}
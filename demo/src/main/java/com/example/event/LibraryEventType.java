@@ -0,0 +1,9 @@
+package com.example.event;
+
+public enum LibraryEventType {
+    BOOK_BORROWED,
+    BOOK_RETURNED,
+    BOOK_CREATED,
+    BOOK_UPDATED,
+    BOOK_DELETED
+}
@@ -0,0 +1,192 @@
+package com.example.event;
+
+import com.example.entity.OutboxDeadLetter;
+import com.example.entity.OutboxEvent;
+import com.example.repository.OutboxDeadLetterRepository;
+import com.example.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class OutboxRelay implements SmartLifecycle {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDeadLetterRepository outboxDeadLetterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<LibraryEventListener> listeners;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final BlockingQueue<OutboxEvent> buffer;
+    // Події, що вже в буфері, але ще не видалені з outbox — щоб не поставити їх у чергу двічі
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+    private final Counter deadLetteredCounter;
+    private final Timer lagTimer;
+
+    private volatile Thread dispatcher;
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxDeadLetterRepository outboxDeadLetterRepository,
+                       TransactionTemplate transactionTemplate,
+                       List<LibraryEventListener> listeners,
+                       MeterRegistry meterRegistry,
+                       @Value("${library.outbox.batch-size:100}") int batchSize,
+                       @Value("${library.outbox.buffer-capacity:1024}") int bufferCapacity,
+                       @Value("${library.outbox.max-attempts:5}") int maxAttempts,
+                       @Value("${library.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                       @Value("${library.outbox.max-retry-backoff-ms:60000}") long maxRetryBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxDeadLetterRepository = outboxDeadLetterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.listeners = listeners;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+
+        this.dispatchedCounter = meterRegistry.counter("library.outbox.dispatched");
+        this.failedCounter = meterRegistry.counter("library.outbox.failed");
+        this.deadLetteredCounter = meterRegistry.counter("library.outbox.dead-lettered");
+        this.lagTimer = Timer.builder("library.outbox.lag")
+                .description("Час від запису події в outbox до доставки підписникам")
+                .register(meterRegistry);
+        Gauge.builder("library.outbox.buffer.size", buffer, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.poll-interval-ms:200}")
+    public void poll() {
+        if (!running) {
+            return;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findReady(Instant.now(), PageRequest.of(0, batchSize));
+        for (OutboxEvent event : batch) {
+            if (!inFlight.add(event.getId())) {
+                continue;
+            }
+            // Потік @Scheduled спільний з іншими задачами, тож не блокуємося: якщо буфер заповнений,
+            // решта пакета дочекається наступного опитування
+            if (!buffer.offer(event)) {
+                inFlight.remove(event.getId());
+                return;
+            }
+        }
+    }
+
+    void dispatchLoop() {
+        List<OutboxEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                OutboxEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Помилка доставки подій з outbox", e);
+            } finally {
+                batch.forEach(event -> inFlight.remove(event.getId()));
+                batch.clear();
+            }
+        }
+    }
+
+    void dispatch(List<OutboxEvent> batch) {
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            RuntimeException error = deliver(LibraryEvent.from(event));
+            if (error == null) {
+                delivered.add(event.getId());
+                lagTimer.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } else {
+                failed(event, error);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(delivered);
+            dispatchedCounter.increment(delivered.size());
+        }
+    }
+
+    private RuntimeException deliver(LibraryEvent event) {
+        try {
+            for (LibraryEventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+            return null;
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Не вдалося доставити подію {} {}", event.type(), event.id(), e);
+            return e;
+        }
+    }
+
+    // Недоставлена подія повторюється з експоненційною затримкою, а після maxAttempts спроб
+    // переноситься в outbox_dead_letter, щоб не блокувати решту outbox
+    private void failed(OutboxEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        Instant now = Instant.now();
+        if (attempts >= maxAttempts) {
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxDeadLetterRepository.save(OutboxDeadLetter.from(event, error.toString(), now));
+                outboxEventRepository.deleteAllByIdInBatch(List.of(event.getId()));
+            });
+            deadLetteredCounter.increment();
+            log.error("Подію {} {} перенесено в outbox_dead_letter після {} спроб",
+                    event.getEventType(), event.getId(), attempts);
+            return;
+        }
+        long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        outboxEventRepository.scheduleRetry(event.getId(), attempts, now.plusMillis(backoff));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofPlatform().name("outbox-dispatcher").daemon().start(this::dispatchLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = dispatcher;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception;
+
+import com.example.admission.EndpointClass;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class BulkheadRejectedException extends RuntimeException {
+    private final EndpointClass endpointClass;
+    private final Duration retryAfter;
+
+    public BulkheadRejectedException(EndpointClass endpointClass, Duration retryAfter) {
+        super(ErrorCode.OVERLOADED.message(), null, false, false);
+        this.endpointClass = endpointClass;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.exception;
+
+public class CoalescedCallTimeoutException extends RuntimeException {
+    public CoalescedCallTimeoutException(long timeoutMs) {
+        super("Запит не виконано за " + timeoutMs + " мс, спробуйте пізніше", null, false, false);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.exception;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Передбачувані відмови бізнес-логіки: без стеку й створені заздалегідь, по одному екземпляру на код
+public final class DomainException extends ValidationException {
+    private static final Map<ErrorCode, DomainException> INSTANCES = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode code : ErrorCode.values()) {
+            INSTANCES.put(code, new DomainException(code));
+        }
+    }
+
+    private final ErrorCode errorCode;
+
+    private DomainException(ErrorCode errorCode) {
+        super(errorCode.message(), false);
+        this.errorCode = errorCode;
+    }
+
+    public static DomainException of(ErrorCode errorCode) {
+        return INSTANCES.get(errorCode);
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
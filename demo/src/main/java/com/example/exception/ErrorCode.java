@@ -0,0 +1,37 @@
+package com.example.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Стабільні коди помилок API: клієнти розрізняють відмови за кодом, а не за текстом повідомлення
+public enum ErrorCode {
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST, "Неправильні вхідні дані"),
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST, "Некоректний запит"),
+    NOT_FOUND(HttpStatus.NOT_FOUND, "Запис не знайдено"),
+    MEMBER_NOT_FOUND(HttpStatus.NOT_FOUND, "Учасника не знайдено"),
+    BOOK_NOT_FOUND(HttpStatus.NOT_FOUND, "Книгу не знайдено"),
+    BORROWING_NOT_FOUND(HttpStatus.NOT_FOUND, "Запис про позичення не знайдено"),
+    BOOK_UNAVAILABLE(HttpStatus.BAD_REQUEST, "Книга недоступна для позичення"),
+    BORROW_LIMIT_EXCEEDED(HttpStatus.BAD_REQUEST, "Перевищено ліміт позичених книг"),
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "Ключ ідемпотентності вже використано для іншого запиту"),
+    DATA_CONFLICT(HttpStatus.CONFLICT, "Операцію неможливо виконати через пов'язані дані"),
+    RATE_LIMITED(HttpStatus.TOO_MANY_REQUESTS, "Забагато запитів, спробуйте пізніше"),
+    OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, "Сервер перевантажений, спробуйте пізніше"),
+    TIMEOUT(HttpStatus.SERVICE_UNAVAILABLE, "Запит не виконано вчасно, спробуйте пізніше"),
+    WARMING_UP(HttpStatus.SERVICE_UNAVAILABLE, "Дані ще завантажуються, спробуйте пізніше");
+
+    private final HttpStatus status;
+    private final String message;
+
+    ErrorCode(HttpStatus status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public String message() {
+        return message;
+    }
+}
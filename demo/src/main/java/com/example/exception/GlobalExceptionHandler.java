@@ -1,20 +1,100 @@
 package com.example.exception;
 
+import com.example.dto.ApiError;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    // Відповіді з незмінним текстом будуються один раз і повторно використовуються
+    private static final Map<ErrorCode, ResponseEntity<ApiError>> PRECOMPUTED = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode code : ErrorCode.values()) {
+            PRECOMPUTED.put(code, ResponseEntity.status(code.status()).body(new ApiError(code.name(), code.message())));
+        }
+    }
+
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ApiError> handleDomainException(
+            DomainException ex) {
+        return PRECOMPUTED.get(ex.getErrorCode());
+    }
 
     @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<Map<String, String>> handleValidationException(
+    public ResponseEntity<ApiError> handleValidationException(
             ValidationException ex) {
-        Map<String, String> errors = new HashMap<>();
-        errors.put("error", ex.getMessage());
-        return ResponseEntity.badRequest().body(errors);
+        return error(ErrorCode.VALIDATION_FAILED, ex.getMessage());
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<ApiError> handleEntityNotFound(
+            EntityNotFoundException ex) {
+        return error(ErrorCode.NOT_FOUND, ex.getMessage());
+    }
+
+    @ExceptionHandler({
+            MissingServletRequestParameterException.class,
+            MissingRequestHeaderException.class,
+            MethodArgumentTypeMismatchException.class,
+            HttpMessageNotReadableException.class
+    })
+    public ResponseEntity<ApiError> handleInvalidRequest(
+            Exception ex) {
+        // Клієнтові потрібно знати, що саме виправити, тож тут відповідь збирається з назвою параметра
+        String detail = switch (ex) {
+            case MissingServletRequestParameterException e -> "відсутній параметр '" + e.getParameterName() + "'";
+            case MissingRequestHeaderException e -> "відсутній заголовок '" + e.getHeaderName() + "'";
+            case MethodArgumentTypeMismatchException e -> "некоректне значення параметра '" + e.getName() + "'";
+            default -> "не вдалося прочитати тіло запиту";
+        };
+        return error(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.message() + ": " + detail);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiError> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex) {
+        return PRECOMPUTED.get(ErrorCode.DATA_CONFLICT);
+    }
+
+    @ExceptionHandler(CoalescedCallTimeoutException.class)
+    public ResponseEntity<ApiError> handleCoalescedCallTimeout(
+            CoalescedCallTimeoutException ex) {
+        return error(ErrorCode.TIMEOUT, ex.getMessage());
+    }
+
+    @ExceptionHandler(BulkheadRejectedException.class)
+    public ResponseEntity<ApiError> handleBulkheadRejected(
+            BulkheadRejectedException ex) {
+        return withRetryAfter(ErrorCode.OVERLOADED, ex.getRetryAfter());
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiError> handleRateLimitExceeded(
+            RateLimitExceededException ex) {
+        return withRetryAfter(ErrorCode.RATE_LIMITED, ex.getRetryAfter());
+    }
+
+    private static ResponseEntity<ApiError> error(ErrorCode code, String message) {
+        return ResponseEntity.status(code.status()).body(new ApiError(code.name(), message));
+    }
+
+    // Retry-After задається цілими секундами, округлюємо вгору
+    private static ResponseEntity<ApiError> withRetryAfter(ErrorCode code, Duration retryAfter) {
+        return ResponseEntity.status(code.status())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000)))
+                .body(PRECOMPUTED.get(code).getBody());
     }
 }
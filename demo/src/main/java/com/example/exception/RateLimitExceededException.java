@@ -0,0 +1,16 @@
+package com.example.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(Duration retryAfter) {
+        // Відмова — штатна ситуація під навантаженням, стек виклику лише сповільнив би її
+        super(ErrorCode.RATE_LIMITED.message(), null, false, false);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -4,4 +4,8 @@ public class ValidationException extends RuntimeException {
     public ValidationException(String message) {
         super(message);
     }
+
+    protected ValidationException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
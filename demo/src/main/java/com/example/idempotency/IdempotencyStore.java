@@ -0,0 +1,146 @@
+package com.example.idempotency;
+
+import com.example.exception.CoalescedCallTimeoutException;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Запам'ятовує результат першого виконання запиту з ключем ідемпотентності та повертає його повторам
+@Component
+public class IdempotencyStore {
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    // TTL однаковий для всіх записів, тож порядок вставки збігається з порядком закінчення строку.
+    // Елемент черги пам'ятає свій запис: після повторного використання ключа старий елемент лише пропускається
+    private final Queue<Queued> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final long waitTimeoutMs;
+    private final LongSupplier clock;
+    private final Counter executed;
+    private final Counter replayed;
+
+    @Autowired
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${library.idempotency.ttl-ms:86400000}") long ttlMs,
+                            @Value("${library.idempotency.max-entries:100000}") int maxEntries,
+                            @Value("${library.idempotency.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        this(meterRegistry, ttlMs, maxEntries, waitTimeoutMs, System::nanoTime);
+    }
+
+    IdempotencyStore(MeterRegistry meterRegistry, long ttlMs, int maxEntries, long waitTimeoutMs, LongSupplier clock) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.clock = clock;
+        this.executed = meterRegistry.counter("library.idempotency.executed");
+        this.replayed = meterRegistry.counter("library.idempotency.replayed");
+        Gauge.builder("library.idempotency.entries", entries, Map::size).register(meterRegistry);
+    }
+
+    // fingerprint описує параметри запиту: той самий ключ з іншими параметрами — помилка клієнта
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String idempotencyKey, String fingerprint, Supplier<T> action) {
+        Key key = new Key(scope, idempotencyKey);
+        Entry own = new Entry(fingerprint, new CompletableFuture<>(), clock.getAsLong() + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, own);
+            if (existing == null) {
+                break;
+            }
+            if (existing.isExpired(clock.getAsLong())) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                throw DomainException.of(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+            }
+            replayed.increment();
+            return (T) await(existing.result());
+        }
+
+        insertionOrder.add(new Queued(key, own));
+        evict();
+        executed.increment();
+        try {
+            T result = action.get();
+            own.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            // Невдале виконання не запам'ятовуємо, щоб клієнт міг повторити запит
+            entries.remove(key, own);
+            own.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.idempotency.sweep-interval-ms:60000}")
+    public void evict() {
+        long now = clock.getAsLong();
+        Queued oldest;
+        while ((oldest = insertionOrder.peek()) != null) {
+            Entry entry = oldest.entry();
+            // Запис уже видалено або ключ використано знову: цей елемент черги більше нічого не тримає
+            boolean superseded = entries.get(oldest.key()) != entry;
+            // Записи, що ще виконуються, не витісняємо навіть понад ліміт
+            boolean overflow = entries.size() > maxEntries && entry.result().isDone();
+            if (!superseded && !entry.isExpired(now) && !overflow) {
+                return;
+            }
+            if (insertionOrder.remove(oldest) && !superseded) {
+                entries.remove(oldest.key(), entry);
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CoalescedCallTimeoutException(waitTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoalescedCallTimeoutException(waitTimeoutMs);
+        }
+    }
+
+    private record Key(String scope, String idempotencyKey) {
+    }
+
+    private record Queued(Key key, Entry entry) {
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
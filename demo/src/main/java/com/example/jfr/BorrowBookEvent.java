@@ -0,0 +1,27 @@
+package com.example.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.library.BorrowBook")
+@Label("Позичення книги")
+public class BorrowBookEvent extends LibraryOperationEvent {
+    @Label("ID користувача")
+    long memberId;
+
+    @Label("ID книги")
+    long bookId;
+
+    @Label("ID позичення")
+    long borrowingId;
+
+    public BorrowBookEvent(Long memberId, Long bookId) {
+        this.memberId = memberId != null ? memberId : 0;
+        this.bookId = bookId != null ? bookId : 0;
+    }
+
+    public void borrowed(Long borrowingId) {
+        this.borrowingId = borrowingId != null ? borrowingId : 0;
+        outcome = "BORROWED";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.library.CreateBook")
+@Label("Створення книги")
+public class CreateBookEvent extends LibraryOperationEvent {
+    @Label("ID книги")
+    long bookId;
+
+    public void inserted(Long bookId) {
+        this.bookId = bookId != null ? bookId : 0;
+        outcome = "INSERTED";
+    }
+
+    // Книга з такими ж нормалізованими назвою та автором вже існувала, додано примірник
+    public void deduplicated(Long bookId) {
+        this.bookId = bookId != null ? bookId : 0;
+        outcome = "DEDUPLICATED";
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.jfr;
+
+import com.example.exception.DomainException;
+import com.example.exception.ValidationException;
+import jakarta.persistence.EntityNotFoundException;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Вимкнені за замовчуванням: поки запис не увімкнено, start/finish зводяться до перевірки isEnabled()
+@Category({"Library", "Operations"})
+@Enabled(false)
+@StackTrace(false)
+public abstract class LibraryOperationEvent extends Event {
+    @Label("Результат")
+    String outcome;
+
+    @Label("SQL-запитів")
+    int sqlStatements;
+
+    private transient int sqlAtStart;
+    private transient boolean failed;
+
+    public void start() {
+        if (isEnabled()) {
+            sqlAtStart = SqlStatementCounter.current();
+            begin();
+        }
+    }
+
+    public void failed(RuntimeException e) {
+        failed = true;
+        if (e instanceof DomainException domain) {
+            outcome = domain.getErrorCode().name();
+        } else if (e instanceof ValidationException) {
+            outcome = "VALIDATION_FAILED";
+        } else if (e instanceof EntityNotFoundException) {
+            outcome = "NOT_FOUND";
+        } else {
+            outcome = e.getClass().getSimpleName();
+        }
+    }
+
+    // У транзакції подія завершується після коміту, щоб врахувати flush і час самого коміту
+    public void finish() {
+        if (!isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    // Операція завершилася успішно, але транзакцію відкотили
+                    if (status != STATUS_COMMITTED && !failed) {
+                        outcome = "ROLLED_BACK";
+                    }
+                    complete();
+                }
+            });
+        } else {
+            complete();
+        }
+    }
+
+    private void complete() {
+        end();
+        if (shouldCommit()) {
+            sqlStatements = SqlStatementCounter.current() - sqlAtStart;
+            if (outcome == null) {
+                outcome = "FAILED";
+            }
+            commit();
+        }
+    }
+}
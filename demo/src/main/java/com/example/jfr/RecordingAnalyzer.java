@@ -0,0 +1,94 @@
+package com.example.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Офлайн-зведення JFR-запису: таблиця латентностей для кожної пари операція/результат
+public final class RecordingAnalyzer {
+    private static final String EVENT_PREFIX = "com.example.library.";
+
+    private RecordingAnalyzer() {
+    }
+
+    public record Row(String operation, String outcome, int count,
+                      double p50Ms, double p95Ms, double p99Ms, double maxMs, double avgSql) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Використання: RecordingAnalyzer <запис.jfr>");
+            System.exit(2);
+        }
+        System.out.print(format(summarize(Path.of(args[0]))));
+    }
+
+    public static List<Row> summarize(Path recording) throws IOException {
+        Map<String, Samples> groups = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(EVENT_PREFIX)) {
+                    continue;
+                }
+                String operation = name.substring(EVENT_PREFIX.length());
+                String outcome = event.hasField("outcome") ? event.getString("outcome") : null;
+                int sql = event.hasField("sqlStatements") ? event.getInt("sqlStatements") : 0;
+                groups.computeIfAbsent(operation + '\t' + outcome, key -> new Samples())
+                        .add(event.getDuration().toNanos(), sql);
+            }
+        }
+
+        List<Row> rows = new ArrayList<>(groups.size());
+        groups.forEach((key, samples) -> {
+            String[] parts = key.split("\t", 2);
+            rows.add(samples.toRow(parts[0], parts[1]));
+        });
+        return rows;
+    }
+
+    public static String format(List<Row> rows) {
+        StringBuilder out = new StringBuilder(String.format("%-12s %-24s %8s %10s %10s %10s %10s %8s%n",
+                "operation", "outcome", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "avg sql"));
+        for (Row row : rows) {
+            out.append(String.format("%-12s %-24s %8d %10.3f %10.3f %10.3f %10.3f %8.1f%n",
+                    row.operation(), row.outcome(), row.count(),
+                    row.p50Ms(), row.p95Ms(), row.p99Ms(), row.maxMs(), row.avgSql()));
+        }
+        return out.toString();
+    }
+
+    private static final class Samples {
+        private long[] durations = new long[64];
+        private int count;
+        private long sqlTotal;
+
+        void add(long durationNanos, int sql) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = durationNanos;
+            sqlTotal += sql;
+        }
+
+        Row toRow(String operation, String outcome) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            return new Row(operation, outcome, count, percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted[count - 1] / 1e6, (double) sqlTotal / count);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
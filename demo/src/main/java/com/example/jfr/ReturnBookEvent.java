@@ -0,0 +1,23 @@
+package com.example.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.library.ReturnBook")
+@Label("Повернення книги")
+public class ReturnBookEvent extends LibraryOperationEvent {
+    @Label("ID позичення")
+    long borrowingId;
+
+    @Label("ID книги")
+    long bookId;
+
+    public ReturnBookEvent(Long borrowingId) {
+        this.borrowingId = borrowingId != null ? borrowingId : 0;
+    }
+
+    public void returned(Long bookId) {
+        this.bookId = bookId != null ? bookId : 0;
+        outcome = "RETURNED";
+    }
+}
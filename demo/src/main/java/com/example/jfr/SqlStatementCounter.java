@@ -0,0 +1,19 @@
+package com.example.jfr;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Підключається через hibernate.session_factory.statement_inspector; рахує SQL-запити поточного потоку
+public class SqlStatementCounter implements StatementInspector {
+    // Монотонний лічильник: подія запам'ятовує значення на старті, тож вкладені події не заважають одна одній
+    private static final ThreadLocal<int[]> STATEMENTS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    public static int current() {
+        return STATEMENTS.get()[0];
+    }
+}
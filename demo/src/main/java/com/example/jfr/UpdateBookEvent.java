@@ -0,0 +1,34 @@
+package com.example.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.example.library.UpdateBook")
+@Label("Оновлення книги")
+public class UpdateBookEvent extends LibraryOperationEvent {
+    @Label("ID книги")
+    long bookId;
+
+    @Label("ID книги-результату")
+    long resultBookId;
+
+    public UpdateBookEvent(Long bookId) {
+        this.bookId = bookId != null ? bookId : 0;
+    }
+
+    // Назва/автор збіглися з іншою книгою: примірники перенесено, поточну видалено
+    public void merged(Long resultBookId) {
+        this.resultBookId = resultBookId != null ? resultBookId : 0;
+        outcome = "MERGED";
+    }
+
+    public void renamed() {
+        resultBookId = bookId;
+        outcome = "RENAMED";
+    }
+
+    public void updatedInPlace() {
+        resultBookId = bookId;
+        outcome = "IN_PLACE";
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.validation.Errors;
+
+@Name("com.example.library.Validation")
+@Label("Валідація")
+@Category({"Library", "Validation"})
+@Enabled(false)
+@StackTrace(false)
+public class ValidationEvent extends Event {
+    @Label("Валідатор")
+    String validator;
+
+    @Label("Результат")
+    String outcome;
+
+    @Label("Помилок")
+    int errors;
+
+    public void start(Class<?> validator) {
+        if (isEnabled()) {
+            this.validator = validator.getSimpleName();
+            begin();
+        }
+    }
+
+    public void finish(Errors errors) {
+        if (!isEnabled()) {
+            return;
+        }
+        end();
+        if (shouldCommit()) {
+            this.errors = errors.getErrorCount();
+            outcome = this.errors == 0 ? "VALID" : "INVALID";
+            commit();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.projection;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Набір запитаних полів: що вибирати з БД і заздалегідь закодовані імена для серіалізації
+public final class Projection<E> {
+    private final List<String> names;
+    private final List<Function<Root<E>, Path<?>>> paths;
+    private final SerializedString[] serializedNames;
+
+    Projection(List<String> names, List<Function<Root<E>, Path<?>>> paths) {
+        this.names = names;
+        this.paths = paths;
+        this.serializedNames = names.stream().map(SerializedString::new).toArray(SerializedString[]::new);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    List<Selection<?>> selections(Root<E> root) {
+        return paths.stream().<Selection<?>>map(path -> path.apply(root)).toList();
+    }
+
+    SerializedString serializedName(int index) {
+        return serializedNames[index];
+    }
+
+    public SparseRow row(Object[] values) {
+        return new SparseRow(this, values);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.projection;
+
+import com.example.exception.ValidationException;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Поля ресурсу, які клієнт може запросити через fields=, та їх шляхи в JPA-моделі
+public final class ProjectionCatalog<E> {
+    private final Map<String, Function<Root<E>, Path<?>>> fields = new LinkedHashMap<>();
+    // Ключ — канонічний список полів у порядку каталогу, тож різних проєкцій не більше 2^N
+    private final Map<String, Projection<E>> projections = new ConcurrentHashMap<>();
+
+    public ProjectionCatalog<E> field(String name, Function<Root<E>, Path<?>> path) {
+        fields.put(name, path);
+        return this;
+    }
+
+    public Projection<E> resolve(String requested) {
+        List<String> names = new ArrayList<>();
+        for (String part : requested.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!fields.containsKey(name)) {
+                throw new ValidationException("Невідоме поле: " + name + ". Доступні поля: " + String.join(", ", fields.keySet()));
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            throw new ValidationException("Потрібно вказати хоча б одне поле");
+        }
+
+        List<String> canonical = fields.keySet().stream().filter(names::contains).toList();
+        return projections.computeIfAbsent(String.join(",", canonical), key -> new Projection<>(canonical,
+                canonical.stream().map(fields::get).toList()));
+    }
+}
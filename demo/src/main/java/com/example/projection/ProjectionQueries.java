@@ -0,0 +1,66 @@
+package com.example.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Запити, що вибирають із БД лише колонки проєкції
+@Component
+@RequiredArgsConstructor
+public class ProjectionQueries {
+    private final EntityManager entityManager;
+
+    public <E> List<SparseRow> list(Class<E> entityType, Projection<E> projection, Specification<E> filter, Sort sort) {
+        return query(entityType, projection, filter, sort).getResultList().stream()
+                .map(tuple -> projection.row(tuple.toArray()))
+                .toList();
+    }
+
+    public <E> Page<SparseRow> page(Class<E> entityType, Projection<E> projection, Specification<E> filter,
+                                    Pageable pageable) {
+        TypedQuery<Tuple> query = query(entityType, projection, filter, pageable.getSort());
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<SparseRow> rows = query.getResultList().stream()
+                .map(tuple -> projection.row(tuple.toArray()))
+                .toList();
+        return new PageImpl<>(rows, pageable, count(entityType, filter));
+    }
+
+    private <E> TypedQuery<Tuple> query(Class<E> entityType, Projection<E> projection, Specification<E> filter,
+                                        Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        query.multiselect(projection.selections(root));
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private <E> long count(Class<E> entityType, Specification<E> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entityType);
+        query.select(cb.count(root));
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Рядок проєкції; серіалізується як об'єкт лише з запитаними полями без рефлексії над сутністю
+@JsonSerialize(using = SparseRow.Serializer.class)
+public record SparseRow(Projection<?> projection, Object[] values) {
+
+    public Object value(String name) {
+        int index = projection.names().indexOf(name);
+        return index < 0 ? null : values[index];
+    }
+
+    static final class Serializer extends StdSerializer<SparseRow> {
+        Serializer() {
+            super(SparseRow.class);
+        }
+
+        @Override
+        public void serialize(SparseRow row, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            Object[] values = row.values();
+            for (int i = 0; i < values.length; i++) {
+                gen.writeFieldName(row.projection().serializedName(i));
+                provider.defaultSerializeValue(values[i], gen);
+            }
+            gen.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.ratelimit;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Окреме відро на кожен ключ із обмеженою кількістю відер
+final class KeyedRateLimiter {
+    // Прибирання тримає кількість відер на 1/16 нижче межі, тож вставка рідко застає мапу заповненою
+    private static final int EVICTION_FRACTION = 16;
+    // Скільки відер переглядає вставка в заповнену мапу, щоб вибрати, яке витіснити
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Map<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxBuckets;
+    private final LongSupplier clock;
+    // Годинникова стрілка: ітератор продовжує обхід з місця, де зупинилась попередня вставка
+    private final ReentrantLock handLock = new ReentrantLock();
+    private Iterator<Map.Entry<Object, TokenBucket>> hand = Collections.emptyIterator();
+    // Для запитів, яким не дісталося стрілки, поки мапа заповнена
+    private final TokenBucket overflow;
+
+    KeyedRateLimiter(double permitsPerSecond, int burst, int maxBuckets, LongSupplier clock) {
+        if (!(permitsPerSecond > 0) || burst < 1 || maxBuckets < 1) {
+            throw new IllegalArgumentException("Некоректні налаштування ліміту: permitsPerSecond=" + permitsPerSecond
+                    + ", burst=" + burst + ", maxBuckets=" + maxBuckets);
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.maxBuckets = maxBuckets;
+        this.clock = clock;
+        this.overflow = new TokenBucket(clock.getAsLong());
+    }
+
+    long tryAcquire(Object key) {
+        long now = clock.getAsLong();
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets && !evictSampled(now)) {
+                return overflow.tryAcquire(now, emissionIntervalNanos, burstWindowNanos);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(now));
+        }
+        return bucket.tryAcquire(now, emissionIntervalNanos, burstWindowNanos);
+    }
+
+    // Відра ще немає — отже воно повне і чекати не треба
+    long waitNanos(Object key) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket == null ? 0 : bucket.waitNanos(clock.getAsLong(), emissionIntervalNanos, burstWindowNanos);
+    }
+
+    void release(Object key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.release(emissionIntervalNanos);
+        }
+    }
+
+    // Фонове прибирання: спершу повні відра, потім, якщо їх замало, найдовше не використовувані —
+    // у них найменший теоретичний час прибуття, тож вони найближчі до повного і втрачають найменше.
+    // Сортування тут, а не у вставці: воно виконується в потоці планувальника
+    int sweep() {
+        long now = clock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        int target = maxBuckets - maxBuckets / EVICTION_FRACTION;
+        int excess = buckets.size() - target;
+        if (excess > 0) {
+            buckets.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().theoreticalArrival()))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> buckets.remove(entry.getKey(), entry.getValue()));
+        }
+        return before - buckets.size();
+    }
+
+    // Наближений LRU: з кількох відер під стрілкою витісняється повне або найстаріше.
+    // Стрілку не чекаємо — якщо її тримає інший потік, запит іде через спільне відро
+    private boolean evictSampled(long now) {
+        if (!handLock.tryLock()) {
+            return false;
+        }
+        try {
+            Map.Entry<Object, TokenBucket> victim = null;
+            for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                if (!hand.hasNext()) {
+                    hand = buckets.entrySet().iterator();
+                    if (!hand.hasNext()) {
+                        break;
+                    }
+                }
+                Map.Entry<Object, TokenBucket> entry = hand.next();
+                if (entry.getValue().isFull(now)) {
+                    victim = entry;
+                    break;
+                }
+                if (victim == null || entry.getValue().theoreticalArrival() < victim.getValue().theoreticalArrival()) {
+                    victim = entry;
+                }
+            }
+            if (victim != null) {
+                buckets.remove(victim.getKey(), victim.getValue());
+            }
+            return buckets.size() < maxBuckets;
+        } finally {
+            handLock.unlock();
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+@ConfigurationProperties("library.rate-limit")
+public record RateLimitProperties(Map<String, Route> routes) {
+
+    public RateLimitProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    // Ліміти застосовуються окремо до кожного користувача та кожного клієнта
+    public record Route(
+            @DefaultValue("5") double memberPermitsPerSecond,
+            @DefaultValue("10") int memberBurst,
+            @DefaultValue("50") double clientPermitsPerSecond,
+            @DefaultValue("100") int clientBurst,
+            @DefaultValue("100000") int maxBuckets
+    ) {
+    }
+}
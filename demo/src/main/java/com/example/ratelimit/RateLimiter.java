@@ -0,0 +1,76 @@
+package com.example.ratelimit;
+
+import com.example.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+@Component
+public class RateLimiter {
+    private final Map<String, RouteLimiters> routes = new HashMap<>();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        properties.routes().forEach((route, settings) -> {
+            RouteLimiters limiters = new RouteLimiters(
+                    new KeyedRateLimiter(settings.memberPermitsPerSecond(), settings.memberBurst(),
+                            settings.maxBuckets(), clock),
+                    new KeyedRateLimiter(settings.clientPermitsPerSecond(), settings.clientBurst(),
+                            settings.maxBuckets(), clock),
+                    meterRegistry.counter("library.ratelimit.rejected", "route", route));
+            routes.put(route, limiters);
+            Gauge.builder("library.ratelimit.buckets", limiters, l -> l.byMember().size() + l.byClient().size())
+                    .tag("route", route).register(meterRegistry);
+        });
+    }
+
+    // Маршрути без налаштувань не обмежуються; memberId може бути null, якщо він невідомий до запиту в БД
+    public void check(String route, Long memberId, String clientId) {
+        RouteLimiters limiters = routes.get(route);
+        if (limiters == null) {
+            return;
+        }
+        // Спершу перевіряємо обидва відра, щоб запит, відхилений лімітом учасника, не витрачав токени клієнта
+        long waitNanos = limiters.byClient().waitNanos(clientId);
+        if (memberId != null) {
+            waitNanos = Math.max(waitNanos, limiters.byMember().waitNanos(memberId));
+        }
+        if (waitNanos == 0) {
+            waitNanos = limiters.byClient().tryAcquire(clientId);
+            if (waitNanos == 0 && memberId != null) {
+                waitNanos = limiters.byMember().tryAcquire(memberId);
+                // Відро учасника спорожнив паралельний запит між перевіркою і списанням
+                if (waitNanos > 0) {
+                    limiters.byClient().release(clientId);
+                }
+            }
+        }
+        if (waitNanos > 0) {
+            limiters.rejected().increment();
+            throw new RateLimitExceededException(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.rate-limit.sweep-interval-ms:10000}")
+    public void sweep() {
+        for (RouteLimiters limiters : routes.values()) {
+            limiters.byMember().sweep();
+            limiters.byClient().sweep();
+        }
+    }
+
+    private record RouteLimiters(KeyedRateLimiter byMember, KeyedRateLimiter byClient, Counter rejected) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Маркерне відро у формі GCRA: весь стан — теоретичний час прибуття наступного запиту,
+// тож списання токена зводиться до одного CAS без блокувань
+final class TokenBucket {
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    // Повертає 0, якщо токен списано, інакше — скільки наносекунд чекати до наступного
+    long tryAcquire(long now, long emissionIntervalNanos, long burstWindowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, now) + emissionIntervalNanos;
+            long allowedAt = next - burstWindowNanos;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Скільки чекати до наступного токена, нічого не списуючи
+    long waitNanos(long now, long emissionIntervalNanos, long burstWindowNanos) {
+        long allowedAt = Math.max(theoreticalArrival.get(), now) + emissionIntervalNanos - burstWindowNanos;
+        return Math.max(0, allowedAt - now);
+    }
+
+    // Повертає списаний токен, якщо запит усе ж відхилило інше відро
+    void release(long emissionIntervalNanos) {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    long theoreticalArrival() {
+        return theoreticalArrival.get();
+    }
+
+    // Повністю наповнене відро нічим не відрізняється від нового, тож його можна безпечно видалити
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.readmodel;
+
+import com.example.dto.MemberLoansResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Денормалізовані позичення учасників у пам'яті. Оновлюється after-commit хуками сервісів,
+// тож операції мають бути стійкими до перестановок між транзакціями та до паралельної перебудови
+@Component
+public class MemberLoansView {
+    private static final long TOMBSTONE_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxBooksPerMember;
+    private final Map<Long, MemberLoans> members = new ConcurrentHashMap<>();
+    // Назви книг з лічильником позичень, що на них посилаються; запис без позичень прибирається після TTL
+    private final Map<Long, BookRef> books = new ConcurrentHashMap<>();
+    // Книга, злита з іншою: запізнілі хук позичення чи рядок перебудови переводяться на книгу, що лишилася
+    private final Map<Long, Redirect> mergedBooks = new ConcurrentHashMap<>();
+    // Повернення, хук якого виконався раніше за хук позичення або завантаження; позичення з таким ID ігнорується
+    private final Map<Long, Long> returnedEarly = new ConcurrentHashMap<>();
+    // Видалений учасник: запізнілий хук позичення чи рядок перебудови не повинні його воскресити
+    private final Map<Long, Long> deletedMembers = new ConcurrentHashMap<>();
+
+    private final LongSupplier clock;
+    private final AtomicLong lastPurge;
+
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    @Autowired
+    public MemberLoansView(@Value("${library.max.books.per.member:10}") int maxBooksPerMember) {
+        this(maxBooksPerMember, System::nanoTime);
+    }
+
+    MemberLoansView(int maxBooksPerMember, LongSupplier clock) {
+        this.maxBooksPerMember = maxBooksPerMember;
+        this.clock = clock;
+        this.lastPurge = new AtomicLong(clock.getAsLong());
+    }
+
+    private record Loan(long borrowingId, long bookId) {
+    }
+
+    private record BookRef(String title, String author, int loans, long idleSince) {
+        BookRef withLoans(int delta, long now) {
+            int updated = loans + delta;
+            return new BookRef(title, author, updated, updated > 0 ? 0 : now);
+        }
+    }
+
+    private record Redirect(long bookId, long createdAt) {
+    }
+
+    // Незмінний знімок: читач бачить або стан до зміни, або після, але не проміжний
+    private record MemberLoans(String name, List<Loan> loans) {
+        MemberLoans withLoan(Loan loan) {
+            for (Loan existing : loans) {
+                if (existing.borrowingId() == loan.borrowingId()) {
+                    return this;
+                }
+            }
+            List<Loan> updated = new ArrayList<>(loans.size() + 1);
+            updated.addAll(loans);
+            updated.add(loan);
+            updated.sort(Comparator.comparingLong(Loan::borrowingId));
+            return new MemberLoans(name, List.copyOf(updated));
+        }
+
+        MemberLoans withoutLoan(long borrowingId) {
+            return new MemberLoans(name, loans.stream().filter(loan -> loan.borrowingId() != borrowingId).toList());
+        }
+
+        MemberLoans withBookMerged(long fromBookId, long toBookId) {
+            if (loans.stream().noneMatch(loan -> loan.bookId() == fromBookId)) {
+                return this;
+            }
+            return new MemberLoans(name, loans.stream()
+                    .map(loan -> loan.bookId() == fromBookId ? new Loan(loan.borrowingId(), toBookId) : loan)
+                    .toList());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    int bookCount() {
+        return books.size();
+    }
+
+    public Optional<MemberLoansResponse> find(long memberId) {
+        MemberLoans member = members.get(memberId);
+        if (member == null) {
+            return Optional.empty();
+        }
+        List<MemberLoansResponse.Loan> loans = new ArrayList<>(member.loans().size());
+        for (Loan loan : member.loans()) {
+            BookRef book = books.get(loan.bookId());
+            loans.add(new MemberLoansResponse.Loan(loan.borrowingId(), loan.bookId(),
+                    book != null ? book.title() : null, book != null ? book.author() : null));
+        }
+        return Optional.of(new MemberLoansResponse(memberId, member.name(), loans.size(),
+                Math.max(0, maxBooksPerMember - loans.size()), loans));
+    }
+
+    public void memberSaved(long memberId, String name) {
+        members.compute(memberId, (id, existing) ->
+                new MemberLoans(name, existing != null ? existing.loans() : List.of()));
+        dropIfDeleted(memberId);
+    }
+
+    public void memberDeleted(long memberId) {
+        deletedMembers.put(memberId, clock.getAsLong());
+        release(members.remove(memberId));
+        purgeTombstones();
+    }
+
+    // Назви книг зберігаються один раз на книгу, тож перейменування не зачіпає записи учасників
+    public void bookChanged(long bookId, String title, String author) {
+        long now = clock.getAsLong();
+        books.compute(bookId, (id, existing) -> new BookRef(title, author, 0, 0)
+                .withLoans(existing != null ? existing.loans() : 0, now));
+    }
+
+    // Видалити можна лише книгу без позичень (зовнішній ключ), тож записи учасників не зачіпаються
+    public void bookRemoved(long bookId) {
+        books.remove(bookId);
+    }
+
+    // Позичення злитої книги в БД переведені на книгу, що лишилася; тут — так само.
+    // Злиття рідкісне (редагування каталогу), тож прохід усіма учасниками прийнятний
+    public void bookMerged(long fromBookId, long toBookId, String title, String author) {
+        long now = clock.getAsLong();
+        mergedBooks.put(fromBookId, new Redirect(toBookId, now));
+        BookRef merged = books.remove(fromBookId);
+        int moved = merged != null ? merged.loans() : 0;
+        books.compute(toBookId, (id, existing) -> new BookRef(title, author, 0, 0)
+                .withLoans((existing != null ? existing.loans() : 0) + moved, now));
+        for (Long memberId : members.keySet()) {
+            members.computeIfPresent(memberId, (id, existing) -> existing.withBookMerged(fromBookId, toBookId));
+        }
+    }
+
+    public void loanAdded(long borrowingId, long memberId, long bookId, String title, String author) {
+        if (returnedEarly.remove(borrowingId) != null) {
+            return;
+        }
+        long currentBookId = currentBookId(bookId);
+        // Лічильник збільшується до запису учасника, тож повернення ніколи не зменшить його раніше
+        books.compute(currentBookId, (id, existing) ->
+                (existing != null ? existing : new BookRef(title, author, 0, 0)).withLoans(1, 0));
+        Loan loan = new Loan(borrowingId, currentBookId);
+        boolean[] added = new boolean[1];
+        members.compute(memberId, (id, existing) -> {
+            MemberLoans current = existing != null ? existing : new MemberLoans(null, List.of());
+            MemberLoans updated = current.withLoan(loan);
+            added[0] = updated != current;
+            return updated;
+        });
+        if (!added[0]) {
+            release(currentBookId);
+        }
+        dropIfDeleted(memberId);
+    }
+
+    public void loanRemoved(long borrowingId, long memberId) {
+        long[] bookId = {-1};
+        members.computeIfPresent(memberId, (id, existing) -> {
+            for (Loan loan : existing.loans()) {
+                if (loan.borrowingId() == borrowingId) {
+                    bookId[0] = loan.bookId();
+                    return existing.withoutLoan(borrowingId);
+                }
+            }
+            return existing;
+        });
+        boolean removed = bookId[0] != -1;
+        if (removed) {
+            release(bookId[0]);
+        }
+        // Під час перебудови завантажувач міг уже прочитати цей рядок і ще не застосувати його
+        if (!removed || rebuilding) {
+            returnedEarly.put(borrowingId, clock.getAsLong());
+        }
+        purgeTombstones();
+    }
+
+    // Перебудова лише доповнює стан: записи, що вже прийшли з хуків, новіші за знімок із БД
+    void startRebuild() {
+        rebuilding = true;
+    }
+
+    void memberLoaded(long memberId, String name) {
+        members.compute(memberId, (id, existing) -> existing == null
+                ? new MemberLoans(name, List.of())
+                : existing.name() == null ? new MemberLoans(name, existing.loans()) : existing);
+        dropIfDeleted(memberId);
+    }
+
+    void loanLoaded(long borrowingId, long memberId, long bookId, String title, String author) {
+        loanAdded(borrowingId, memberId, bookId, title, author);
+    }
+
+    // Після невдалої перебудови модель лишається неготовою: неповні дані гірші за 503
+    void finishRebuild(boolean loaded) {
+        rebuilding = false;
+        if (loaded) {
+            ready = true;
+        }
+    }
+
+    // Надгробок ставиться до видалення, тож запис, доданий паралельно з видаленням, прибирається тут.
+    // ID учасників не перевикористовуються, отже надгробок не зачепить нового учасника
+    private void dropIfDeleted(long memberId) {
+        if (deletedMembers.containsKey(memberId)) {
+            release(members.remove(memberId));
+        }
+    }
+
+    // ID книг не перевикористовуються і зливаються лише в наявну книгу, тож ланцюжок переадресацій без циклів
+    private long currentBookId(long bookId) {
+        Redirect redirect = mergedBooks.get(bookId);
+        while (redirect != null) {
+            bookId = redirect.bookId();
+            redirect = mergedBooks.get(bookId);
+        }
+        return bookId;
+    }
+
+    private void release(MemberLoans removed) {
+        if (removed != null) {
+            removed.loans().forEach(loan -> release(loan.bookId()));
+        }
+    }
+
+    // Позичення могло бути переведене на іншу книгу між читанням запису учасника і цим викликом
+    private void release(long bookId) {
+        long now = clock.getAsLong();
+        if (books.computeIfPresent(bookId, (id, existing) -> existing.withLoans(-1, now)) == null
+                && mergedBooks.containsKey(bookId)) {
+            release(currentBookId(bookId));
+        }
+    }
+
+    // Надгробки потрібні лише на мілісекунди між хуками або на час перебудови; чистимо не частіше за раз на секунду,
+    // щоб масове видалення не обходило мапу на кожному учасникові
+    private void purgeTombstones() {
+        long now = clock.getAsLong();
+        long last = lastPurge.get();
+        if (!rebuilding && now - last > PURGE_INTERVAL_NANOS && lastPurge.compareAndSet(last, now)) {
+            returnedEarly.values().removeIf(createdAt -> now - createdAt > TOMBSTONE_TTL_NANOS);
+            deletedMembers.values().removeIf(createdAt -> now - createdAt > TOMBSTONE_TTL_NANOS);
+            mergedBooks.values().removeIf(redirect -> now - redirect.createdAt() > TOMBSTONE_TTL_NANOS);
+            // Запис книги живе стільки ж, скільки надгробки: запізніле позичення ще застане актуальну назву
+            books.values().removeIf(book -> book.loans() <= 0 && now - book.idleSince() > TOMBSTONE_TTL_NANOS);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.readmodel;
+
+import com.example.repository.BorrowedBookRepository;
+import com.example.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MemberLoansViewLoader {
+    private final MemberRepository memberRepository;
+    private final BorrowedBookRepository borrowedBookRepository;
+    private final MemberLoansView memberLoansView;
+
+    @Value("${library.read-model.rebuild-parallelism:4}")
+    private int parallelism;
+
+    @Value("${library.read-model.rebuild-chunk-size:10000}")
+    private int chunkSize;
+
+    // Хуки сервісів працюють і під час завантаження; модель віддається лише після нього.
+    // Прогрів іде наступним слухачем і вже читає готову модель
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() throws InterruptedException {
+        long start = System.nanoTime();
+        memberLoansView.startRebuild();
+        boolean loaded = false;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            int members = load(executor, memberRepository.findMaxId(), from -> {
+                var chunk = memberRepository.findByIdBetween(from, from + chunkSize - 1);
+                chunk.forEach(member -> memberLoansView.memberLoaded(member.getId(), member.getName()));
+                return chunk.size();
+            });
+            int loans = load(executor, borrowedBookRepository.findMaxId(), from -> {
+                var chunk = borrowedBookRepository.findLoanRowsByIdBetween(from, from + chunkSize - 1);
+                chunk.forEach(row -> memberLoansView.loanLoaded(row.getId(), row.getMemberId(), row.getBookId(),
+                        row.getTitle(), row.getAuthor()));
+                return chunk.size();
+            });
+            loaded = true;
+            log.info("Модель позичень завантажено: {} учасників, {} позичень за {} мс", members, loans,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (ExecutionException e) {
+            log.error("Не вдалося завантажити модель позичень учасників", e.getCause());
+        } finally {
+            memberLoansView.finishRebuild(loaded);
+        }
+    }
+
+    // Діапазони ID читаються паралельно
+    private int load(ExecutorService executor, long maxId, LongFunction<Integer> chunk)
+            throws InterruptedException, ExecutionException {
+        List<Callable<Integer>> chunks = new ArrayList<>();
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            long chunkFrom = from;
+            chunks.add(() -> chunk.apply(chunkFrom));
+        }
+        int loaded = 0;
+        for (Future<Integer> result : executor.invokeAll(chunks)) {
+            loaded += result.get();
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.report;
+
+public record AuthorCopies(String author, int titles, long copies, int titlesWithoutCopies) {
+}
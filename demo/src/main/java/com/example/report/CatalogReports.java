@@ -0,0 +1,226 @@
+package com.example.report;
+
+import com.example.exception.ValidationException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+// Агрегати каталогу на сервері. Діапазони ID сканують паралельно у власному ForkJoinPool, тож важкі звіти
+// не забирають потоки в common pool і паралельних стрімів. Кожен фрагмент читається окремим запитом,
+// тому звіт не є знімком на один момент часу
+@Component
+@EnableConfigurationProperties(ReportProperties.class)
+public class CatalogReports {
+    private static final String SCAN_BOOKS =
+            "select id, title, author, author_key, copies_amount from book where id between ? and ?";
+    private static final String SCAN_LOAN_MEMBERS =
+            "select member_id from borrowed_book where member_id between ? and ?";
+    private static final String SCAN_MEMBERS = "select id, name from member where id between ? and ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int maxBooksPerMember;
+    private final ForkJoinPool pool;
+
+    public CatalogReports(JdbcTemplate jdbcTemplate, ReportProperties properties,
+                          @Value("${library.max.books.per.member:10}") int maxBooksPerMember) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = properties.chunkSize();
+        this.maxBooksPerMember = maxBooksPerMember;
+        int parallelism = properties.parallelism() > 0
+                ? properties.parallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("report-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Сумарні примірники за автором потребують злиття всіх фрагментів, тож результат віддається після сканування
+    public ReportStream<AuthorCopies> copiesPerAuthor() {
+        return sink -> {
+            long maxId = maxId("book");
+            Map<String, AuthorTotals> totals = pool.invoke(
+                    new RangeTask<>(1, maxId, this::scanAuthors, CatalogReports::mergeAuthors));
+            totals.values().stream()
+                    .map(AuthorTotals::toReport)
+                    .sorted(Comparator.comparingLong(AuthorCopies::copies).reversed()
+                            .thenComparing(AuthorCopies::author))
+                    .forEach(sink);
+        };
+    }
+
+    public ReportStream<UnavailableBook> booksWithoutCopies() {
+        return sink -> streamChunks(maxId("book"), this::scanUnavailable, sink);
+    }
+
+    // Учасники, яким до ліміту лишилося не більше margin книг
+    public ReportStream<MemberNearLimit> membersNearLimit(int margin) {
+        if (margin < 0 || margin >= maxBooksPerMember) {
+            throw new ValidationException("Запас до ліміту має бути від 0 до " + (maxBooksPerMember - 1));
+        }
+        int threshold = maxBooksPerMember - margin;
+        return sink -> streamChunks(maxId("member"), (from, to) -> scanNearLimit(from, to, threshold), sink);
+    }
+
+    // Фрагменти виконуються паралельно, а віддаються в порядку ID. Вікно обмежує пам'ять,
+    // якщо клієнт читає повільніше, ніж скануємо
+    private <T> void streamChunks(long maxId, RangeScan<List<T>> scan, Consumer<? super T> sink) {
+        int window = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>(window);
+        long next = 1;
+        try {
+            while (next <= maxId || !inFlight.isEmpty()) {
+                while (inFlight.size() < window && next <= maxId) {
+                    long from = next;
+                    long to = Math.min(next + chunkSize - 1, maxId);
+                    inFlight.add(pool.submit(() -> scan.scan(from, to)));
+                    next = to + 1;
+                }
+                inFlight.poll().join().forEach(sink);
+            }
+        } finally {
+            // Клієнт відключився або фрагмент упав: решту не скануємо
+            inFlight.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private Map<String, AuthorTotals> scanAuthors(long from, long to) {
+        Map<String, AuthorTotals> totals = new HashMap<>();
+        // Порядок ID: computeIfAbsent бере написання автора з найстарішої книги фрагмента
+        jdbcTemplate.query(SCAN_BOOKS + " order by id", (RowCallbackHandler) rs -> {
+            String author = rs.getString("author");
+            AuthorTotals total = totals.computeIfAbsent(rs.getString("author_key"), key -> new AuthorTotals(author));
+            int copies = rs.getInt("copies_amount");
+            total.titles++;
+            total.copies += copies;
+            if (copies <= 0) {
+                total.titlesWithoutCopies++;
+            }
+        }, from, to);
+        return totals;
+    }
+
+    // Ліве піддерево має менші ID, тож написання автора береться з найстарішої книги
+    private static Map<String, AuthorTotals> mergeAuthors(Map<String, AuthorTotals> left,
+                                                          Map<String, AuthorTotals> right) {
+        right.forEach((key, total) -> left.merge(key, total, (existing, added) -> {
+            existing.titles += added.titles;
+            existing.copies += added.copies;
+            existing.titlesWithoutCopies += added.titlesWithoutCopies;
+            return existing;
+        }));
+        return left;
+    }
+
+    private List<UnavailableBook> scanUnavailable(long from, long to) {
+        List<UnavailableBook> books = new ArrayList<>();
+        jdbcTemplate.query(SCAN_BOOKS + " and copies_amount <= 0 order by id", (RowCallbackHandler) rs ->
+                books.add(new UnavailableBook(rs.getLong("id"), rs.getString("title"), rs.getString("author"))), from, to);
+        return books;
+    }
+
+    // Позичення рахуються в масиві, індексованому зсувом ID учасника у фрагменті, без упаковки в Long
+    private List<MemberNearLimit> scanNearLimit(long from, long to, int threshold) {
+        int[] loans = new int[(int) (to - from + 1)];
+        jdbcTemplate.query(SCAN_LOAN_MEMBERS, (RowCallbackHandler) rs -> loans[(int) (rs.getLong(1) - from)]++, from, to);
+
+        boolean any = false;
+        for (int count : loans) {
+            if (count >= threshold) {
+                any = true;
+                break;
+            }
+        }
+        if (!any) {
+            return List.of();
+        }
+        List<MemberNearLimit> members = new ArrayList<>();
+        jdbcTemplate.query(SCAN_MEMBERS + " order by id", (RowCallbackHandler) rs -> {
+            long id = rs.getLong("id");
+            int count = loans[(int) (id - from)];
+            if (count >= threshold) {
+                members.add(new MemberNearLimit(id, rs.getString("name"), count, Math.max(0, maxBooksPerMember - count)));
+            }
+        }, from, to);
+        return members;
+    }
+
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<R> {
+        R scan(long from, long to);
+    }
+
+    // Діапазон ділиться навпіл, доки не стане не більшим за фрагмент; ліва половина виконується в іншому потоці
+    private final class RangeTask<R> extends RecursiveTask<R> {
+        private final long from;
+        private final long to;
+        private final RangeScan<R> scan;
+        private final BinaryOperator<R> merge;
+
+        private RangeTask(long from, long to, RangeScan<R> scan, BinaryOperator<R> merge) {
+            this.from = from;
+            this.to = to;
+            this.scan = scan;
+            this.merge = merge;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from + 1 <= chunkSize) {
+                return scan.scan(from, to);
+            }
+            long middle = from + (to - from) / 2;
+            RangeTask<R> left = new RangeTask<>(from, middle, scan, merge);
+            left.fork();
+            R right = new RangeTask<>(middle + 1, to, scan, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    private static final class AuthorTotals {
+        private final String author;
+        private int titles;
+        private long copies;
+        private int titlesWithoutCopies;
+
+        private AuthorTotals(String author) {
+            this.author = author;
+        }
+
+        AuthorCopies toReport() {
+            return new AuthorCopies(author, titles, copies, titlesWithoutCopies);
+        }
+    }
+}
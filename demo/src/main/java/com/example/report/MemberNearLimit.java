@@ -0,0 +1,4 @@
+package com.example.report;
+
+public record MemberNearLimit(long memberId, String name, int loans, int remainingAllowance) {
+}
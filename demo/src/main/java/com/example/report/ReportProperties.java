@@ -0,0 +1,13 @@
+package com.example.report;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("library.report")
+public record ReportProperties(
+        // 0 — за кількістю ядер
+        @DefaultValue("0") int parallelism,
+        // Діапазон ID, який сканує одне листове завдання
+        @DefaultValue("10000") int chunkSize
+) {
+}
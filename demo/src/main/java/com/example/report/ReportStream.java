@@ -0,0 +1,9 @@
+package com.example.report;
+
+import java.util.function.Consumer;
+
+// Звіт, параметри якого вже перевірено; сканування починається лише під час запису відповіді
+@FunctionalInterface
+public interface ReportStream<T> {
+    void forEach(Consumer<? super T> sink);
+}
@@ -0,0 +1,4 @@
+package com.example.report;
+
+public record UnavailableBook(long id, String title, String author) {
+}
@@ -1,15 +1,47 @@
 package com.example.repository;
 
 import com.example.entity.Book;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
-    Optional<Book> findByTitleAndAuthor(String title, String author);
-    Optional<Book> findByTitle(String title);
-    List<Book> findByAuthor(String author);
+    Optional<Book> findByTitleKeyAndAuthorKey(String titleKey, String authorKey);
+    Optional<Book> findFirstByTitleKeyOrderByIdAsc(String titleKey);
+    List<Book> findByAuthorKey(String authorKey);
+    List<Book> findByIdBetween(Long fromId, Long toId);
+
+    // SELECT ... FOR UPDATE: зміни кількості примірників виконуються по черзі
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(Long id);
+
+    // Дедуплікація при створенні й злитті змінює кількість примірників знайденої книги, тож блокуємо і її
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.titleKey = :titleKey AND b.authorKey = :authorKey")
+    Optional<Book> findByTitleKeyAndAuthorKeyForUpdate(String titleKey, String authorKey);
+
+    // Книги на руках у видалюваних учасників; порядок ID — той самий порядок блокувань, що й у позиченні
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id IN " +
+            "(SELECT bb.book.id FROM BorrowedBook bb WHERE bb.member.id IN :memberIds) ORDER BY b.id")
+    List<Book> findBorrowedByMembersForUpdate(Collection<Long> memberIds);
+
+    // Один оператор на всі книги: кожна отримує назад стільки примірників, скільки було на руках у цих учасників
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.copiesAmount = b.copiesAmount + " +
+            "(SELECT CAST(COUNT(bb) AS Integer) FROM BorrowedBook bb WHERE bb.book.id = b.id AND bb.member.id IN :memberIds) " +
+            "WHERE b.id IN :bookIds")
+    int returnCopiesBorrowedBy(Collection<Long> memberIds, Collection<Long> bookIds);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Book b")
+    long findMaxId();
 }
@@ -1,18 +1,58 @@
 package com.example.repository;
 
 import com.example.entity.BorrowedBook;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface BorrowedBookRepository extends JpaRepository<BorrowedBook, Long> {
-    List<BorrowedBook> findByMemberName(String memberName);
+    List<BorrowedBook> findByMemberNameKey(String memberNameKey);
 
     long countByMemberId(Long memberId);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM BorrowedBook b WHERE b.member.id IN :memberIds")
+    int deleteAllByMemberIdIn(Collection<Long> memberIds);
+
+    // Позичення злитої книги переходять до книги, що лишилася, інакше її не видалити через зовнішній ключ
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BorrowedBook b SET b.book.id = :toBookId WHERE b.book.id = :fromBookId")
+    int moveToBook(Long fromBookId, Long toBookId);
+
+    // Лише ID книги, без завантаження сутностей: книгу потім треба прочитати вже під блокуванням
+    @Query("SELECT b.book.id FROM BorrowedBook b WHERE b.id = :id")
+    Optional<Long> findBookIdById(Long id);
+
+    @Query("SELECT b.book.id FROM BorrowedBook b GROUP BY b.book.id ORDER BY COUNT(b) DESC")
+    List<Long> findMostBorrowedBookIds(Pageable pageable);
+
+    @Query("SELECT b.member.id FROM BorrowedBook b GROUP BY b.member.id ORDER BY COUNT(b) DESC")
+    List<Long> findMostActiveMemberIds(Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM BorrowedBook b")
+    long findMaxId();
+
+    // Проєкція для моделі читання: без сутностей учасника та книги
+    @Query("SELECT b.id AS id, b.member.id AS memberId, b.book.id AS bookId, " +
+            "b.book.title AS title, b.book.author AS author " +
+            "FROM BorrowedBook b WHERE b.id BETWEEN :fromId AND :toId")
+    List<LoanRow> findLoanRowsByIdBetween(Long fromId, Long toId);
+
+    interface LoanRow {
+        Long getId();
+        Long getMemberId();
+        Long getBookId();
+        String getTitle();
+        String getAuthor();
+    }
+
     @Query("SELECT DISTINCT b.book.title FROM BorrowedBook b")
     List<String> findDistinctBookNames();
 
@@ -1,14 +1,40 @@
 package com.example.repository;
 
 import com.example.entity.Member;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findById(Long id);
-    Member findByName(String name);
+    Page<Member> findByNameKeyStartingWith(String nameKeyPrefix, Pageable pageable);
+    List<Member> findByIdBetween(Long fromId, Long toId);
+
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM Member m")
+    long findMaxId();
+
+    // Блокування учасника серіалізує перевірку ліміту позичень для нього
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id = :id")
+    Optional<Member> findByIdForUpdate(Long id);
+
+    // Заблоковані учасники не можуть позичати, поки їх видаляють
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Member m WHERE m.id IN :ids ORDER BY m.id")
+    List<Member> findAllByIdForUpdate(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Member m WHERE m.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
 
 }
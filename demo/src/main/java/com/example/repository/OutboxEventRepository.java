@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Події, що чекають на повтор, не затримують ті, що стоять за ними
+    @Query("SELECT e FROM OutboxEvent e WHERE e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now ORDER BY e.id")
+    List<OutboxEvent> findReady(Instant now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt WHERE e.id = :id")
+    int scheduleRetry(Long id, int attempts, Instant nextAttemptAt);
+}
@@ -0,0 +1,4 @@
+package com.example.search;
+
+public record BookSearchHit(Long id, String title, String author, double score) {
+}
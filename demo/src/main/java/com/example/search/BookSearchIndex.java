@@ -0,0 +1,292 @@
+package com.example.search;
+
+import com.example.entity.Book;
+import com.example.util.TextNormalizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Component
+public class BookSearchIndex {
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double AUTHOR_WEIGHT = 1.0;
+    private static final double EXACT_SCORE = 1.0;
+    private static final double PREFIX_SCORE = 0.75;
+    private static final double FUZZY_SCORE = 0.5;
+    // Обмеження роботи на один токен запиту: токени словника, документи, поширеність триграми
+    private static final int MAX_EXPANSIONS = 256;
+    private static final int MAX_CANDIDATES = 5_000;
+    private static final int MAX_TRIGRAM_FANOUT = 1_000;
+
+    private final Map<Long, IndexedBook> books = new ConcurrentHashMap<>();
+    private final FieldIndex titles = new FieldIndex();
+    private final FieldIndex authors = new FieldIndex();
+    private final double minSimilarity;
+    // Книги, змінені або видалені під час перебудови: знімок завантажувача для них уже застарів
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public BookSearchIndex(@Value("${library.search.min-similarity:0.4}") double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    public void index(Book book) {
+        if (rebuilding) {
+            changedDuringRebuild.add(book.getId());
+        }
+        put(book, false);
+    }
+
+    public void remove(Long id) {
+        if (rebuilding) {
+            changedDuringRebuild.add(id);
+        }
+        books.computeIfPresent(id, (key, previous) -> {
+            unindex(previous);
+            return null;
+        });
+    }
+
+    // Хуки перебудови для BookSearchIndexLoader. Позначка ставиться до зміни, а перевіряється всередині compute,
+    // тож рядок, прочитаний до перейменування чи видалення, не може перезаписати новіший стан
+    void startRebuild() {
+        changedDuringRebuild.clear();
+        rebuilding = true;
+    }
+
+    void indexLoaded(Book book) {
+        put(book, true);
+    }
+
+    void finishRebuild() {
+        rebuilding = false;
+        changedDuringRebuild.clear();
+    }
+
+    private void put(Book book, boolean loaded) {
+        IndexedBook indexed = new IndexedBook(book.getId(), book.getTitle(), book.getAuthor(),
+                TextNormalizer.tokens(book.getTitle()), TextNormalizer.tokens(book.getAuthor()));
+        // compute серіалізує оновлення однієї книги, різні книги індексуються паралельно
+        books.compute(book.getId(), (id, previous) -> {
+            if (loaded && changedDuringRebuild.contains(id)) {
+                return previous;
+            }
+            if (previous != null) {
+                unindex(previous);
+            }
+            indexed.titleTokens.forEach(token -> titles.add(token, id));
+            indexed.authorTokens.forEach(token -> authors.add(token, id));
+            return indexed;
+        });
+    }
+
+    public int size() {
+        return books.size();
+    }
+
+    public List<BookSearchHit> search(String query, int limit) {
+        List<String> queryTokens = TextNormalizer.tokens(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String queryToken : queryTokens) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            int visited = titles.match(queryToken, TITLE_WEIGHT, tokenScores, MAX_CANDIDATES);
+            visited += authors.match(queryToken, AUTHOR_WEIGHT, tokenScores, MAX_CANDIDATES - visited);
+            // Нечіткі збіги оцінюються нижче за префіксні, тому потрібні лише коли точних не вистачає
+            if (tokenScores.size() < limit && queryToken.length() >= 3) {
+                visited += titles.fuzzyMatch(queryToken, TITLE_WEIGHT, tokenScores, MAX_CANDIDATES - visited);
+                authors.fuzzyMatch(queryToken, AUTHOR_WEIGHT, tokenScores, MAX_CANDIDATES - visited);
+            }
+            tokenScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+
+        Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, ranking);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<BookSearchHit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            Map.Entry<Long, Double> entry = top.poll();
+            IndexedBook book = books.get(entry.getKey());
+            if (book != null) {
+                hits.add(new BookSearchHit(book.id, book.title, book.author, entry.getValue()));
+            }
+        }
+        return hits.reversed();
+    }
+
+    private void unindex(IndexedBook book) {
+        book.titleTokens.forEach(token -> titles.remove(token, book.id));
+        book.authorTokens.forEach(token -> authors.remove(token, book.id));
+    }
+
+    private record IndexedBook(Long id, String title, String author,
+                               List<String> titleTokens, List<String> authorTokens) {
+    }
+
+    private final class FieldIndex {
+        private static final int LOCK_STRIPES = 64;
+
+        private final NavigableMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<String>> tokensByTrigram = new ConcurrentHashMap<>();
+        // Зміни одного токена (постинги + триграми) виконуються під його смугою блокування
+        private final Object[] locks = new Object[LOCK_STRIPES];
+
+        private FieldIndex() {
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        private Object lockFor(String token) {
+            return locks[(token.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+        }
+
+        void add(String token, Long id) {
+            synchronized (lockFor(token)) {
+                Posting posting = postings.get(token);
+                if (posting == null) {
+                    List<String> tokenTrigrams = trigrams(token);
+                    posting = new Posting(tokenTrigrams.size());
+                    postings.put(token, posting);
+                    for (String trigram : tokenTrigrams) {
+                        tokensByTrigram.compute(trigram, (key, tokens) -> {
+                            Set<String> result = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+                            result.add(token);
+                            return result;
+                        });
+                    }
+                }
+                posting.ids.add(id);
+            }
+        }
+
+        void remove(String token, Long id) {
+            synchronized (lockFor(token)) {
+                Posting posting = postings.get(token);
+                if (posting == null) {
+                    return;
+                }
+                posting.ids.remove(id);
+                if (posting.ids.isEmpty()) {
+                    postings.remove(token);
+                    for (String trigram : trigrams(token)) {
+                        tokensByTrigram.computeIfPresent(trigram, (key, tokens) -> {
+                            tokens.remove(token);
+                            return tokens.isEmpty() ? null : tokens;
+                        });
+                    }
+                }
+            }
+        }
+
+        // Точні та префіксні збіги; повертає кількість переглянутих документів
+        int match(String queryToken, double weight, Map<Long, Double> out, int budget) {
+            int visited = 0;
+            Posting exact = postings.get(queryToken);
+            if (exact != null) {
+                visited += collect(exact, EXACT_SCORE * weight, out, budget);
+            }
+
+            int expansions = 0;
+            for (Posting posting : postings.subMap(queryToken, false, queryToken + Character.MAX_VALUE, false).values()) {
+                if (visited >= budget || ++expansions > MAX_EXPANSIONS) {
+                    break;
+                }
+                visited += collect(posting, PREFIX_SCORE * weight, out, budget - visited);
+            }
+            return visited;
+        }
+
+        int fuzzyMatch(String queryToken, double weight, Map<Long, Double> out, int budget) {
+            List<String> queryTrigrams = trigrams(queryToken);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<String> tokens = tokensByTrigram.get(trigram);
+                // Надто поширені триграми не відсікають кандидатів, лише сповільнюють пошук
+                if (tokens != null && tokens.size() <= MAX_TRIGRAM_FANOUT) {
+                    tokens.forEach(token -> shared.merge(token, 1, Integer::sum));
+                }
+            }
+
+            PriorityQueue<Map.Entry<String, Double>> best =
+                    new PriorityQueue<>(MAX_EXPANSIONS + 1, Map.Entry.comparingByValue());
+            shared.forEach((token, common) -> {
+                Posting posting = postings.get(token);
+                if (posting == null || token.equals(queryToken)) {
+                    return;
+                }
+                // Коефіцієнт Жаккара за множинами триграм
+                double similarity = (double) common / (queryTrigrams.size() + posting.trigramCount - common);
+                if (similarity >= minSimilarity) {
+                    best.offer(Map.entry(token, similarity));
+                    if (best.size() > MAX_EXPANSIONS) {
+                        best.poll();
+                    }
+                }
+            });
+
+            int visited = 0;
+            for (Map.Entry<String, Double> entry : best) {
+                Posting posting = postings.get(entry.getKey());
+                if (posting != null && visited < budget) {
+                    visited += collect(posting, FUZZY_SCORE * entry.getValue() * weight, out, budget - visited);
+                }
+            }
+            return visited;
+        }
+
+        // ID у постингах відсортовані, тож при вичерпанні бюджету залишаються книги з меншими ID
+        private int collect(Posting posting, double score, Map<Long, Double> out, int budget) {
+            int visited = 0;
+            for (Long id : posting.ids) {
+                if (visited++ >= budget) {
+                    break;
+                }
+                out.merge(id, score, Math::max);
+            }
+            return Math.min(visited, budget);
+        }
+    }
+
+    private static final class Posting {
+        private final Set<Long> ids = new ConcurrentSkipListSet<>();
+        private final int trigramCount;
+
+        private Posting(int trigramCount) {
+            this.trigramCount = trigramCount;
+        }
+    }
+
+    static List<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            String trigram = padded.substring(i, i + 3);
+            if (!trigrams.contains(trigram)) {
+                trigrams.add(trigram);
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.search;
+
+import com.example.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndexLoader {
+    private final BookRepository bookRepository;
+    private final BookSearchIndex bookSearchIndex;
+
+    @Value("${library.search.rebuild-parallelism:4}")
+    private int parallelism;
+
+    @Value("${library.search.rebuild-chunk-size:10000}")
+    private int chunkSize;
+
+    // Діапазони ID читаються та індексуються паралельно. Інкрементальні оновлення після комітів
+    // тривають і під час перебудови, тож індекс пропускає рядки книг, змінених після початку.
+    // Виконується перед прогрівом, щоб той шукав у заповненому індексі
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void rebuild() throws InterruptedException {
+        long start = System.nanoTime();
+        bookSearchIndex.startRebuild();
+        try {
+            rebuildChunks(start);
+        } finally {
+            bookSearchIndex.finishRebuild();
+        }
+    }
+
+    private void rebuildChunks(long start) throws InterruptedException {
+        long maxId = bookRepository.findMaxId();
+
+        List<Callable<Integer>> chunks = new ArrayList<>();
+        for (long from = 1; from <= maxId; from += chunkSize) {
+            long chunkFrom = from;
+            long chunkTo = Math.min(from + chunkSize - 1, maxId);
+            chunks.add(() -> {
+                var books = bookRepository.findByIdBetween(chunkFrom, chunkTo);
+                books.forEach(bookSearchIndex::indexLoaded);
+                return books.size();
+            });
+        }
+
+        int indexed = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (Future<Integer> result : executor.invokeAll(chunks)) {
+                indexed += result.get();
+            }
+        } catch (ExecutionException e) {
+            log.error("Не вдалося перебудувати пошуковий індекс", e.getCause());
+            return;
+        }
+        log.info("Пошуковий індекс перебудовано: {} книг за {} мс", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.service;
 
+import com.example.dto.LookupResult;
 import com.example.entity.Book;
+import com.example.search.BookSearchHit;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +15,7 @@ public interface BookService {
     Optional<Book> findByTitle(String title);
     List<Book> findByAuthor(String author);
     Optional<Book> findByTitleAndAuthor(String title, String author);
+    List<LookupResult<Book>> lookupBooks(List<Long> ids);
+    List<BookSearchHit> searchBooks(String query, int limit);
 
 }
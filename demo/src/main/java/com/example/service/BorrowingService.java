@@ -1,5 +1,8 @@
 package com.example.service;
 
+import com.example.analytics.PopularityWindow;
+import com.example.dto.MemberLoansResponse;
+import com.example.dto.PopularBookResponse;
 import com.example.entity.BorrowedBook;
 
 import java.util.List;
@@ -9,7 +12,9 @@ public interface BorrowingService {
     BorrowedBook borrowBook(Long memberId, Long bookId);
     void returnBook(Long borrowingId);
     List<BorrowedBook> getBorrowedBooksByMemberName(String memberName);
+    MemberLoansResponse getMemberLoans(Long memberId);
     List<String> getAllBorrowedBookNames();
     List<Map<String, Object>> getBorrowedBooksWithCount();
+    List<PopularBookResponse> getPopularBooks(PopularityWindow window, int limit);
 
 }
@@ -0,0 +1,13 @@
+package com.example.service;
+
+import com.example.dto.MemberDeleteReport;
+import com.example.dto.MemberImportReport;
+import com.example.entity.Member;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+public interface MemberBulkService {
+    MemberImportReport importMembers(Iterator<Member> members);
+    MemberDeleteReport deleteMembers(Collection<Long> ids);
+}
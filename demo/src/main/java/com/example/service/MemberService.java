@@ -1,8 +1,9 @@
 package com.example.service;
 
+import com.example.dto.LookupResult;
 import com.example.entity.Member;
+import org.springframework.data.domain.Page;
 import java.util.List;
-import java.util.Optional;
 
 public interface MemberService {
     Member createMember(Member member);
@@ -10,5 +11,6 @@ public interface MemberService {
     Member getMemberById(Long id);
     Member updateMember(Long id, Member member);
     void deleteMember(Long id);
-    Optional<Member> findByName(String name);
+    Page<Member> searchByName(String namePrefix, int page, int size);
+    List<LookupResult<Member>> lookupMembers(List<Long> ids);
 }
\ No newline at end of file
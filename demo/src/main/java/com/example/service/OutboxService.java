@@ -0,0 +1,12 @@
+package com.example.service;
+
+import com.example.entity.Book;
+import com.example.entity.BorrowedBook;
+
+public interface OutboxService {
+    void bookBorrowed(BorrowedBook borrowedBook);
+    void bookReturned(BorrowedBook borrowedBook);
+    void bookCreated(Book book);
+    void bookUpdated(Book book);
+    void bookDeleted(Book book);
+}
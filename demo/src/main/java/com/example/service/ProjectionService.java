@@ -0,0 +1,14 @@
+package com.example.service;
+
+import com.example.projection.SparseRow;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+public interface ProjectionService {
+    List<SparseRow> getAllBooks(String fields);
+    List<SparseRow> findBooksByAuthor(String author, String fields);
+    List<SparseRow> getAllMembers(String fields);
+    Page<SparseRow> searchMembersByName(String namePrefix, int page, int size, String fields);
+    List<SparseRow> getBorrowedBooksByMemberName(String memberName, String fields);
+}
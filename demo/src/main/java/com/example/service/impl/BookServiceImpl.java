@@ -1,12 +1,27 @@
 package com.example.service.impl;
 
+import com.example.bloom.CatalogKeyFilters;
+import com.example.bloom.KeyFilter;
+import com.example.dto.LookupResult;
 import com.example.entity.Book;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
 import com.example.exception.ValidationException;
+import com.example.jfr.CreateBookEvent;
+import com.example.jfr.UpdateBookEvent;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.BookRepository;
+import com.example.repository.BorrowedBookRepository;
+import com.example.search.BookSearchHit;
+import com.example.search.BookSearchIndex;
 import com.example.service.BookService;
+import com.example.service.OutboxService;
+import com.example.util.AfterCommit;
+import com.example.util.TextNormalizer;
 import com.example.validator.BookValidator;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.DataBinder;
@@ -20,35 +35,77 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
     private final BookRepository bookRepository;
+    private final BorrowedBookRepository borrowedBookRepository;
     private final BookValidator bookValidator;
+    private final OutboxService outboxService;
+    private final BookSearchIndex bookSearchIndex;
+    private final CatalogVersions catalogVersions;
+    private final CatalogKeyFilters catalogKeyFilters;
+    private final MemberLoansView memberLoansView;
+
+    @Value("${library.lookup.max-ids:5000}")
+    private int maxLookupIds;
+
+    @Value("${library.lookup.chunk-size:1000}")
+    private int lookupChunkSize;
+
+    @Value("${library.search.max-results:100}")
+    private int maxSearchResults;
 
     @Override
+    @Transactional
     public Book createBook(Book book) {
-        DataBinder binder = new DataBinder(book);
-        binder.setValidator(bookValidator);
-        binder.validate();
-
-        if (binder.getBindingResult().hasErrors()) {
-            throw new ValidationException(binder.getBindingResult().getAllErrors()
-                    .stream()
-                    .map(DefaultMessageSourceResolvable::getDefaultMessage)
-                    .collect(Collectors.joining(", ")));
-        }
+        CreateBookEvent event = new CreateBookEvent();
+        event.start();
+        try {
+            DataBinder binder = new DataBinder(book);
+            binder.setValidator(bookValidator);
+            binder.validate();
+
+            if (binder.getBindingResult().hasErrors()) {
+                throw new ValidationException(binder.getBindingResult().getAllErrors()
+                        .stream()
+                        .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                        .collect(Collectors.joining(", ")));
+            }
+
+            String title = book.getTitle().trim();
+            String author = book.getAuthor().trim();
 
-        String title = book.getTitle().trim();
-        String author = book.getAuthor().trim();
-
-        return bookRepository.findByTitleAndAuthor(title, author)
-                .map(existingBook -> {
-                    existingBook.setCopiesAmount(existingBook.getCopiesAmount() + 1);
-                    return bookRepository.save(existingBook);
-                })
-                .orElseGet(() -> {
-                    book.setTitle(title);
-                    book.setAuthor(author);
-                    book.setCopiesAmount(1);
-                    return bookRepository.save(book);
-                });
+            String titleKey = TextNormalizer.normalize(title);
+            String authorKey = TextNormalizer.normalize(author);
+
+            // Більшість нових книг відсутні в каталозі: фільтр Блума відповідає на це без запиту.
+            // Знайдений рядок блокується, щоб паралельне позичення не перезаписало нову кількість примірників
+            Optional<Book> existing = catalogKeyFilters.definitelyAbsentBook(titleKey, authorKey)
+                    ? Optional.empty()
+                    : bookRepository.findByTitleKeyAndAuthorKeyForUpdate(titleKey, authorKey);
+            Book saved = existing
+                    .map(existingBook -> {
+                        existingBook.setCopiesAmount(existingBook.getCopiesAmount() + 1);
+                        Book updated = bookRepository.save(existingBook);
+                        event.deduplicated(updated.getId());
+                        return updated;
+                    })
+                    .orElseGet(() -> {
+                        book.setTitle(title);
+                        book.setAuthor(author);
+                        book.setCopiesAmount(1);
+                        catalogKeyFilters.bookAdded(book);
+                        Book inserted = bookRepository.save(book);
+                        event.inserted(inserted.getId());
+                        return inserted;
+                    });
+            outboxService.bookCreated(saved);
+            catalogVersions.changed(CatalogScope.BOOKS);
+            AfterCommit.run(() -> bookSearchIndex.index(saved));
+            return saved;
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
     }
 
 
@@ -66,59 +123,137 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional
     public Book updateBook(Long id, Book bookDetails) {
-        Book currentBook = getBookById(id);
-        String title = bookDetails.getTitle().trim();
-        String author = bookDetails.getAuthor().trim();
-
-        // Якщо змінилися і назва, і автор
-        if (!currentBook.getTitle().equalsIgnoreCase(title) ||
-                !currentBook.getAuthor().equalsIgnoreCase(author)) {
-
-            Optional<Book> existingBook = bookRepository.findByTitleAndAuthor(title, author);
-
-            if (existingBook.isPresent()) {
-                // Якщо така книга вже існує, збільшуємо її кількість
-                Book bookToUpdate = existingBook.get();
-                bookToUpdate.setCopiesAmount(bookToUpdate.getCopiesAmount() + currentBook.getCopiesAmount());
-                bookRepository.save(bookToUpdate);
-
-                // Видаляємо стару книгу
-                bookRepository.delete(currentBook);
-
-                return bookToUpdate;
-            } else {
-                // Якщо такої книги не існує, оновлюємо поточну
-                currentBook.setTitle(title);
-                currentBook.setAuthor(author);
-                currentBook.setCopiesAmount(bookDetails.getCopiesAmount());
-                return bookRepository.save(currentBook);
+        UpdateBookEvent event = new UpdateBookEvent(id);
+        event.start();
+        try {
+            // Кількість примірників змінюють і позичення, тож читаємо рядок під тим самим блокуванням
+            Book currentBook = bookRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Книгу з ID " + id + " не знайдено"));
+            String title = bookDetails.getTitle().trim();
+            String author = bookDetails.getAuthor().trim();
+
+            String titleKey = TextNormalizer.normalize(title);
+            String authorKey = TextNormalizer.normalize(author);
+
+            // Якщо змінилися назва або автор
+            if (!titleKey.equals(currentBook.getTitleKey()) ||
+                    !authorKey.equals(currentBook.getAuthorKey())) {
+
+                Optional<Book> existingBook = catalogKeyFilters.definitelyAbsentBook(titleKey, authorKey)
+                        ? Optional.empty()
+                        : bookRepository.findByTitleKeyAndAuthorKeyForUpdate(titleKey, authorKey);
+
+                if (existingBook.isPresent()) {
+                    // Якщо така книга вже існує, збільшуємо її кількість
+                    Book bookToUpdate = existingBook.get();
+                    bookToUpdate.setCopiesAmount(bookToUpdate.getCopiesAmount() + currentBook.getCopiesAmount());
+                    bookRepository.save(bookToUpdate);
+                    borrowedBookRepository.moveToBook(currentBook.getId(), bookToUpdate.getId());
+
+                    // Видаляємо стару книгу
+                    bookRepository.delete(currentBook);
+                    catalogKeyFilters.bookRemoved();
+
+                    outboxService.bookDeleted(currentBook);
+                    outboxService.bookUpdated(bookToUpdate);
+                    catalogVersions.changed(CatalogScope.BOOKS);
+                    String mergedTitle = bookToUpdate.getTitle();
+                    String mergedAuthor = bookToUpdate.getAuthor();
+                    AfterCommit.run(() -> {
+                        bookSearchIndex.remove(currentBook.getId());
+                        memberLoansView.bookMerged(currentBook.getId(), bookToUpdate.getId(), mergedTitle, mergedAuthor);
+                    });
+                    event.merged(bookToUpdate.getId());
+                    return bookToUpdate;
+                } else {
+                    // Якщо такої книги не існує, оновлюємо поточну
+                    currentBook.setTitle(title);
+                    currentBook.setAuthor(author);
+                    currentBook.setCopiesAmount(bookDetails.getCopiesAmount());
+                    catalogKeyFilters.bookRemoved();
+                    catalogKeyFilters.bookAdded(currentBook);
+                    Book saved = bookRepository.save(currentBook);
+                    outboxService.bookUpdated(saved);
+                    catalogVersions.changed(CatalogScope.BOOKS);
+                    AfterCommit.run(() -> {
+                        bookSearchIndex.index(saved);
+                        memberLoansView.bookChanged(saved.getId(), title, author);
+                    });
+                    event.renamed();
+                    return saved;
+                }
             }
-        }
 
-        // Якщо змінюється тільки кількість копій
-        currentBook.setCopiesAmount(bookDetails.getCopiesAmount());
-        return bookRepository.save(currentBook);
+            // Ключі ті самі: оновлюємо кількість копій і написання (регістр, пробіли)
+            currentBook.setTitle(title);
+            currentBook.setAuthor(author);
+            currentBook.setCopiesAmount(bookDetails.getCopiesAmount());
+            Book saved = bookRepository.save(currentBook);
+            outboxService.bookUpdated(saved);
+            catalogVersions.changed(CatalogScope.BOOKS);
+            AfterCommit.run(() -> memberLoansView.bookChanged(saved.getId(), title, author));
+            event.updatedInPlace();
+            return saved;
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
     }
 
     @Override
+    @Transactional
     public void deleteBook(Long id) {
         Book book = getBookById(id);
         bookRepository.delete(book);
+        catalogKeyFilters.bookRemoved();
+        outboxService.bookDeleted(book);
+        catalogVersions.changed(CatalogScope.BOOKS);
+        AfterCommit.run(() -> {
+            bookSearchIndex.remove(book.getId());
+            memberLoansView.bookRemoved(book.getId());
+        });
     }
 
     @Override
     public Optional<Book> findByTitle(String title) {
-        return bookRepository.findByTitle(title.trim());
+        String titleKey = TextNormalizer.normalize(title);
+        if (catalogKeyFilters.definitelyAbsent(KeyFilter.TITLE, titleKey)) {
+            return Optional.empty();
+        }
+        return bookRepository.findFirstByTitleKeyOrderByIdAsc(titleKey);
     }
 
     @Override
     public List<Book> findByAuthor(String author) {
-        return bookRepository.findByAuthor(author.trim());
+        return bookRepository.findByAuthorKey(TextNormalizer.normalize(author));
     }
 
     @Override
     public Optional<Book> findByTitleAndAuthor(String title, String author) {
-        return bookRepository.findByTitleAndAuthor(title.trim(), author.trim());
+        String titleKey = TextNormalizer.normalize(title);
+        String authorKey = TextNormalizer.normalize(author);
+        if (catalogKeyFilters.definitelyAbsentBook(titleKey, authorKey)) {
+            return Optional.empty();
+        }
+        return bookRepository.findByTitleKeyAndAuthorKey(titleKey, authorKey);
+    }
+
+    @Override
+    public List<LookupResult<Book>> lookupBooks(List<Long> ids) {
+        return BulkLookup.lookup(ids, maxLookupIds, lookupChunkSize, bookRepository::findAllById, Book::getId);
+    }
+
+    @Override
+    public List<BookSearchHit> searchBooks(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Пошуковий запит не може бути порожнім");
+        }
+        if (limit < 1 || limit > maxSearchResults) {
+            throw new ValidationException("Кількість результатів має бути від 1 до " + maxSearchResults);
+        }
+        return bookSearchIndex.search(query, limit);
     }
 
 }
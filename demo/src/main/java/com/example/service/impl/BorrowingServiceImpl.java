@@ -1,20 +1,40 @@
 package com.example.service.impl;
 
+import com.example.analytics.HeavyHitter;
+import com.example.analytics.PopularTitles;
+import com.example.analytics.PopularityWindow;
+import com.example.bloom.CatalogKeyFilters;
+import com.example.bloom.KeyFilter;
+import com.example.dto.MemberLoansResponse;
+import com.example.dto.PopularBookResponse;
 import com.example.entity.Book;
 import com.example.entity.BorrowedBook;
 import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
 import com.example.exception.ValidationException;
+import com.example.jfr.BorrowBookEvent;
+import com.example.jfr.ReturnBookEvent;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.BookRepository;
 import com.example.repository.BorrowedBookRepository;
 import com.example.repository.MemberRepository;
 import com.example.service.BorrowingService;
+import com.example.service.OutboxService;
+import com.example.util.AfterCommit;
+import com.example.util.TextNormalizer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +42,11 @@ public class BorrowingServiceImpl implements BorrowingService {
     private final BorrowedBookRepository borrowedBookRepository;
     private final BookRepository bookRepository;
     private final MemberRepository memberRepository;
+    private final OutboxService outboxService;
+    private final CatalogVersions catalogVersions;
+    private final PopularTitles popularTitles;
+    private final CatalogKeyFilters catalogKeyFilters;
+    private final MemberLoansView memberLoansView;
 
     @Value("${library.max.books.per.member:10}")
     private int maxBooksPerMember;
@@ -29,47 +54,97 @@ public class BorrowingServiceImpl implements BorrowingService {
     @Transactional
     @Override
     public BorrowedBook borrowBook(Long memberId, Long bookId) {
-        Member member = memberRepository.findById(memberId)
-                .orElseThrow(() -> new ValidationException("Учасника не знайдено"));
-
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new ValidationException("Книгу не знайдено"));
-
-        if (book.getCopiesAmount() <= 0) {
-            throw new ValidationException("Книга недоступна для позичення");
+        BorrowBookEvent event = new BorrowBookEvent(memberId, bookId);
+        event.start();
+        try {
+            // Порядок блокувань: учасник, потім книга; повернення блокує лише книгу
+            Member member = memberRepository.findByIdForUpdate(memberId)
+                    .orElseThrow(() -> DomainException.of(ErrorCode.MEMBER_NOT_FOUND));
+
+            Book book = bookRepository.findByIdForUpdate(bookId)
+                    .orElseThrow(() -> DomainException.of(ErrorCode.BOOK_NOT_FOUND));
+
+            if (book.getCopiesAmount() <= 0) {
+                throw DomainException.of(ErrorCode.BOOK_UNAVAILABLE);
+            }
+
+            long currentlyBorrowed = borrowedBookRepository.countByMemberId(memberId);
+            if (currentlyBorrowed >= maxBooksPerMember) {
+                throw DomainException.of(ErrorCode.BORROW_LIMIT_EXCEEDED);
+            }
+
+            book.setCopiesAmount(book.getCopiesAmount() - 1);
+            bookRepository.save(book);
+
+            BorrowedBook borrowedBook = new BorrowedBook();
+            borrowedBook.setMember(member);
+            borrowedBook.setBook(book);
+
+            BorrowedBook saved = borrowedBookRepository.save(borrowedBook);
+            outboxService.bookBorrowed(saved);
+            catalogVersions.changed(CatalogScope.BOOKS, CatalogScope.LOANS);
+            long borrowingId = saved.getId();
+            String title = book.getTitle();
+            String author = book.getAuthor();
+            AfterCommit.run(() -> memberLoansView.loanAdded(borrowingId, memberId, bookId, title, author));
+            event.borrowed(saved.getId());
+            return saved;
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finish();
         }
-
-        long currentlyBorrowed = borrowedBookRepository.countByMemberId(memberId);
-        if (currentlyBorrowed >= maxBooksPerMember) {
-            throw new ValidationException("Перевищено ліміт позичених книг");
-        }
-
-        book.setCopiesAmount(book.getCopiesAmount() - 1);
-        bookRepository.save(book);
-
-        BorrowedBook borrowedBook = new BorrowedBook();
-        borrowedBook.setMember(member);
-        borrowedBook.setBook(book);
-
-        return borrowedBookRepository.save(borrowedBook);
     }
 
     @Transactional
     @Override
     public void returnBook(Long borrowingId) {
-        BorrowedBook borrowedBook = borrowedBookRepository.findById(borrowingId)
-                .orElseThrow(() -> new ValidationException("Запис про позичення не знайдено"));
-
-        Book book = borrowedBook.getBook();
-        book.setCopiesAmount(book.getCopiesAmount() + 1);
-        bookRepository.save(book);
-
-        borrowedBookRepository.delete(borrowedBook);
+        ReturnBookEvent event = new ReturnBookEvent(borrowingId);
+        event.start();
+        try {
+            Long bookId = borrowedBookRepository.findBookIdById(borrowingId)
+                    .orElseThrow(() -> DomainException.of(ErrorCode.BORROWING_NOT_FOUND));
+            // Спершу блокуємо книгу: паралельне повернення того самого позичення чекає тут
+            // і після коміту першого вже не знаходить запис
+            Book book = bookRepository.findByIdForUpdate(bookId)
+                    .orElseThrow(() -> DomainException.of(ErrorCode.BOOK_NOT_FOUND));
+            BorrowedBook borrowedBook = borrowedBookRepository.findById(borrowingId)
+                    .orElseThrow(() -> DomainException.of(ErrorCode.BORROWING_NOT_FOUND));
+            book.setCopiesAmount(book.getCopiesAmount() + 1);
+            bookRepository.save(book);
+
+            borrowedBookRepository.delete(borrowedBook);
+            outboxService.bookReturned(borrowedBook);
+            catalogVersions.changed(CatalogScope.BOOKS, CatalogScope.LOANS);
+            long memberId = borrowedBook.getMember().getId();
+            AfterCommit.run(() -> memberLoansView.loanRemoved(borrowingId, memberId));
+            event.returned(book.getId());
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
     }
 
     @Override
     public List<BorrowedBook> getBorrowedBooksByMemberName(String memberName) {
-        return borrowedBookRepository.findByMemberName(memberName);
+        String nameKey = TextNormalizer.normalize(memberName);
+        if (catalogKeyFilters.definitelyAbsent(KeyFilter.MEMBER_NAME, nameKey)) {
+            return List.of();
+        }
+        return borrowedBookRepository.findByMemberNameKey(nameKey);
+    }
+
+    // Лише модель читання, без звернень до БД
+    @Override
+    public MemberLoansResponse getMemberLoans(Long memberId) {
+        if (!memberLoansView.isReady()) {
+            throw DomainException.of(ErrorCode.WARMING_UP);
+        }
+        return memberLoansView.find(memberId)
+                .orElseThrow(() -> DomainException.of(ErrorCode.MEMBER_NOT_FOUND));
     }
 
     @Override
@@ -81,4 +156,24 @@ public class BorrowingServiceImpl implements BorrowingService {
     public List<Map<String, Object>> getBorrowedBooksWithCount() {
         return borrowedBookRepository.findBooksWithBorrowCount();
     }
+
+    @Override
+    public List<PopularBookResponse> getPopularBooks(PopularityWindow window, int limit) {
+        if (limit < 1 || limit > popularTitles.capacity()) {
+            throw new ValidationException("Кількість книг має бути від 1 до " + popularTitles.capacity());
+        }
+        List<HeavyHitter> hits = popularTitles.top(window, limit);
+        Map<Long, Book> books = bookRepository.findAllById(hits.stream().map(HeavyHitter::key).toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+
+        // Видалені з каталогу книги пропускаємо, порядок за популярністю зберігається
+        List<PopularBookResponse> result = new ArrayList<>(hits.size());
+        for (HeavyHitter hit : hits) {
+            Book book = books.get(hit.key());
+            if (book != null) {
+                result.add(PopularBookResponse.from(book, hit.count()));
+            }
+        }
+        return result;
+    }
 }
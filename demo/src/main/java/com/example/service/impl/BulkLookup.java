@@ -0,0 +1,49 @@
+package com.example.service.impl;
+
+import com.example.dto.LookupResult;
+import com.example.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+final class BulkLookup {
+
+    private BulkLookup() {
+    }
+
+    // Один запит findAllById на кожні chunkSize унікальних ID; відповідь — у порядку запиту
+    static <T> List<LookupResult<T>> lookup(List<Long> ids, int maxIds, int chunkSize,
+                                            Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > maxIds) {
+            throw new ValidationException("Можна запитати не більше " + maxIds + " ID за раз");
+        }
+        for (Long id : ids) {
+            if (id == null) {
+                throw new ValidationException("Список ID не може містити порожніх значень");
+            }
+        }
+
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, T> loaded = new HashMap<>(unique.size() * 2);
+        for (int from = 0; from < unique.size(); from += chunkSize) {
+            List<Long> chunk = unique.subList(from, Math.min(from + chunkSize, unique.size()));
+            for (T item : loader.apply(chunk)) {
+                loaded.put(idOf.apply(item), item);
+            }
+        }
+
+        List<LookupResult<T>> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T item = loaded.get(id);
+            results.add(item != null ? LookupResult.found(id, item) : LookupResult.missing(id));
+        }
+        return results;
+    }
+}
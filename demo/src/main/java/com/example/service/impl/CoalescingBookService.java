@@ -0,0 +1,86 @@
+package com.example.service.impl;
+
+import com.example.dto.LookupResult;
+import com.example.entity.Book;
+import com.example.search.BookSearchHit;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.service.BookService;
+import com.example.util.SingleFlight;
+import com.example.util.TextNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+// Читання за однаковим ключем, що виконуються одночасно, йдуть у базу одним запитом
+@Service
+@Primary
+public class CoalescingBookService implements BookService {
+    private final BookService delegate;
+    private final SingleFlight singleFlight;
+
+    public CoalescingBookService(@Qualifier("bookServiceImpl") BookService delegate,
+                                 CatalogVersions catalogVersions,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${library.coalescing.timeout-ms:2000}") long timeoutMs) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight("books",
+                () -> catalogVersions.current(CatalogScope.BOOKS), timeoutMs, meterRegistry);
+    }
+
+    @Override
+    public Book createBook(Book book) {
+        return delegate.createBook(book);
+    }
+
+    @Override
+    public List<Book> getAllBooks() {
+        return singleFlight.execute("all", delegate::getAllBooks);
+    }
+
+    @Override
+    public Book getBookById(Long id) {
+        return singleFlight.execute("id:" + id, () -> delegate.getBookById(id));
+    }
+
+    @Override
+    public Book updateBook(Long id, Book book) {
+        return delegate.updateBook(id, book);
+    }
+
+    @Override
+    public void deleteBook(Long id) {
+        delegate.deleteBook(id);
+    }
+
+    @Override
+    public Optional<Book> findByTitle(String title) {
+        return singleFlight.execute("title:" + TextNormalizer.normalize(title), () -> delegate.findByTitle(title));
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author) {
+        return singleFlight.execute("author:" + TextNormalizer.normalize(author), () -> delegate.findByAuthor(author));
+    }
+
+    @Override
+    public Optional<Book> findByTitleAndAuthor(String title, String author) {
+        String key = "title-author:" + TextNormalizer.normalize(title) + '\u0000' + TextNormalizer.normalize(author);
+        return singleFlight.execute(key, () -> delegate.findByTitleAndAuthor(title, author));
+    }
+
+    @Override
+    public List<LookupResult<Book>> lookupBooks(List<Long> ids) {
+        return delegate.lookupBooks(ids);
+    }
+
+    @Override
+    public List<BookSearchHit> searchBooks(String query, int limit) {
+        return delegate.searchBooks(query, limit);
+    }
+}
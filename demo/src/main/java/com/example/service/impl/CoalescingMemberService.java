@@ -0,0 +1,69 @@
+package com.example.service.impl;
+
+import com.example.dto.LookupResult;
+import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.service.MemberService;
+import com.example.util.SingleFlight;
+import com.example.util.TextNormalizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Primary
+public class CoalescingMemberService implements MemberService {
+    private final MemberService delegate;
+    private final SingleFlight singleFlight;
+
+    public CoalescingMemberService(@Qualifier("memberServiceImpl") MemberService delegate,
+                                   CatalogVersions catalogVersions,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${library.coalescing.timeout-ms:2000}") long timeoutMs) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight("members",
+                () -> catalogVersions.current(CatalogScope.MEMBERS), timeoutMs, meterRegistry);
+    }
+
+    @Override
+    public Member createMember(Member member) {
+        return delegate.createMember(member);
+    }
+
+    @Override
+    public List<Member> getAllMembers() {
+        return singleFlight.execute("all", delegate::getAllMembers);
+    }
+
+    @Override
+    public Member getMemberById(Long id) {
+        return singleFlight.execute("id:" + id, () -> delegate.getMemberById(id));
+    }
+
+    @Override
+    public Member updateMember(Long id, Member member) {
+        return delegate.updateMember(id, member);
+    }
+
+    @Override
+    public void deleteMember(Long id) {
+        delegate.deleteMember(id);
+    }
+
+    @Override
+    public Page<Member> searchByName(String namePrefix, int page, int size) {
+        String key = "name:" + TextNormalizer.normalize(namePrefix) + ':' + page + ':' + size;
+        return singleFlight.execute(key, () -> delegate.searchByName(namePrefix, page, size));
+    }
+
+    @Override
+    public List<LookupResult<Member>> lookupMembers(List<Long> ids) {
+        return delegate.lookupMembers(ids);
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.service.impl;
+
+import com.example.bloom.CatalogKeyFilters;
+import com.example.dto.MemberDeleteReport;
+import com.example.dto.MemberImportReport;
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.exception.ValidationException;
+import com.example.readmodel.MemberLoansView;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowedBookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.MemberBulkService;
+import com.example.service.OutboxService;
+import com.example.util.AfterCommit;
+import com.example.validator.MemberValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MemberBulkServiceImpl implements MemberBulkService {
+    private static final String INSERT_MEMBER =
+            "insert into member (name, creation_date, name_key) values (?, ?, ?)";
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final BookRepository bookRepository;
+    private final BorrowedBookRepository borrowedBookRepository;
+    private final MemberValidator memberValidator;
+    private final OutboxService outboxService;
+    private final CatalogVersions catalogVersions;
+    private final CatalogKeyFilters catalogKeyFilters;
+    private final MemberLoansView memberLoansView;
+
+    @Value("${library.bulk.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${library.bulk.max-delete-ids:10000}")
+    private int maxDeleteIds;
+
+    // Записи читаються з потоку по одному, в пам'яті лише поточний пакет.
+    // Кожен пакет — окрема транзакція: помилка посеред імпорту не відкочує вже записані пакети
+    @Override
+    public MemberImportReport importMembers(Iterator<Member> members) {
+        long start = System.nanoTime();
+        long received = 0;
+        long imported = 0;
+        List<MemberImportReport.RowError> errors = new ArrayList<>();
+        List<Member> batch = new ArrayList<>(batchSize);
+        while (members.hasNext()) {
+            Member member = members.next();
+            received++;
+            String error = validate(member);
+            if (error != null) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new MemberImportReport.RowError(received, error));
+                }
+                continue;
+            }
+            // ID і дату створення задає сервер, як і для POST /api/members
+            batch.add(new Member(0, member.getName().trim(), null));
+            if (batch.size() == batchSize) {
+                imported += insertBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += insertBatch(batch);
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        MemberImportReport report = new MemberImportReport(received, imported, received - imported, errors,
+                millis, rowsPerSecond(imported, millis));
+        log.info("Імпорт учасників: {} з {} записів за {} мс ({} рядків/с)",
+                imported, received, millis, report.rowsPerSecond());
+        return report;
+    }
+
+    private String validate(Member member) {
+        if (member == null) {
+            return "Порожній запис";
+        }
+        Errors errors = new BeanPropertyBindingResult(member, "member");
+        memberValidator.validate(member, errors);
+        return errors.hasErrors()
+                ? errors.getAllErrors().stream()
+                        .map(DefaultMessageSourceResolvable::getDefaultMessage)
+                        .collect(Collectors.joining(", "))
+                : null;
+    }
+
+    private int insertBatch(List<Member> batch) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        return transactionTemplate.execute(status -> {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_MEMBER, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) throws SQLException {
+                            Member member = batch.get(i);
+                            statement.setString(1, member.getName());
+                            statement.setTimestamp(2, now);
+                            statement.setString(3, member.getNameKey());
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+
+            List<Map<String, Object>> generated = keys.getKeyList();
+            for (int i = 0; i < batch.size(); i++) {
+                Member member = batch.get(i);
+                member.setId(((Number) generated.get(i).values().iterator().next()).longValue());
+                member.setCreationDate(now);
+                // Як і для книг, ключ додається до коміту: відкат дасть лише хибне спрацювання
+                catalogKeyFilters.memberAdded(member);
+            }
+            catalogVersions.changed(CatalogScope.MEMBERS);
+            AfterCommit.run(() -> batch.forEach(member -> memberLoansView.memberSaved(member.getId(), member.getName())));
+            return batch.size();
+        });
+    }
+
+    // Учасники та їхні позичення видаляються пакетами операторів над множинами, без завантаження позичень.
+    // Порядок блокувань як у позиченні: спершу учасники, потім книги
+    @Transactional
+    @Override
+    public MemberDeleteReport deleteMembers(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Список ID не може бути порожнім");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new ValidationException("ID учасника не може бути порожнім");
+        }
+        if (ids.size() > maxDeleteIds) {
+            throw new ValidationException("Не більше " + maxDeleteIds + " ID за один запит");
+        }
+        long start = System.nanoTime();
+        List<Long> sorted = new ArrayList<>(new TreeSet<>(ids));
+        List<Long> deletedIds = new ArrayList<>();
+        Set<Long> restockedBookIds = new LinkedHashSet<>();
+        int loansClosed = 0;
+
+        for (int from = 0; from < sorted.size(); from += batchSize) {
+            List<Long> chunk = sorted.subList(from, Math.min(from + batchSize, sorted.size()));
+            List<Long> memberIds = memberRepository.findAllByIdForUpdate(chunk).stream().map(Member::getId).toList();
+            if (memberIds.isEmpty()) {
+                continue;
+            }
+            List<Long> bookIds = bookRepository.findBorrowedByMembersForUpdate(memberIds).stream()
+                    .map(Book::getId).toList();
+            if (!bookIds.isEmpty()) {
+                bookRepository.returnCopiesBorrowedBy(memberIds, bookIds);
+                loansClosed += borrowedBookRepository.deleteAllByMemberIdIn(memberIds);
+            }
+            memberRepository.deleteAllByIdIn(memberIds);
+            deletedIds.addAll(memberIds);
+            restockedBookIds.addAll(bookIds);
+        }
+
+        if (!deletedIds.isEmpty()) {
+            catalogKeyFilters.membersRemoved(deletedIds.size());
+            // Події про нову кількість примірників: по одній на книгу, а не на кожне закрите позичення
+            bookRepository.findAllById(restockedBookIds).forEach(outboxService::bookUpdated);
+            if (restockedBookIds.isEmpty()) {
+                catalogVersions.changed(CatalogScope.MEMBERS);
+            } else {
+                catalogVersions.changed(CatalogScope.MEMBERS, CatalogScope.LOANS, CatalogScope.BOOKS);
+            }
+            AfterCommit.run(() -> deletedIds.forEach(memberLoansView::memberDeleted));
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        MemberDeleteReport report = new MemberDeleteReport(ids.size(), deletedIds.size(), loansClosed,
+                restockedBookIds.size(), millis, rowsPerSecond(deletedIds.size() + loansClosed, millis));
+        log.info("Видалено учасників: {} з {}, закрито позичень: {} за {} мс ({} рядків/с)",
+                report.deleted(), report.requested(), loansClosed, millis, report.rowsPerSecond());
+        return report;
+    }
+
+    private static long rowsPerSecond(long rows, long millis) {
+        return millis == 0 ? rows : rows * 1000 / millis;
+    }
+}
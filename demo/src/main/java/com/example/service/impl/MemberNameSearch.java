@@ -0,0 +1,21 @@
+package com.example.service.impl;
+
+import com.example.exception.ValidationException;
+import com.example.util.TextNormalizer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+// Спільні правила пошуку учасників за префіксом імені: повні об'єкти й проєкції мають відхиляти однакові запити
+record MemberNameSearch(String prefix, PageRequest pageRequest) {
+
+    static MemberNameSearch of(String namePrefix, int page, int size, int maxPageSize) {
+        String prefix = TextNormalizer.normalize(namePrefix);
+        if (prefix == null || prefix.isEmpty()) {
+            throw new ValidationException("Ім'я для пошуку не може бути порожнім");
+        }
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new ValidationException("Розмір сторінки має бути від 1 до " + maxPageSize);
+        }
+        return new MemberNameSearch(prefix, PageRequest.of(page, size, Sort.by("nameKey", "id")));
+    }
+}
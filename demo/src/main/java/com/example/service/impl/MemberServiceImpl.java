@@ -1,19 +1,27 @@
 package com.example.service.impl;
 
+import com.example.bloom.CatalogKeyFilters;
+import com.example.dto.LookupResult;
 import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
 import com.example.exception.ValidationException;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.MemberRepository;
+import com.example.service.MemberBulkService;
 import com.example.service.MemberService;
+import com.example.util.AfterCommit;
 import com.example.validator.MemberValidator;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.DataBinder;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +29,19 @@ import java.util.stream.Collectors;
 public class MemberServiceImpl implements MemberService {
     private final MemberRepository memberRepository;
     private final MemberValidator memberValidator;
+    private final CatalogVersions catalogVersions;
+    private final CatalogKeyFilters catalogKeyFilters;
+    private final MemberLoansView memberLoansView;
+    private final MemberBulkService memberBulkService;
+
+    @Value("${library.lookup.max-ids:5000}")
+    private int maxLookupIds;
+
+    @Value("${library.lookup.chunk-size:1000}")
+    private int lookupChunkSize;
+
+    @Value("${library.search.max-page-size:100}")
+    private int maxPageSize;
 
     @Override
     public Member createMember(Member member) {
@@ -36,7 +57,12 @@ public class MemberServiceImpl implements MemberService {
         }
 
         member.setName(member.getName().trim());
-        return memberRepository.save(member);
+        Member saved = memberRepository.save(member);
+        // Без транзакції рядок уже закомічений, тож ключ додаємо після збереження
+        catalogKeyFilters.memberAdded(saved);
+        memberLoansView.memberSaved(saved.getId(), saved.getName());
+        catalogVersions.changed(CatalogScope.MEMBERS);
+        return saved;
     }
 
     @Override
@@ -55,17 +81,30 @@ public class MemberServiceImpl implements MemberService {
     public Member updateMember(Long id, Member memberDetails) {
         Member currentMember = getMemberById(id);
         currentMember.setName(memberDetails.getName().trim());
-        return memberRepository.save(currentMember);
+        catalogKeyFilters.memberRemoved();
+        catalogKeyFilters.memberAdded(currentMember);
+        Member saved = memberRepository.save(currentMember);
+        String name = saved.getName();
+        AfterCommit.run(() -> memberLoansView.memberSaved(id, name));
+        catalogVersions.changed(CatalogScope.MEMBERS);
+        return saved;
     }
 
+    // Позичення учасника закриваються, а примірники повертаються на полиці разом із видаленням
     @Override
     public void deleteMember(Long id) {
         Member member = getMemberById(id);
-        memberRepository.delete(member);
+        memberBulkService.deleteMembers(List.of(member.getId()));
+    }
+
+    @Override
+    public Page<Member> searchByName(String namePrefix, int page, int size) {
+        MemberNameSearch search = MemberNameSearch.of(namePrefix, page, size, maxPageSize);
+        return memberRepository.findByNameKeyStartingWith(search.prefix(), search.pageRequest());
     }
 
     @Override
-    public Optional<Member> findByName(String name) {
-        return Optional.ofNullable(memberRepository.findByName(name.trim()));
+    public List<LookupResult<Member>> lookupMembers(List<Long> ids) {
+        return BulkLookup.lookup(ids, maxLookupIds, lookupChunkSize, memberRepository::findAllById, Member::getId);
     }
 }
\ No newline at end of file
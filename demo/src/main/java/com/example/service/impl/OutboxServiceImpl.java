@@ -0,0 +1,63 @@
+package com.example.service.impl;
+
+import com.example.entity.Book;
+import com.example.entity.BorrowedBook;
+import com.example.entity.OutboxEvent;
+import com.example.event.LibraryEventType;
+import com.example.repository.OutboxEventRepository;
+import com.example.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Події пишуться в транзакції виклику, тож потрапляють в outbox тільки разом зі зміною даних
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Override
+    public void bookBorrowed(BorrowedBook borrowedBook) {
+        save(LibraryEventType.BOOK_BORROWED, borrowedBook);
+    }
+
+    @Override
+    public void bookReturned(BorrowedBook borrowedBook) {
+        save(LibraryEventType.BOOK_RETURNED, borrowedBook);
+    }
+
+    @Override
+    public void bookCreated(Book book) {
+        save(LibraryEventType.BOOK_CREATED, book, book.getCopiesAmount());
+    }
+
+    @Override
+    public void bookUpdated(Book book) {
+        save(LibraryEventType.BOOK_UPDATED, book, book.getCopiesAmount());
+    }
+
+    @Override
+    public void bookDeleted(Book book) {
+        save(LibraryEventType.BOOK_DELETED, book, 0);
+    }
+
+    private void save(LibraryEventType type, BorrowedBook borrowedBook) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setBookId(borrowedBook.getBook().getId());
+        event.setMemberId(borrowedBook.getMember().getId());
+        event.setBorrowingId(borrowedBook.getId());
+        event.setCopiesAmount(borrowedBook.getBook().getCopiesAmount());
+        outboxEventRepository.save(event);
+    }
+
+    private void save(LibraryEventType type, Book book, int copiesAmount) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type);
+        event.setBookId(book.getId());
+        event.setCopiesAmount(copiesAmount);
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.service.impl;
+
+import com.example.entity.Book;
+import com.example.entity.BorrowedBook;
+import com.example.entity.Member;
+import com.example.projection.ProjectionCatalog;
+import com.example.projection.ProjectionQueries;
+import com.example.projection.SparseRow;
+import com.example.service.ProjectionService;
+import com.example.util.TextNormalizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class ProjectionServiceImpl implements ProjectionService {
+    private static final ProjectionCatalog<Book> BOOK_FIELDS = new ProjectionCatalog<Book>()
+            .field("id", root -> root.get("id"))
+            .field("title", root -> root.get("title"))
+            .field("author", root -> root.get("author"))
+            .field("copiesAmount", root -> root.get("copiesAmount"));
+
+    private static final ProjectionCatalog<Member> MEMBER_FIELDS = new ProjectionCatalog<Member>()
+            .field("id", root -> root.get("id"))
+            .field("name", root -> root.get("name"))
+            .field("creationDate", root -> root.get("creationDate"));
+
+    private static final ProjectionCatalog<BorrowedBook> LOAN_FIELDS = new ProjectionCatalog<BorrowedBook>()
+            .field("id", root -> root.get("id"))
+            .field("memberId", root -> root.get("member").get("id"))
+            .field("memberName", root -> root.get("member").get("name"))
+            .field("bookId", root -> root.get("book").get("id"))
+            .field("bookTitle", root -> root.get("book").get("title"))
+            .field("bookAuthor", root -> root.get("book").get("author"));
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final ProjectionQueries projectionQueries;
+
+    @Value("${library.search.max-page-size:100}")
+    private int maxPageSize;
+
+    @Override
+    public List<SparseRow> getAllBooks(String fields) {
+        return projectionQueries.list(Book.class, BOOK_FIELDS.resolve(fields), null, BY_ID);
+    }
+
+    @Override
+    public List<SparseRow> findBooksByAuthor(String author, String fields) {
+        String authorKey = TextNormalizer.normalize(author);
+        Specification<Book> byAuthor = (root, query, cb) -> cb.equal(root.get("authorKey"), authorKey);
+        return projectionQueries.list(Book.class, BOOK_FIELDS.resolve(fields), byAuthor, BY_ID);
+    }
+
+    @Override
+    public List<SparseRow> getAllMembers(String fields) {
+        return projectionQueries.list(Member.class, MEMBER_FIELDS.resolve(fields), null, BY_ID);
+    }
+
+    @Override
+    public Page<SparseRow> searchMembersByName(String namePrefix, int page, int size, String fields) {
+        MemberNameSearch search = MemberNameSearch.of(namePrefix, page, size, maxPageSize);
+        String pattern = EscapeCharacter.DEFAULT.escape(search.prefix()) + "%";
+        Specification<Member> byPrefix = (root, query, cb) ->
+                cb.like(root.get("nameKey"), pattern, EscapeCharacter.DEFAULT.getEscapeCharacter());
+        return projectionQueries.page(Member.class, MEMBER_FIELDS.resolve(fields), byPrefix, search.pageRequest());
+    }
+
+    @Override
+    public List<SparseRow> getBorrowedBooksByMemberName(String memberName, String fields) {
+        String nameKey = TextNormalizer.normalize(memberName);
+        Specification<BorrowedBook> byMember = (root, query, cb) -> cb.equal(root.get("member").get("nameKey"), nameKey);
+        return projectionQueries.list(BorrowedBook.class, LOAN_FIELDS.resolve(fields), byMember, BY_ID);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.slowquery;
+
+// Форма запиту — SQL із літералами, заміненими на ?. План порожній, доки його не отримано
+public record QueryPlan(String shape, long occurrences, double maxMillis, String plan) {
+}
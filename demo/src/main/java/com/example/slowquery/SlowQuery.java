@@ -0,0 +1,9 @@
+package com.example.slowquery;
+
+import java.time.Instant;
+import java.util.List;
+
+// Виконання, повільніше за поріг. Для пакетів параметри — останнього рядка пакета
+public record SlowQuery(long id, Instant at, double millis, String sql, List<String> parameters, int batchSize,
+                        String caller, String thread) {
+}
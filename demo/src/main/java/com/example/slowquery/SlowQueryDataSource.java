@@ -0,0 +1,166 @@
+package com.example.slowquery;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// JDBC-проксі без сторонніх залежностей: з'єднання віддає обгорнуті Statement/PreparedStatement,
+// які запам'ятовують параметри і заміряють execute*. Час executeQuery не включає читання ResultSet
+public class SlowQueryDataSource extends DelegatingDataSource {
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final Supplier<SlowQueryLog> slowQueryLogSupplier;
+    private volatile SlowQueryLog slowQueryLog;
+
+    public SlowQueryDataSource(DataSource target, Supplier<SlowQueryLog> slowQueryLog) {
+        super(target);
+        this.slowQueryLogSupplier = slowQueryLog;
+    }
+
+    private SlowQueryLog slowQueryLog() {
+        SlowQueryLog log = slowQueryLog;
+        if (log == null) {
+            log = slowQueryLogSupplier.get();
+            slowQueryLog = log;
+        }
+        return log;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                    return wrap(PreparedStatement.class, (Statement) invokeTarget(target, method, args),
+                            (Connection) proxy, (String) args[0]);
+                case "createStatement":
+                    return wrap(Statement.class, (Statement) invokeTarget(target, method, args),
+                            (Connection) proxy, null);
+                default:
+                    return invokeTarget(target, method, args);
+            }
+        }
+
+        private Object wrap(Class<? extends Statement> type, Statement statement, Connection connection, String sql) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler(statement, connection, sql));
+        }
+    }
+
+    // Для Statement SQL береться з аргументу execute*, для PreparedStatement — з prepareStatement
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection connection;
+        private final String sql;
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+        private int batchSize;
+
+        private StatementHandler(Statement target, Connection connection, String sql) {
+            this.target = target;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (method.getDeclaringClass() == PreparedStatement.class && name.startsWith("set")
+                    && args != null && args.length >= 2) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else {
+                switch (name) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "getConnection":
+                        return connection;
+                    case "clearParameters":
+                        parameterCount = 0;
+                        break;
+                    case "addBatch":
+                        batchSize++;
+                        break;
+                    case "clearBatch":
+                        batchSize = 0;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return invokeTarget(target, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String executed = sql != null ? sql : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (executed != null) {
+                    slowQueryLog().record(obtainTargetDataSource(), executed, parameters, parameterCount,
+                            batchSize, elapsed);
+                }
+                if (method.getName().endsWith("Batch")) {
+                    batchSize = 0;
+                }
+            }
+        }
+
+        private void bind(int index, Object value) {
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.slowquery;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Обгортає пул з'єднань, тож заміряються і запити Hibernate, і JdbcTemplate.
+// Журнал береться ліниво: пост-процесори створюються раніше за звичайні біни
+@Component
+@ConditionalOnProperty(name = "library.slow-query.enabled", havingValue = "true")
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public SlowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+            return new SlowQueryDataSource(dataSource, slowQueryLog::getObject);
+        }
+        return bean;
+    }
+}
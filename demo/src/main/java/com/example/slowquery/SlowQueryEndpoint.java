@@ -0,0 +1,22 @@
+package com.example.slowquery;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/slowqueries — останні повільні запити і плани їхніх форм. Лише читання і не відкритий
+// через HTTP за замовчуванням: кінцеві точки actuator не захищені автентифікацією
+@Component
+@Endpoint(id = "slowqueries")
+@ConditionalOnProperty(name = "library.slow-query.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+    private final SlowQueryLog slowQueryLog;
+
+    @ReadOperation
+    public SlowQueryReport report() {
+        return slowQueryLog.report();
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.slowquery;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Кільцевий буфер повільних запитів і план для кожної нової форми запиту.
+// План знімається один раз в окремому потоці з власного з'єднання, щоб не затримувати і без того повільний запит
+@Slf4j
+@Component
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryLog {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final String APP_PACKAGE = "com.example.";
+    private static final String SERVICE_PACKAGE = "com.example.service.";
+
+    private final SlowQueryProperties properties;
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowQuery> entries;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor planner;
+
+    public SlowQueryLog(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.thresholdNanos = properties.threshold().toNanos();
+        this.entries = new AtomicReferenceArray<>(properties.capacity());
+        // Черга обмежена: під час шторму повільних запитів зайві плани відкидаються і знімаються наступного разу
+        this.planner = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(32), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        planner.shutdownNow();
+    }
+
+    public void record(DataSource dataSource, String sql, Object[] parameters, int parameterCount,
+                       int batchSize, long nanos) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        String normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+        double millis = nanos / 1e6;
+        List<String> shown = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            shown.add(describe(parameters[i]));
+        }
+        String key = shape(normalized);
+        long id = sequence.incrementAndGet();
+        String caller = caller();
+        // Літерали SQL, зібраного рядком, знеособлюються разом із параметрами
+        entries.set((int) ((id - 1) % entries.length()), new SlowQuery(id, Instant.now(), millis,
+                properties.captureParameters() ? normalized : key, shown,
+                batchSize, caller, Thread.currentThread().getName()));
+
+        // Параметри (імена учасників тощо) не потрапляють у журнал, а в буфері за замовчуванням знеособлені.
+        // WARN — один раз на нову форму запиту, щоб імпорт чи звіт не засипали журнал однаковими рядками
+        Shape shape = shapes.get(key);
+        boolean firstOfShape = false;
+        if (shape == null && shapes.size() < properties.maxShapes()) {
+            Shape created = new Shape();
+            shape = shapes.computeIfAbsent(key, k -> created);
+            firstOfShape = shape == created;
+        }
+        if (firstOfShape) {
+            log.warn("Повільний запит нової форми, {} мс у {}: {}", String.format(Locale.ROOT, "%.1f", millis), caller, key);
+        } else if (log.isDebugEnabled()) {
+            log.debug("Повільний запит {} мс у {}: {}", String.format(Locale.ROOT, "%.1f", millis), caller, key);
+        }
+        if (shape == null) {
+            return;
+        }
+        shape.occurrences.increment();
+        shape.maxNanos.accumulate(nanos);
+        if (properties.explain() && shape.planRequested.compareAndSet(false, true)) {
+            Object[] bound = Arrays.copyOf(parameters, parameterCount);
+            Shape target = shape;
+            try {
+                planner.execute(() -> target.plan = explain(dataSource, normalized, bound));
+            } catch (RejectedExecutionException e) {
+                shape.planRequested.set(false);
+            }
+        }
+    }
+
+    public SlowQueryReport report() {
+        List<SlowQuery> recent = new ArrayList<>(entries.length());
+        for (int i = 0; i < entries.length(); i++) {
+            SlowQuery entry = entries.get(i);
+            if (entry != null) {
+                recent.add(entry);
+            }
+        }
+        recent.sort(Comparator.comparingLong(SlowQuery::id).reversed());
+        List<QueryPlan> plans = shapes.entrySet().stream()
+                .map(entry -> new QueryPlan(entry.getKey(), entry.getValue().occurrences.sum(),
+                        entry.getValue().maxNanos.get() / 1e6, entry.getValue().plan))
+                .sorted(Comparator.comparingDouble(QueryPlan::maxMillis).reversed())
+                .toList();
+        return new SlowQueryReport(properties.threshold().toMillis(), sequence.get(), recent, plans);
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        shapes.clear();
+    }
+
+    // Запити Hibernate і JdbcTemplate вже параметризовані; літерали замінюються для SQL, зібраного рядком
+    static String shape(String sql) {
+        String withoutStrings = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMBER_LITERAL.matcher(withoutStrings).replaceAll("?");
+    }
+
+    private String describe(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "byte[" + bytes.length + "]";
+        }
+        if (value instanceof InputStream || value instanceof Reader) {
+            return value.getClass().getSimpleName();
+        }
+        if (!properties.captureParameters()) {
+            return value instanceof CharSequence text
+                    ? value.getClass().getSimpleName() + "[" + text.length() + "]"
+                    : value.getClass().getSimpleName();
+        }
+        String text = String.valueOf(value);
+        return text.length() > properties.maxParameterLength()
+                ? text.substring(0, properties.maxParameterLength()) + "…"
+                : text;
+    }
+
+    // Репозиторії — це проксі без власних кадрів стеку, тож шукаємо найближчий метод сервісу,
+    // а якщо запит виконано поза сервісами (завантажувачі, звіти) — найближчий клас застосунку
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> {
+            StackWalker.StackFrame application = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APP_PACKAGE) || className.startsWith(SlowQueryLog.class.getPackageName())
+                        || className.contains("$$")) {
+                    continue;
+                }
+                if (className.startsWith(SERVICE_PACKAGE)) {
+                    return frameName(frame);
+                }
+                if (application == null) {
+                    application = frame;
+                }
+            }
+            return application != null ? frameName(application) : null;
+        });
+    }
+
+    private static String frameName(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName()
+                + ":" + frame.getLineNumber();
+    }
+
+    // EXPLAIN ANALYZE у H2 виконує запит, тож для змін даних і SELECT ... FOR UPDATE береться лише EXPLAIN,
+    // а транзакція в будь-якому разі відкочується
+    private static String explain(DataSource dataSource, String sql, Object[] parameters) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        boolean analyze = (lower.startsWith("select") || lower.startsWith("with")) && !lower.contains(" for update");
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                return "План доступний лише для H2";
+            }
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement((analyze ? "EXPLAIN ANALYZE " : "EXPLAIN ") + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString().strip();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Не вдалося отримати план для {}", sql, e);
+            return "Не вдалося отримати план: " + e.getMessage();
+        }
+    }
+
+    private static final class Shape {
+        private final LongAdder occurrences = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicBoolean planRequested = new AtomicBoolean();
+        private volatile String plan;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.slowquery;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("library.slow-query")
+public record SlowQueryProperties(
+        @DefaultValue("200ms") Duration threshold,
+        // Розмір кільцевого буфера: нові записи витісняють найстаріші
+        @DefaultValue("200") int capacity,
+        // Скільки різних форм запитів пам'ятати разом із планами
+        @DefaultValue("500") int maxShapes,
+        @DefaultValue("true") boolean explain,
+        @DefaultValue("200") int maxParameterLength,
+        // Без цього параметри показуються лише типом і довжиною: серед них імена учасників
+        @DefaultValue("false") boolean captureParameters
+) {
+}
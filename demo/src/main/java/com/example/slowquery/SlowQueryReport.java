@@ -0,0 +1,6 @@
+package com.example.slowquery;
+
+import java.util.List;
+
+public record SlowQueryReport(long thresholdMillis, long recorded, List<SlowQuery> recent, List<QueryPlan> plans) {
+}
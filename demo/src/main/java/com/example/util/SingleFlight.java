@@ -0,0 +1,93 @@
+package com.example.util;
+
+import com.example.exception.CoalescedCallTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Одночасні виклики з однаковим ключем чекають на результат першого замість власного запиту.
+// Поколінням є лічильник закомічених змін: виклик не приєднується до запиту, що почався до зміни,
+// яку цей виклик уже міг побачити (інакше відповідь отримала б новий ETag зі старими даними)
+public class SingleFlight {
+    private final Map<Object, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongSupplier generation;
+    private final long timeoutMs;
+    private final Counter calls;
+    private final Counter collapsed;
+
+    public SingleFlight(String name, long timeoutMs, MeterRegistry meterRegistry) {
+        this(name, () -> 0, timeoutMs, meterRegistry);
+    }
+
+    public SingleFlight(String name, LongSupplier generation, long timeoutMs, MeterRegistry meterRegistry) {
+        this.generation = generation;
+        this.timeoutMs = timeoutMs;
+        this.calls = meterRegistry.counter("library.coalescing.calls", "name", name);
+        this.collapsed = meterRegistry.counter("library.coalescing.collapsed", "name", name);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        calls.increment();
+        Flight own = new Flight(generation.getAsLong(), new CompletableFuture<>());
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, own);
+            if (existing == null) {
+                break;
+            }
+            if (existing.generation() >= own.generation()) {
+                collapsed.increment();
+                return (T) await(existing.result());
+            }
+            // Запит почався до останньої зміни: наступні виклики приєднуються вже до нашого
+            if (inFlight.replace(key, existing, own)) {
+                break;
+            }
+        }
+
+        try {
+            T result = loader.get();
+            own.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new CoalescedCallTimeoutException(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CoalescedCallTimeoutException(timeoutMs);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private record Flight(long generation, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class TextNormalizer {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Український апостроф набирають різними символами: ' ’ ʼ ` ´ ‘
+    private static final Pattern APOSTROPHES = Pattern.compile("[’ʼ`´‘]");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}']+");
+
+    private TextNormalizer() {
+    }
+
+    // Обрізані пробіли, єдиний апостроф, нижній регістр (включно з кирилицею) та один пробіл між словами
+    public static String normalize(String text) {
+        if (text == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        normalized = APOSTROPHES.matcher(normalized).replaceAll("'");
+        normalized = normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    // Токени для пошуку: без апострофів, "ґ" збігається з "г", бо її часто набирають як "г"
+    public static List<String> tokens(String text) {
+        String normalized = normalize(text);
+        if (normalized == null || normalized.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATORS.split(normalized)) {
+            token = token.replace("'", "").replace('ґ', 'г');
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
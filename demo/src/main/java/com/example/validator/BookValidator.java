@@ -1,6 +1,7 @@
 package com.example.validator;
 
 import com.example.entity.Book;
+import com.example.jfr.ValidationEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
@@ -16,8 +17,13 @@ public class BookValidator implements Validator {
 
     @Override
     public void validate(Object target, Errors errors) {
-        Book book = (Book) target;
+        ValidationEvent event = new ValidationEvent();
+        event.start(getClass());
+        validateBook((Book) target, errors);
+        event.finish(errors);
+    }
 
+    private void validateBook(Book book, Errors errors) {
         ValidationUtils.rejectIfEmptyOrWhitespace(errors, "title", "field.required", "Назва книги є обов'язковою");
         ValidationUtils.rejectIfEmptyOrWhitespace(errors, "author", "field.required", "Ім'я автора є обов'язковим");
 
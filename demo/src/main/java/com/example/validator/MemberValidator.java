@@ -2,6 +2,7 @@
 package com.example.validator;
 
 import com.example.entity.Member;
+import com.example.jfr.ValidationEvent;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.Errors;
 import org.springframework.validation.ValidationUtils;
@@ -17,7 +18,10 @@ public class MemberValidator implements Validator {
 
     @Override
     public void validate(Object target, Errors errors) {
+        ValidationEvent event = new ValidationEvent();
+        event.start(getClass());
         ValidationUtils.rejectIfEmptyOrWhitespace(errors, "name", "field.required", 
             "Ім'я користувача є обов'язковим");
+        event.finish(errors);
     }
 }
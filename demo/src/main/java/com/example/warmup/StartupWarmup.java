@@ -0,0 +1,234 @@
+package com.example.warmup;
+
+import com.example.analytics.PopularityWindow;
+import com.example.dto.LookupResult;
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.repository.BorrowedBookRepository;
+import com.example.service.BookService;
+import com.example.service.BorrowingService;
+import com.example.service.MemberService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Останній слухач ApplicationReadyEvent: фільтри Блума, пошуковий індекс і модель позичень уже збудовані
+// їхніми завантажувачами, тож прогріваються справжні шляхи читання. Spring Boot переводить readiness
+// в ACCEPTING_TRAFFIC лише після всіх слухачів, тобто після прогріву (або вичерпання бюджету)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "library.warmup.enabled", havingValue = "true")
+@EnableConfigurationProperties(WarmupProperties.class)
+@RequiredArgsConstructor
+public class StartupWarmup {
+    private final BookService bookService;
+    private final MemberService memberService;
+    private final BorrowingService borrowingService;
+    private final BorrowedBookRepository borrowedBookRepository;
+    private final WarmupProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile WarmupReport report;
+
+    public WarmupReport report() {
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReady() {
+        report = warmUp();
+        log.info("Прогрів {} за {} мс (бюджет {} мс)", report.status(), report.millis(), report.budgetMillis());
+        for (WarmupReport.Step step : report.steps()) {
+            log.info("  {}: {} викликів, {} записів, {} мс{}", step.name(), step.calls(), step.items(), step.millis(),
+                    step.error() != null ? ", помилка: " + step.error() : step.completed() ? "" : ", перервано");
+        }
+    }
+
+    public WarmupReport warmUp() {
+        // Явно фіксуємо стан для проби, яку вже опитують під час старту
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long deadline = start + properties.budget().toNanos();
+        List<StepProgress> steps = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.parallelism(),
+                Thread.ofPlatform().name("warmup-", 0).daemon().factory());
+        try {
+            // 1. Гарячий набір: книги та учасники з найбільшою кількістю позичень на руках, пакетами паралельно.
+            // Кешів тут немає — це лише записи, якими далі викликаються шляхи читання
+            Queue<Book> books = new ConcurrentLinkedQueue<>();
+            Queue<Member> members = new ConcurrentLinkedQueue<>();
+            StepProgress hotBooks = new StepProgress("hot-books");
+            StepProgress hotMembers = new StepProgress("hot-members");
+            steps.add(hotBooks);
+            steps.add(hotMembers);
+            List<Callable<Void>> preload = new ArrayList<>();
+            preload.addAll(chunks(hotBooks, deadline,
+                    borrowedBookRepository.findMostBorrowedBookIds(PageRequest.of(0, properties.hotBooks())),
+                    bookService::lookupBooks, books));
+            preload.addAll(chunks(hotMembers, deadline,
+                    borrowedBookRepository.findMostActiveMemberIds(PageRequest.of(0, properties.hotMembers())),
+                    memberService::lookupMembers, members));
+            runPhase(executor, preload, deadline);
+
+            // 2. Синтетичні виклики шляхів читання для JIT; ті самі гарячі записи, що й у трафіку
+            List<Book> hotBookList = List.copyOf(books);
+            List<Member> hotMemberList = List.copyOf(members);
+            int iterations = properties.iterations();
+            StepProgress bookReads = new StepProgress("book-reads");
+            StepProgress memberReads = new StepProgress("member-reads");
+            StepProgress loanReads = new StepProgress("borrowing-reads");
+            StepProgress searches = new StepProgress("book-search");
+            StepProgress memberLoans = new StepProgress("member-loans");
+            StepProgress aggregates = new StepProgress("borrowing-aggregates");
+            steps.addAll(List.of(bookReads, memberReads, loanReads, searches, memberLoans, aggregates));
+
+            List<Callable<Void>> reads = new ArrayList<>();
+            if (!hotBookList.isEmpty()) {
+                reads.add(bookReads.task(iterations, deadline, i -> {
+                    Book book = hotBookList.get(i % hotBookList.size());
+                    bookService.getBookById(book.getId());
+                    return 1 + bookService.findByTitle(book.getTitle()).stream().count()
+                            + bookService.findByAuthor(book.getAuthor()).size();
+                }));
+                // Пошуковий індекс у пам'яті: запит з назви гарячої книги
+                reads.add(searches.task(iterations, deadline, i -> bookService
+                        .searchBooks(hotBookList.get(i % hotBookList.size()).getTitle(), 20).size()));
+            }
+            if (!hotMemberList.isEmpty()) {
+                reads.add(memberReads.task(iterations, deadline, i -> {
+                    Member member = hotMemberList.get(i % hotMemberList.size());
+                    memberService.getMemberById(member.getId());
+                    String prefix = member.getName().substring(0, Math.min(3, member.getName().length()));
+                    return 1 + memberService.searchByName(prefix, 0, 20).getNumberOfElements();
+                }));
+                reads.add(loanReads.task(iterations, deadline, i -> borrowingService
+                        .getBorrowedBooksByMemberName(hotMemberList.get(i % hotMemberList.size()).getName()).size()));
+                // Модель позичень у пам'яті; до її завантаження виклик кидав би WARMING_UP
+                reads.add(memberLoans.task(iterations, deadline, i -> borrowingService
+                        .getMemberLoans(hotMemberList.get(i % hotMemberList.size()).getId()).loanCount()));
+            }
+            reads.add(aggregates.task(properties.aggregateIterations(), deadline, i ->
+                    borrowingService.getAllBorrowedBookNames().size()
+                            + borrowingService.getBorrowedBooksWithCount().size()
+                            + borrowingService.getPopularBooks(PopularityWindow.DAY, 10).size()));
+            runPhase(executor, reads, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<WarmupReport.Step> result = steps.stream().map(StepProgress::toStep).toList();
+        WarmupReport.Status status = result.stream().anyMatch(step -> step.error() != null)
+                ? WarmupReport.Status.FAILED
+                : result.stream().allMatch(WarmupReport.Step::completed)
+                ? WarmupReport.Status.COMPLETED
+                : WarmupReport.Status.BUDGET_EXCEEDED;
+        return new WarmupReport(status, startedAt, (System.nanoTime() - start) / 1_000_000,
+                properties.budget().toMillis(), result);
+    }
+
+    private <T> List<Callable<Void>> chunks(StepProgress step, long deadline, List<Long> ids,
+                                            Function<List<Long>, List<LookupResult<T>>> lookup,
+                                            Queue<T> loaded) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += properties.chunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(from + properties.chunkSize(), ids.size()));
+            tasks.add(step.task(1, deadline, i -> {
+                long found = 0;
+                for (LookupResult<T> result : lookup.apply(chunk)) {
+                    if (result.found()) {
+                        loaded.add(result.item());
+                        found++;
+                    }
+                }
+                return found;
+            }));
+        }
+        return tasks;
+    }
+
+    // Завдання, що не встигли до дедлайну, скасовуються; кожне також саме перевіряє дедлайн між викликами
+    private static void runPhase(ExecutorService executor, List<Callable<Void>> tasks, long deadline)
+            throws InterruptedException {
+        long remaining = deadline - System.nanoTime();
+        if (!tasks.isEmpty() && remaining > 0) {
+            executor.invokeAll(tasks, remaining, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarmupCall {
+        long call(int iteration);
+    }
+
+    private static final class StepProgress {
+        private final String name;
+        private final long started = System.nanoTime();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile long finished;
+        private volatile String error;
+
+        private StepProgress(String name) {
+            this.name = name;
+        }
+
+        Callable<Void> task(int iterations, long deadline, WarmupCall call) {
+            pending.incrementAndGet();
+            return () -> {
+                try {
+                    for (int i = 0; i < iterations; i++) {
+                        if (System.nanoTime() >= deadline || error != null) {
+                            return null;
+                        }
+                        items.addAndGet(call.call(i));
+                        calls.incrementAndGet();
+                    }
+                    if (pending.decrementAndGet() == 0) {
+                        finished = System.nanoTime();
+                    }
+                } catch (RuntimeException e) {
+                    // Переривання після дедлайну — не помилка, а вичерпаний бюджет
+                    if (System.nanoTime() < deadline) {
+                        error = e.toString();
+                    }
+                }
+                return null;
+            };
+        }
+
+        WarmupReport.Step toStep() {
+            boolean completed = pending.get() == 0 && error == null;
+            long end = completed ? (finished != 0 ? finished : started) : System.nanoTime();
+            return new WarmupReport.Step(name, calls.get(), items.get(), (end - started) / 1_000_000, completed, error);
+        }
+    }
+}
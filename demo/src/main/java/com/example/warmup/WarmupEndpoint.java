@@ -0,0 +1,21 @@
+package com.example.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/warmup — звіт останнього прогріву; до його завершення відповідь порожня (404)
+@Component
+@Endpoint(id = "warmup")
+@ConditionalOnProperty(name = "library.warmup.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class WarmupEndpoint {
+    private final StartupWarmup startupWarmup;
+
+    @ReadOperation
+    public WarmupReport report() {
+        return startupWarmup.report();
+    }
+}
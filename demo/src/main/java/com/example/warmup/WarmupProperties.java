@@ -0,0 +1,21 @@
+package com.example.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("library.warmup")
+public record WarmupProperties(
+        // Загальний бюджет: після нього незавершені кроки зупиняються, і застосунок однаково стає готовим
+        @DefaultValue("30s") Duration budget,
+        @DefaultValue("1000") int hotBooks,
+        @DefaultValue("1000") int hotMembers,
+        @DefaultValue("200") int chunkSize,
+        @DefaultValue("4") int parallelism,
+        // Кількість синтетичних викликів на шлях читання, щоб JIT встиг скомпілювати гарячі методи
+        @DefaultValue("2000") int iterations,
+        // Агрегати сканують усі позичення, тому для них достатньо кількох викликів
+        @DefaultValue("20") int aggregateIterations
+) {
+}
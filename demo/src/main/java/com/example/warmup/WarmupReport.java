@@ -0,0 +1,16 @@
+package com.example.warmup;
+
+import java.time.Instant;
+import java.util.List;
+
+public record WarmupReport(Status status, Instant startedAt, long millis, long budgetMillis, List<Step> steps) {
+
+    public enum Status {
+        COMPLETED,
+        BUDGET_EXCEEDED,
+        FAILED
+    }
+
+    public record Step(String name, long calls, long items, long millis, boolean completed, String error) {
+    }
+}
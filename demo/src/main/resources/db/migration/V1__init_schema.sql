@@ -0,0 +1,59 @@
+-- Схема, яку раніше створював ddl-auto=update; у профілі prod Hibernate її лише перевіряє
+create table book (
+    id bigint generated by default as identity,
+    author varchar(255),
+    author_key varchar(255),
+    copies_amount integer not null,
+    title varchar(255),
+    title_key varchar(255),
+    primary key (id)
+);
+
+create table member (
+    id bigint generated by default as identity,
+    creation_date timestamp(6),
+    name varchar(255),
+    name_key varchar(255),
+    primary key (id)
+);
+
+create table borrowed_book (
+    id bigint generated by default as identity,
+    book_id bigint,
+    member_id bigint,
+    primary key (id),
+    constraint fk_borrowed_book_book foreign key (book_id) references book,
+    constraint fk_borrowed_book_member foreign key (member_id) references member
+);
+
+create table outbox_event (
+    id bigint generated by default as identity,
+    book_id bigint,
+    borrowing_id bigint,
+    copies_amount integer,
+    created_at timestamp(6) with time zone not null,
+    event_type enum ('BOOK_BORROWED', 'BOOK_CREATED', 'BOOK_DELETED', 'BOOK_RETURNED', 'BOOK_UPDATED') not null,
+    member_id bigint,
+    attempts integer default 0 not null,
+    next_attempt_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+create table outbox_dead_letter (
+    id bigint generated by default as identity,
+    event_id bigint not null,
+    book_id bigint,
+    borrowing_id bigint,
+    copies_amount integer,
+    created_at timestamp(6) with time zone not null,
+    event_type enum ('BOOK_BORROWED', 'BOOK_CREATED', 'BOOK_DELETED', 'BOOK_RETURNED', 'BOOK_UPDATED') not null,
+    member_id bigint,
+    attempts integer not null,
+    last_error varchar(1000),
+    failed_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create index idx_book_title_author_key on book (title_key, author_key);
+create index idx_book_author_key on book (author_key);
+create index idx_member_name_key on member (name_key);
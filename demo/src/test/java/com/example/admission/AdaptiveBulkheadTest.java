@@ -0,0 +1,99 @@
+package com.example.admission;
+
+import com.example.exception.BulkheadRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBulkheadTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(1);
+
+    private static AdaptiveBulkhead bulkhead(int initialLimit, int maxQueue, Duration queueTimeout) {
+        return new AdaptiveBulkhead(EndpointClass.HEAVY_READ, new BulkheadProperties.Settings(
+                initialLimit, 1, 10, maxQueue, queueTimeout, Duration.ofMillis(100), Duration.ofSeconds(3)));
+    }
+
+    @Test
+    void acquire_queueFull_rejectsImmediately() {
+        AdaptiveBulkhead bulkhead = bulkhead(1, 0, Duration.ofSeconds(10));
+        bulkhead.acquire();
+
+        BulkheadRejectedException ex = assertThrows(BulkheadRejectedException.class, bulkhead::acquire);
+
+        assertEquals(EndpointClass.HEAVY_READ, ex.getEndpointClass());
+        assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void acquire_queuedLongerThanTimeout_isRejected() {
+        AdaptiveBulkhead bulkhead = bulkhead(1, 5, Duration.ofMillis(50));
+        bulkhead.acquire();
+
+        assertThrows(BulkheadRejectedException.class, bulkhead::acquire);
+        assertEquals(0, bulkhead.queued());
+        assertEquals(1, bulkhead.inFlight());
+    }
+
+    @Test
+    void acquire_waitsForReleasedPermit() throws InterruptedException {
+        AdaptiveBulkhead bulkhead = bulkhead(1, 5, Duration.ofSeconds(10));
+        bulkhead.acquire();
+        CountDownLatch admitted = new CountDownLatch(1);
+
+        Thread waiter = Thread.ofVirtual().start(() -> {
+            bulkhead.acquire();
+            admitted.countDown();
+        });
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(admitted.await(50, TimeUnit.MILLISECONDS));
+
+        bulkhead.release(FAST, false);
+
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(1, bulkhead.inFlight());
+    }
+
+    @Test
+    void release_slowResponses_shrinkLimitDownToMinimum() {
+        AdaptiveBulkhead bulkhead = bulkhead(8, 0, Duration.ZERO);
+
+        for (int i = 0; i < 100; i++) {
+            bulkhead.acquire();
+            bulkhead.release(SLOW, false);
+        }
+
+        assertEquals(1, bulkhead.limit());
+    }
+
+    @Test
+    void release_failures_shrinkLimitEvenWhenFast() {
+        AdaptiveBulkhead bulkhead = bulkhead(8, 0, Duration.ZERO);
+
+        bulkhead.acquire();
+        bulkhead.release(FAST, true);
+
+        assertEquals(7, bulkhead.limit());
+    }
+
+    @Test
+    void release_fastResponses_growLimitUpToMaximum() {
+        AdaptiveBulkhead bulkhead = bulkhead(2, 0, Duration.ZERO);
+
+        for (int i = 0; i < 1_000; i++) {
+            bulkhead.acquire();
+            bulkhead.release(FAST, false);
+        }
+
+        assertEquals(10, bulkhead.limit());
+    }
+}
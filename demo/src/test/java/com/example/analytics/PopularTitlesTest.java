@@ -0,0 +1,137 @@
+package com.example.analytics;
+
+import com.example.event.LibraryEvent;
+import com.example.event.LibraryEventType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularTitlesTest {
+    private static final long START = Instant.parse("2026-01-05T00:00:00Z").toEpochMilli();
+
+    private final AtomicLong now = new AtomicLong(START);
+    private final PopularTitles popularTitles = new PopularTitles(256, 4, 1024, now::get);
+
+    // Розподіл Ціпфа з s=1: кілька книг отримують більшість позичень, довгий хвіст — решту
+    private static long[] zipf(int keys, int events, long seed) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(seed);
+        long[] stream = new long[events];
+        for (int i = 0; i < events; i++) {
+            double u = random.nextDouble() * sum;
+            int index = Arrays.binarySearch(cumulative, u);
+            // Перемішуємо ID, щоб популярність не корелювала з порядком ключів
+            stream[i] = ((index < 0 ? -index - 1 : index) * 7919L) % 1_000_003L + 1;
+        }
+        return stream;
+    }
+
+    @Test
+    void topK_matchesExactCountsOnSkewedStream() {
+        long[] stream = zipf(50_000, 200_000, 42);
+        Map<Long, Long> exact = new HashMap<>();
+        for (int i = 0; i < stream.length; i++) {
+            // Рівномірно за останні 50 хвилин
+            popularTitles.record(stream[i], START + (long) i * 15);
+            exact.merge(stream[i], 1L, Long::sum);
+        }
+        now.set(START + stream.length * 15L);
+
+        List<HeavyHitter> top = popularTitles.top(PopularityWindow.HOUR, 20);
+        Set<Long> exactTop = exact.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+
+        long recalled = top.stream().filter(hit -> exactTop.contains(hit.key())).count();
+        assertTrue(recalled >= 18, "Знайдено лише " + recalled + " з 20");
+        // Count-Min не занижує, а завищує не більше ніж на e/width від кількості подій у вікні
+        double bound = Math.E / 1024 * stream.length;
+        for (HeavyHitter hit : top) {
+            long actual = exact.getOrDefault(hit.key(), 0L);
+            assertTrue(hit.count() >= actual);
+            assertTrue(hit.count() - actual <= bound, "Похибка " + (hit.count() - actual) + " > " + bound);
+        }
+        assertEquals(exactTop.stream().max(Comparator.comparing(exact::get)).orElseThrow(), top.getFirst().key());
+    }
+
+    @Test
+    void windows_dropEventsOlderThanWindow() {
+        long hourAgo = START;
+        long twoDaysAgo = START - Duration.ofDays(2).toMillis();
+        now.set(START + Duration.ofMinutes(30).toMillis());
+        for (int i = 0; i < 5; i++) {
+            popularTitles.record(1L, hourAgo);
+        }
+        for (int i = 0; i < 9; i++) {
+            popularTitles.record(2L, twoDaysAgo);
+        }
+
+        assertEquals(List.of(new HeavyHitter(1L, 5)), popularTitles.top(PopularityWindow.HOUR, 10));
+        assertEquals(List.of(new HeavyHitter(1L, 5)), popularTitles.top(PopularityWindow.DAY, 10));
+        assertEquals(List.of(new HeavyHitter(2L, 9), new HeavyHitter(1L, 5)), popularTitles.top(PopularityWindow.WEEK, 10));
+
+        now.addAndGet(Duration.ofDays(8).toMillis());
+        assertTrue(popularTitles.top(PopularityWindow.WEEK, 10).isEmpty());
+    }
+
+    @Test
+    void onEvent_countsBorrowingsOnceAndIgnoresOtherTypes() {
+        Instant at = Instant.ofEpochMilli(START);
+        popularTitles.onEvent(new LibraryEvent(1, LibraryEventType.BOOK_BORROWED, 7L, 1L, 1L, 0, at));
+        // Повторна доставка тієї ж події
+        popularTitles.onEvent(new LibraryEvent(1, LibraryEventType.BOOK_BORROWED, 7L, 1L, 1L, 0, at));
+        popularTitles.onEvent(new LibraryEvent(2, LibraryEventType.BOOK_RETURNED, 7L, 1L, 1L, 1, at));
+        popularTitles.onEvent(new LibraryEvent(3, LibraryEventType.BOOK_BORROWED, 7L, 2L, 2L, 0, at));
+
+        assertEquals(List.of(new HeavyHitter(7L, 2)), popularTitles.top(PopularityWindow.HOUR, 5));
+    }
+
+    @Test
+    void onEvent_outOfOrderIds_areBothCounted() {
+        Instant at = Instant.ofEpochMilli(START);
+        // Транзакція з меншим id закомічена пізніше
+        popularTitles.onEvent(new LibraryEvent(2, LibraryEventType.BOOK_BORROWED, 7L, 1L, 2L, 0, at));
+        popularTitles.onEvent(new LibraryEvent(1, LibraryEventType.BOOK_BORROWED, 7L, 2L, 1L, 0, at));
+        // Повторна доставка пакета після збою
+        popularTitles.onEvent(new LibraryEvent(1, LibraryEventType.BOOK_BORROWED, 7L, 2L, 1L, 0, at));
+        popularTitles.onEvent(new LibraryEvent(2, LibraryEventType.BOOK_BORROWED, 7L, 1L, 2L, 0, at));
+
+        assertEquals(List.of(new HeavyHitter(7L, 2)), popularTitles.top(PopularityWindow.HOUR, 5));
+    }
+
+    @Test
+    void spaceSaving_keepsHeavyKeysUnderEvictionChurn() {
+        SpaceSaving summary = new SpaceSaving(8);
+        for (int round = 0; round < 1_000; round++) {
+            summary.offer(1L);
+            summary.offer(2L);
+            // Кожен раунд — новий рідкісний ключ, що витісняє найменший лічильник
+            summary.offer(1_000L + round);
+        }
+        Set<Long> keys = new HashSet<>();
+        summary.forEachKey(keys::add);
+
+        assertEquals(8, summary.size());
+        assertTrue(keys.containsAll(Set.of(1L, 2L)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import com.example.entity.Book;
+import com.example.search.BookSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+@Tag("benchmark")
+class BookSearchBenchmarkTest {
+    private static final int BOOKS = Integer.getInteger("benchmark.search.books", 1_000_000);
+    private static final int QUERIES = 2_000;
+    private static final String[] SYLLABLES = {
+            "ка", "ро", "лі", "сто", "ва", "ні", "ма", "бо", "ру", "те", "ля", "ге", "зо", "ди", "пі", "ша",
+            "ta", "ro", "li", "ve", "mo", "na", "ke", "sa"
+    };
+
+    private static String[] vocabulary(Random random, int size, String suffix) {
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words[i] = word.append(suffix).toString();
+        }
+        return words;
+    }
+
+    @Test
+    void queryLatency() {
+        Random random = new Random(42);
+        String[] words = vocabulary(random, 20_000, "");
+        String[] surnames = vocabulary(random, 5_000, "ко");
+        BookSearchIndex index = new BookSearchIndex(0.4);
+
+        long start = System.nanoTime();
+        LongStream.rangeClosed(1, BOOKS).parallel().forEach(id -> {
+            Random local = new Random(id);
+            String title = words[local.nextInt(words.length)] + " " + words[local.nextInt(words.length)];
+            String author = words[local.nextInt(words.length)] + " " + surnames[local.nextInt(surnames.length)];
+            index.index(new Book(id, title, author, 1));
+        });
+        System.out.printf("indexed %d books in %d ms%n", BOOKS, (System.nanoTime() - start) / 1_000_000);
+
+        String[] queries = {words[0], words[1].substring(0, 3), words[2] + " " + surnames[3], surnames[4] + "x", "ка", "стоні"};
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long queryStart = System.nanoTime();
+            index.search(queries[random.nextInt(queries.length)], 20);
+            latencies[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("search over %d books: p50 = %.2f ms, p99 = %.2f ms%n",
+                BOOKS, latencies[QUERIES / 2] / 1e6, latencies[QUERIES * 99 / 100] / 1e6);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.benchmark;
+
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.exception.DomainException;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BorrowingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Пропускна здатність і p99 змішаного потоку позичень і повернень; інваріанти перевіряє BorrowingConcurrencyTest
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowingstorm",
+        "library.max.books.per.member=3",
+        "spring.jpa.show-sql=false"
+})
+class BorrowingStormBenchmarkTest {
+    private static final int THREADS = Integer.getInteger("borrowing.concurrency.threads", 8);
+    private static final int OPERATIONS = Integer.getInteger("borrowing.concurrency.operations", 3000);
+    // На одному ядрі холодна JVM дає близько 220 ops/s і p99 150–190 мс; пороги взято з запасом
+    // приблизно вчетверо, щоб падати лише на суттєвій регресії. Перевизначаються системними властивостями
+    private static final double MIN_OPS_PER_SECOND = Double.parseDouble(
+            System.getProperty("borrowing.concurrency.min-ops-per-second", "50"));
+    private static final double MAX_P99_MILLIS = Double.parseDouble(
+            System.getProperty("borrowing.concurrency.max-p99-millis", "750"));
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Test
+    void mixedStorm_throughputAndP99() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(bookRepository.save(new Book(null, "Книга " + (char) ('а' + i), "Тарас Шевченко", 4)));
+        }
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            members.add(memberRepository.save(new Member(0, "Читач " + (char) ('а' + i), null)));
+        }
+        ConcurrentLinkedQueue<Long> loans = new ConcurrentLinkedQueue<>();
+        long[] latencies = new long[OPERATIONS];
+        AtomicInteger next = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SplittableRandom random = new SplittableRandom(42 + t);
+                workers.add(executor.submit(() -> {
+                    int op;
+                    while ((op = next.getAndIncrement()) < OPERATIONS) {
+                        Long loan = random.nextInt(100) < 45 ? (random.nextBoolean() ? loans.poll() : loans.peek()) : null;
+                        long opStarted = System.nanoTime();
+                        try {
+                            if (loan != null) {
+                                borrowingService.returnBook(loan);
+                            } else {
+                                Member member = members.get(random.nextInt(members.size()));
+                                Book book = books.get(random.nextInt(books.size()));
+                                loans.add(borrowingService.borrowBook(member.getId(), book.getId()).getId());
+                            }
+                        } catch (DomainException e) {
+                            // Очікувані відмови теж рахуються в затримку
+                        }
+                        latencies[op] = System.nanoTime() - opStarted;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        double p99 = latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1e6;
+        double throughput = OPERATIONS / seconds;
+        System.out.printf("Borrow/return storm: %d ops, %d threads, %.0f ops/s, p50 %.2f ms, p99 %.2f ms%n",
+                OPERATIONS, THREADS, throughput, latencies[latencies.length / 2] / 1e6, p99);
+        assertTrue(throughput >= MIN_OPS_PER_SECOND,
+                () -> String.format("пропускна здатність %.0f ops/s нижча за поріг %.0f", throughput, MIN_OPS_PER_SECOND));
+        assertTrue(p99 <= MAX_P99_MILLIS,
+                () -> String.format("p99 %.2f ms вищий за поріг %.0f ms", p99, MAX_P99_MILLIS));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.benchmark;
+
+import com.example.datagen.DataGenerator;
+import com.example.datagen.DataGeneratorProperties;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+// Під час старту контексту генератор нічого не вставляє; вимірюється лише явний запуск із розмірами нижче
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagenbench",
+        "library.datagen.books=0",
+        "library.datagen.members=0",
+        "library.datagen.loans=0"
+})
+@ActiveProfiles("datagen")
+class DataGeneratorBenchmarkTest {
+    private static final int BOOKS = Integer.getInteger("datagen.books", 1_000_000);
+    private static final int MEMBERS = Integer.getInteger("datagen.members", 500_000);
+    private static final long LOANS = Long.getLong("datagen.loans", 5_000_000);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Test
+    void generate_reportsRowsPerSecond() throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<DataGenerator.TableReport> reports = dataGenerator.generate(new DataGeneratorProperties(
+                BOOKS, MEMBERS, LOANS, 42, 1.0, 3, threads, 50_000, 1_000));
+        reports.forEach(report -> System.out.printf("%-14s %,12d rows %8d ms %,12d rows/s%n",
+                report.table(), report.rows(), report.millis(), report.rowsPerSecond()));
+    }
+}
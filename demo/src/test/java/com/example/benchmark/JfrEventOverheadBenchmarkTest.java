@@ -0,0 +1,46 @@
+package com.example.benchmark;
+
+import com.example.jfr.BorrowBookEvent;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+// Вартість start/finish доменної події, коли запис вимкнено і коли він іде
+@Tag("benchmark")
+class JfrEventOverheadBenchmarkTest {
+    private static final int ITERATIONS = 5_000_000;
+
+    private static long sink;
+
+    private static double measure() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            emit(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            emit(i);
+        }
+        return (double) (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private static void emit(long id) {
+        BorrowBookEvent event = new BorrowBookEvent(id, id);
+        event.start();
+        sink += id;
+        event.borrowed(id);
+        event.finish();
+    }
+
+    @Test
+    void startFinish_disabledVersusRecording() {
+        System.out.printf("disabled:  %.1f ns/op%n", measure());
+        try (Recording recording = new Recording()) {
+            recording.enable(BorrowBookEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            System.out.printf("recording: %.1f ns/op%n", measure());
+        }
+        System.out.println(sink);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.benchmark;
+
+import com.example.entity.Book;
+import com.example.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class LookupBenchmarkTest {
+    private static final int IDS = 2_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>(IDS);
+        for (int i = 0; i < IDS; i++) {
+            books.add(new Book(null, "Title " + i, "Author Name", 1));
+        }
+        ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+    }
+
+    @Test
+    void lookupVersusSingleRequests() throws Exception {
+        String body = ids.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Long id : ids) {
+                mockMvc.perform(get("/api/books/{id}", id)).andExpect(status().isOk());
+            }
+            long single = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mockMvc.perform(post("/api/books/lookup").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk());
+            long bulk = System.nanoTime() - start;
+
+            System.out.printf("round %d: %d x GET /api/books/{id} = %.1f ms, POST /api/books/lookup = %.1f ms (x%.1f)%n",
+                    round, IDS, single / 1e6, bulk / 1e6, (double) single / bulk);
+        }
+    }
+}
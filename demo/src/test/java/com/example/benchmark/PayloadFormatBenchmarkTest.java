@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.example.dto.BookResponse;
+import com.example.dto.BorrowedBookResponse;
+import com.example.dto.MemberResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+@Tag("benchmark")
+class PayloadFormatBenchmarkTest {
+    private static final int ROWS = 10_000;
+    private static final int ITERATIONS = 200;
+    private static final TypeReference<List<BorrowedBookResponse>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private static List<BorrowedBookResponse> payload() {
+        Random random = new Random(42);
+        List<BorrowedBookResponse> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            MemberResponse member = new MemberResponse(random.nextInt(100_000), "Учасник " + random.nextInt(100_000),
+                    new Date(1_600_000_000_000L + random.nextInt(1_000_000_000)));
+            BookResponse book = new BookResponse((long) random.nextInt(1_000_000), "Книга " + random.nextInt(1_000_000),
+                    "Автор " + random.nextInt(50_000), random.nextInt(20));
+            rows.add(new BorrowedBookResponse((long) i, member, book));
+        }
+        return rows;
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+    private static void measure(String format, ObjectMapper mapper, List<BorrowedBookResponse> rows) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(rows);
+        for (int i = 0; i < ITERATIONS / 2; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(rows), PAYLOAD_TYPE);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = mapper.writeValueAsBytes(rows);
+        }
+        double serializeMs = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(bytes, PAYLOAD_TYPE);
+        }
+        double deserializeMs = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+
+        System.out.printf("%-6s %d rows: %8d bytes (%7d gzipped), serialize %.2f ms, deserialize %.2f ms%n",
+                format, ROWS, bytes.length, gzippedSize(bytes), serializeMs, deserializeMs);
+    }
+
+    @Test
+    void tenThousandRows() throws IOException {
+        List<BorrowedBookResponse> rows = payload();
+        measure("json", new ObjectMapper(), rows);
+        measure("cbor", new ObjectMapper(new CBORFactory()), rows);
+        measure("smile", new ObjectMapper(new SmileFactory()), rows);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.benchmark;
+
+import com.example.analytics.PopularTitles;
+import com.example.analytics.PopularityWindow;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class PopularTitlesBenchmarkTest {
+    private static final int EVENTS = 20_000_000;
+    private static final int BOOKS = 1_000_000;
+
+    @Test
+    void record_sustainsMillionsOfEventsPerSecond() {
+        PopularTitles popularTitles = new PopularTitles(256, 4, 1024);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] books = new long[1 << 20];
+        for (int i = 0; i < books.length; i++) {
+            // Квадрат рівномірної величини дає перекіс у бік малих ID
+            double u = random.nextDouble();
+            books[i] = (long) (u * u * BOOKS) + 1;
+        }
+
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < EVENTS / 4; i++) {
+            popularTitles.record(books[i & (books.length - 1)], now);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            // Події розподілені на останні 7 днів, щоб працювали всі кошики
+            popularTitles.record(books[i & (books.length - 1)], now - (i % 10_080) * 60_000L);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double perSecond = EVENTS / seconds;
+
+        for (PopularityWindow window : PopularityWindow.values()) {
+            for (int i = 0; i < 20; i++) {
+                popularTitles.top(window, 20);
+            }
+            long queryStart = System.nanoTime();
+            int size = popularTitles.top(window, 20).size();
+            System.out.printf("top-20 %-4s %3d results in %.1f ms%n", window, size, (System.nanoTime() - queryStart) / 1e6);
+        }
+        System.out.printf("record: %.2f M events/s%n", perSecond / 1e6);
+        assertTrue(perSecond >= 1_000_000, "Пропускна здатність нижча за 1M подій/с");
+    }
+}
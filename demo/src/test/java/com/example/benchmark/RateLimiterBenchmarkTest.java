@@ -0,0 +1,54 @@
+package com.example.benchmark;
+
+import com.example.exception.RateLimitExceededException;
+import com.example.ratelimit.RateLimitProperties;
+import com.example.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class RateLimiterBenchmarkTest {
+    private static final int MEMBERS = 100_000;
+    private static final int CLIENTS = 1_000;
+    private static final int CHECKS = 20_000_000;
+
+    @Test
+    void checkOverhead() {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimitProperties(Map.of(
+                "borrow", new RateLimitProperties.Route(1, 5, 1_000_000, 1_000_000, 200_000))),
+                new SimpleMeterRegistry());
+        String[] clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "client-" + i;
+        }
+
+        // Прогрів JIT і заповнення відер для всіх користувачів
+        run(rateLimiter, clients, CHECKS / 4, new SplittableRandom(1));
+
+        long start = System.nanoTime();
+        int rejected = run(rateLimiter, clients, CHECKS, new SplittableRandom(2));
+        double nanosPerCheck = (double) (System.nanoTime() - start) / CHECKS;
+
+        System.out.printf("rate limiter over %d members: %.1f ns per check, %d rejected%n",
+                MEMBERS, nanosPerCheck, rejected);
+        assertTrue(nanosPerCheck < 1_000, "перевірка ліміту має тривати менше 1 мкс");
+    }
+
+    private static int run(RateLimiter rateLimiter, String[] clients, int checks, SplittableRandom random) {
+        int rejected = 0;
+        for (int i = 0; i < checks; i++) {
+            try {
+                rateLimiter.check("borrow", (long) random.nextInt(MEMBERS), clients[random.nextInt(CLIENTS)]);
+            } catch (RateLimitExceededException e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+}
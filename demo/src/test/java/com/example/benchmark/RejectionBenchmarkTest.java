@@ -0,0 +1,70 @@
+package com.example.benchmark;
+
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import com.example.exception.GlobalExceptionHandler;
+import com.example.exception.ValidationException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Tag("benchmark")
+class RejectionBenchmarkTest {
+    private static final int REJECTIONS = 2_000_000;
+    // Відмови в сервісі виникають глибоко в стеку: фільтри, інтерсептори, проксі транзакцій
+    private static final int STACK_DEPTH = 120;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    // Шлях до змін: новий ValidationException зі стеком і HashMap у відповіді
+    private Object legacyRejection() {
+        try {
+            throw new ValidationException("Книга недоступна для позичення");
+        } catch (ValidationException ex) {
+            Map<String, String> errors = new HashMap<>();
+            errors.put("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(errors);
+        }
+    }
+
+    private Object domainRejection() {
+        try {
+            throw DomainException.of(ErrorCode.BOOK_UNAVAILABLE);
+        } catch (DomainException ex) {
+            return handler.handleDomainException(ex);
+        }
+    }
+
+    private static Object atDepth(int depth, Supplier<Object> rejection) {
+        return depth == 0 ? rejection.get() : atDepth(depth - 1, rejection);
+    }
+
+    private static double measure(Supplier<Object> rejection) {
+        Object sink = null;
+        for (int i = 0; i < REJECTIONS / 10; i++) {
+            sink = atDepth(STACK_DEPTH, rejection);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < REJECTIONS; i++) {
+            sink = atDepth(STACK_DEPTH, rejection);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) {
+            throw new IllegalStateException();
+        }
+        return REJECTIONS / (elapsed / 1e9);
+    }
+
+    @Test
+    void rejectionThroughput() {
+        double legacy = measure(this::legacyRejection);
+        double domain = measure(this::domainRejection);
+
+        System.out.printf("rejections at stack depth %d: legacy %.0f/s, preallocated %.0f/s (x%.1f)%n",
+                STACK_DEPTH, legacy, domain, domain / legacy);
+    }
+}
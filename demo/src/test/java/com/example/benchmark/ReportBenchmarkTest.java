@@ -0,0 +1,81 @@
+package com.example.benchmark;
+
+import com.example.datagen.DataGenerator;
+import com.example.datagen.DataGeneratorProperties;
+import com.example.report.CatalogReports;
+import com.example.report.ReportProperties;
+import com.example.report.ReportStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Той самий звіт з різною кількістю потоків пулу: час має падати, доки вистачає ядер
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reportbench",
+        "library.datagen.books=0",
+        "library.datagen.members=0",
+        "library.datagen.loans=0"
+})
+@ActiveProfiles("datagen")
+class ReportBenchmarkTest {
+    private static final int BOOKS = Integer.getInteger("report.books", 500_000);
+    private static final int MEMBERS = Integer.getInteger("report.members", 200_000);
+    private static final long LOANS = Long.getLong("report.loans", 1_000_000);
+    private static final int CHUNK = Integer.getInteger("report.chunk", 10_000);
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reports_scaleWithParallelism() throws InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        dataGenerator.generate(new DataGeneratorProperties(BOOKS, MEMBERS, LOANS, 42, 1.0, 3, cores, 50_000, 1_000));
+
+        Map<String, Function<CatalogReports, ReportStream<?>>> reports = new TreeMap<>(Map.of(
+                "copiesPerAuthor", CatalogReports::copiesPerAuthor,
+                "booksWithoutCopies", CatalogReports::booksWithoutCopies,
+                "membersNearLimit", catalog -> catalog.membersNearLimit(8)));
+        TreeSet<Integer> levels = new TreeSet<>(List.of(1, 2, 4, cores));
+
+        for (Map.Entry<String, Function<CatalogReports, ReportStream<?>>> report : reports.entrySet()) {
+            double baseline = 0;
+            for (int parallelism : levels) {
+                CatalogReports catalogReports = new CatalogReports(jdbcTemplate, new ReportProperties(parallelism, CHUNK), 10);
+                try {
+                    AtomicLong rows = new AtomicLong();
+                    // Перший прогін прогріває JIT і кеш сторінок H2
+                    report.getValue().apply(catalogReports).forEach(row -> rows.incrementAndGet());
+                    long best = Long.MAX_VALUE;
+                    for (int round = 0; round < ROUNDS; round++) {
+                        long start = System.nanoTime();
+                        report.getValue().apply(catalogReports).forEach(row -> { });
+                        best = Math.min(best, System.nanoTime() - start);
+                    }
+                    double millis = best / 1e6;
+                    if (parallelism == 1) {
+                        baseline = millis;
+                    }
+                    System.out.printf("%-18s parallelism %2d: %,8d rows %8.1f ms  speedup x%.2f%n",
+                            report.getKey(), parallelism, rows.get(), millis, baseline / millis);
+                } finally {
+                    catalogReports.shutdown();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.benchmark;
+
+import com.example.DemoApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Запускає застосунок окремим процесом і міряє час до першої успішної відповіді та RSS після неї
+@Tag("benchmark")
+class StartupBenchmarkTest {
+    private static final int RUNS = 5;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private record Sample(long firstRequestMs, long rssKb) {
+    }
+
+    // Тестові класи не потрапляють у classpath, щоб склад бінів збігався з jar
+    private static String applicationClasspath() {
+        String classpath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        return Arrays.stream(classpath.split(File.pathSeparator))
+                .filter(entry -> !entry.endsWith("test-classes"))
+                .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+    }
+
+    private Sample start(List<String> jvmArgs, String profile) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-cp", applicationClasspath(), DemoApplication.class.getName(),
+                "--server.port=" + port, "--spring.profiles.active=" + profile,
+                // Кожен запуск отримує власну БД
+                "--spring.datasource.url=jdbc:h2:mem:startup" + port));
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books")).GET().build();
+            while (System.nanoTime() - started < STARTUP_TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), "Застосунок завершився під час старту");
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long firstRequestMs = (System.nanoTime() - started) / 1_000_000;
+                        return new Sample(firstRequestMs, rssKb(process.pid()));
+                    }
+                } catch (IOException e) {
+                    // Порт ще не відкрито
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Застосунок не відповів за " + STARTUP_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private void measure(String name, List<String> jvmArgs, String profile) throws Exception {
+        start(jvmArgs, profile);
+        long[] firstRequest = new long[RUNS];
+        long[] rss = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            Sample sample = start(jvmArgs, profile);
+            firstRequest[i] = sample.firstRequestMs();
+            rss[i] = sample.rssKb();
+        }
+        Arrays.sort(firstRequest);
+        Arrays.sort(rss);
+        System.out.printf("%-22s first request p50 %5d ms (min %5d, max %5d), RSS p50 %6d MB%n",
+                name, firstRequest[RUNS / 2], firstRequest[0], firstRequest[RUNS - 1], rss[RUNS / 2] / 1024);
+    }
+
+    @Test
+    void timeToFirstRequest_defaultVersusProd() throws Exception {
+        measure("default (ddl-auto)", List.of(), "default");
+        measure("prod", List.of(), "prod");
+        measure("prod + TieredStopAt1", List.of("-XX:TieredStopAtLevel=1"), "prod");
+        // Згенеровані класи з'являються в target/classes після mvn package -Paot
+        if (getClass().getResource("/com/example/DemoApplication__ApplicationContextInitializer.class") != null) {
+            measure("prod + AOT", List.of("-Dspring.aot.enabled=true"), "prod");
+        } else {
+            System.out.println("prod + AOT             пропущено: спершу виконайте mvn package -Paot");
+        }
+    }
+}
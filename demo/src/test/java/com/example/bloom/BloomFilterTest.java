@@ -0,0 +1,57 @@
+package com.example.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_neverMissesInsertedKeys() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("книга " + i));
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("книга " + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRate_staysNearConfiguredRate() {
+        BloomFilter filter = BloomFilter.create(50_000, 0.01);
+        IntStream.range(0, 50_000).forEach(i -> filter.put("key-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("missing-" + i))
+                .count();
+
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, () -> "частка хибних спрацювань " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void create_sizesBitsAndHashesFromRate() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+
+        // ~9.6 біта на ключ і 7 хеш-функцій для 1%
+        assertEquals(9_600, filter.bitSize(), 64);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void concurrentPuts_areAllVisible() {
+        BloomFilter filter = BloomFilter.create(100_000, 0.01);
+        IntStream.range(0, 100_000).parallel().forEach(i -> filter.put("k" + i));
+
+        assertTrue(IntStream.range(0, 100_000).allMatch(i -> filter.mightContain("k" + i)));
+    }
+
+    @Test
+    void create_invalidRate_throws() {
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.create(10, 1));
+    }
+}
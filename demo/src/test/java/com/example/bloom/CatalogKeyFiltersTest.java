@@ -0,0 +1,171 @@
+package com.example.bloom;
+
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CatalogKeyFiltersTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogKeyFilters filters;
+
+    private final Book kobzar = new Book(1L, "Кобзар", "Тарас Шевченко", 1);
+    private final Book zemlia = new Book(2L, "Земля", "Ольга Кобилянська", 1);
+    private final Member member = new Member(1L, "Олена Пчілка", null);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        filters = new CatalogKeyFilters(bookRepository, memberRepository, meterRegistry, 0.01, 1_000, 0.2, 2, 1);
+        when(bookRepository.count()).thenReturn(2L);
+        when(bookRepository.findMaxId()).thenReturn(2L);
+        when(bookRepository.findByIdBetween(1L, 1L)).thenReturn(List.of(kobzar));
+        when(bookRepository.findByIdBetween(2L, 2L)).thenReturn(List.of(zemlia));
+        when(memberRepository.count()).thenReturn(1L);
+        when(memberRepository.findMaxId()).thenReturn(1L);
+        when(memberRepository.findByIdBetween(1L, 1L)).thenReturn(List.of(member));
+    }
+
+    @AfterEach
+    void tearDown() {
+        filters.shutdown();
+    }
+
+    private double lookups(KeyFilter filter, String result) {
+        return meterRegistry.counter("library.bloom.lookups", "filter", filter.tag(), "result", result).count();
+    }
+
+    private void awaitReady() throws InterruptedException {
+        for (int i = 0; i < 500 && !filters.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(filters.isReady());
+    }
+
+    @Test
+    void beforeRebuild_lookupsBypassFilter() {
+        assertFalse(filters.isReady());
+        assertFalse(filters.definitelyAbsentBook("будь-що", "будь-хто"));
+        assertEquals(1.0, lookups(KeyFilter.BOOK, "bypass"));
+    }
+
+    @Test
+    void rebuild_loadsExistingKeys_andRejectsUnknownOnes() {
+        filters.rebuild();
+
+        assertFalse(filters.definitelyAbsentBook(kobzar.getTitleKey(), kobzar.getAuthorKey()));
+        assertFalse(filters.definitelyAbsent(KeyFilter.TITLE, zemlia.getTitleKey()));
+        assertFalse(filters.definitelyAbsent(KeyFilter.MEMBER_NAME, member.getNameKey()));
+        // Та сама назва з іншим автором — інша пара
+        long absent = IntStream.range(0, 1_000)
+                .filter(i -> filters.definitelyAbsentBook(kobzar.getTitleKey(), "автор " + i))
+                .count();
+        assertTrue(absent > 950, () -> "відсічено лише " + absent);
+        assertEquals(absent, lookups(KeyFilter.BOOK, "absent"));
+    }
+
+    @Test
+    void keysAddedAfterRebuild_areNeverReportedAbsent() {
+        filters.rebuild();
+        Book added = new Book(3L, "Тіні забутих предків", "Михайло Коцюбинський", 1);
+
+        filters.bookAdded(added);
+        filters.memberAdded(new Member(2L, "Леся Українка", null));
+
+        assertFalse(filters.definitelyAbsentBook(added.getTitleKey(), added.getAuthorKey()));
+        assertFalse(filters.definitelyAbsent(KeyFilter.TITLE, added.getTitleKey()));
+        assertFalse(filters.definitelyAbsent(KeyFilter.MEMBER_NAME, "леся українка"));
+    }
+
+    @Test
+    void keyAddedDuringRebuild_isNotLost() throws InterruptedException {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findByIdBetween(1L, 1L)).thenAnswer(invocation -> {
+            scanning.countDown();
+            release.await();
+            return List.of(kobzar);
+        });
+
+        filters.rebuildAsync();
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        // Рядок з'явився після знімка максимального ID — його має додати сам записувач
+        Book added = new Book(3L, "Камінний хрест", "Василь Стефаник", 1);
+        filters.bookAdded(added);
+        release.countDown();
+        awaitReady();
+
+        assertFalse(filters.definitelyAbsentBook(added.getTitleKey(), added.getAuthorKey()));
+        assertFalse(filters.definitelyAbsentBook(kobzar.getTitleKey(), kobzar.getAuthorKey()));
+    }
+
+    @Test
+    void deletionDrift_triggersRebuild() {
+        filters.rebuild();
+        verify(bookRepository, times(1)).count();
+
+        // Поріг дрейфу — 20% від місткості 1000
+        for (int i = 0; i < 201; i++) {
+            filters.bookRemoved();
+        }
+
+        verify(bookRepository, timeout(5_000).times(2)).count();
+    }
+
+    @Test
+    void invalidate_bypassesUntilNextRebuild() throws InterruptedException {
+        filters.rebuild();
+        filters.invalidate();
+
+        assertFalse(filters.isReady());
+        assertFalse(filters.definitelyAbsentBook("нова", "книга"));
+
+        filters.rebuildAsync();
+        awaitReady();
+        verify(bookRepository, times(2)).findMaxId();
+    }
+
+    @Test
+    void invalidateDuringRebuild_discardsThatBuild() throws InterruptedException {
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findByIdBetween(anyLong(), anyLong())).thenAnswer(invocation -> {
+            scanning.countDown();
+            release.await();
+            return List.of();
+        }).thenReturn(List.of(kobzar));
+
+        filters.rebuildAsync();
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        filters.invalidate();
+        filters.rebuildAsync();
+        release.countDown();
+        awaitReady();
+
+        verify(bookRepository, atLeast(2)).findMaxId();
+        assertFalse(filters.definitelyAbsentBook(kobzar.getTitleKey(), kobzar.getAuthorKey()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Окрема БД: міграції мають виконуватися на порожній схемі, а не на створеній ddl-auto
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prodschema")
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+class ProdProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void migratedSchema_passesValidationAndServesRequests() throws Exception {
+        String book = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Земля\",\"author\":\"Ольга Кобилянська\",\"copiesAmount\":1}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long bookId = Long.parseLong(book.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        mockMvc.perform(get("/api/books/{id}", bookId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Земля"));
+    }
+
+    @Test
+    void swaggerH2ConsoleAndSlowQueries_areNotExposed() throws Exception {
+        mockMvc.perform(get("/api-docs")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/h2-console")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/slowqueries")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void readiness_isUpAfterWarmup_andReportIsExposed() throws Exception {
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+        mockMvc.perform(get("/actuator/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.steps[0].name").value("hot-books"))
+                .andExpect(jsonPath("$.steps[?(@.name == 'member-loans')].completed").value(true));
+    }
+}
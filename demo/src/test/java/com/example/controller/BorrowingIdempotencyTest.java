@@ -0,0 +1,70 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Ліміт учасника — один запит, тож кожне зайве виконання одразу дає 429
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowidempotency",
+        "library.rate-limit.routes.borrow.member-permits-per-second=0.001",
+        "library.rate-limit.routes.borrow.member-burst=1"
+})
+@AutoConfigureMockMvc
+class BorrowingIdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long create(String url, String json) throws Exception {
+        String body = mockMvc.perform(post(url).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Long.parseLong(body.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private String borrow(long memberId, long bookId, String remoteAddr, int expectedStatus) throws Exception {
+        return mockMvc.perform(post("/api/borrowings/borrow")
+                        .param("memberId", String.valueOf(memberId))
+                        .param("bookId", String.valueOf(bookId))
+                        .header("Idempotency-Key", "borrow-1")
+                        .with(request -> {
+                            request.setRemoteAddr(remoteAddr);
+                            return request;
+                        }))
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void borrow_replayFromAnotherAddress_returnsStoredResultWithoutRateLimiting() throws Exception {
+        mockMvc.perform(post("/api/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Ольга Кобилянська\"}"))
+                .andExpect(status().isCreated());
+        String member = mockMvc.perform(get("/api/members/search").param("name", "ольга кобилянська"))
+                .andReturn().getResponse().getContentAsString();
+        long memberId = Long.parseLong(member.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        long bookId = create("/api/books", "{\"title\":\"Земля\",\"author\":\"Ольга Кобилянська\",\"copiesAmount\":1}");
+        long otherBookId = create("/api/books", "{\"title\":\"Царівна\",\"author\":\"Ольга Кобилянська\",\"copiesAmount\":1}");
+
+        String first = borrow(memberId, bookId, "10.0.0.1", 200);
+        String replay = borrow(memberId, bookId, "10.0.0.2", 200);
+
+        assertEquals(first, replay);
+        // Той самий ключ для іншої книги — помилка клієнта, а не нове позичення
+        borrow(memberId, otherBookId, "10.0.0.1", 422);
+        mockMvc.perform(post("/api/borrowings/borrow")
+                        .param("memberId", String.valueOf(memberId))
+                        .param("bookId", String.valueOf(otherBookId)))
+                .andExpect(status().isTooManyRequests());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private long createBook(String title, String author, int copies) throws Exception {
+        String book = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"" + title + "\",\"author\":\"" + author + "\",\"copiesAmount\":" + copies + "}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Long.parseLong(book.replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    private String etag(String url, Object... uriVars) throws Exception {
+        String etag = mockMvc.perform(get(url, uriVars))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        return etag;
+    }
+
+    @Test
+    void bookById_unchanged_returns304() throws Exception {
+        long bookId = createBook("Тіні забутих предків", "Михайло Коцюбинський", 1);
+        String etag = etag("/api/books/{id}", bookId);
+
+        mockMvc.perform(get("/api/books/{id}", bookId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void bookById_afterUpdate_returnsFreshRepresentation() throws Exception {
+        long bookId = createBook("Intermezzo", "Михайло Коцюбинський", 1);
+        String etag = etag("/api/books/{id}", bookId);
+
+        mockMvc.perform(put("/api/books/{id}", bookId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Intermezzo\",\"author\":\"Михайло Коцюбинський\",\"copiesAmount\":3}"))
+                .andExpect(status().isOk());
+
+        String fresh = mockMvc.perform(get("/api/books/{id}", bookId).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, fresh);
+    }
+
+    @Test
+    void loanViews_afterBorrow_returnFreshRepresentation() throws Exception {
+        mockMvc.perform(post("/api/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Марко Вовчок\"}"))
+                .andExpect(status().isCreated());
+        String member = mockMvc.perform(get("/api/members/search").param("name", "марко вовчок"))
+                .andReturn().getResponse().getContentAsString();
+        long memberId = Long.parseLong(member.replaceAll(".*\"id\":(\\d+).*", "$1"));
+        long bookId = createBook("Інститутка", "Марко Вовчок", 2);
+
+        String loans = etag("/api/borrowings/member/{name}", "Марко Вовчок");
+        String statistics = etag("/api/borrowings/books/statistics");
+        String book = etag("/api/books/{id}", bookId);
+
+        mockMvc.perform(post("/api/borrowings/borrow")
+                        .param("memberId", String.valueOf(memberId))
+                        .param("bookId", String.valueOf(bookId)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/borrowings/member/{name}", "Марко Вовчок").header("If-None-Match", loans))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/borrowings/books/statistics").header("If-None-Match", statistics))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/{id}", bookId).header("If-None-Match", book))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void etag_variesByAcceptHeader() throws Exception {
+        long bookId = createBook("Микола Джеря", "Іван Левицький", 1);
+
+        String json = mockMvc.perform(get("/api/books/{id}", bookId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+        String cbor = mockMvc.perform(get("/api/books/{id}", bookId).accept("application/cbor"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(json, cbor);
+        mockMvc.perform(get("/api/books/{id}", bookId).accept("application/cbor").header("If-None-Match", json))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void borrowedBooks_withFields_returnOnlyRequestedColumns() throws Exception {
+        mockMvc.perform(post("/api/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Леся Sparse\"}"))
+                .andExpect(status().isCreated());
+        String member = mockMvc.perform(get("/api/members/search").param("name", "леся sparse"))
+                .andReturn().getResponse().getContentAsString();
+        long memberId = Long.parseLong(member.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        String book = mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Лісова пісня\",\"author\":\"Леся Українка\",\"copiesAmount\":2}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long bookId = Long.parseLong(book.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+        mockMvc.perform(post("/api/borrowings/borrow")
+                        .param("memberId", String.valueOf(memberId))
+                        .param("bookId", String.valueOf(bookId)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/borrowings/member/{name}", "Леся Sparse").param("fields", "bookTitle,memberId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", aMapWithSize(2)))
+                .andExpect(jsonPath("$[0].memberId").value(memberId))
+                .andExpect(jsonPath("$[0].bookTitle").value("Лісова пісня"));
+    }
+
+    @Test
+    void booksByAuthor_withFields_returnOnlyRequestedColumns() throws Exception {
+        mockMvc.perform(post("/api/books")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Захар Беркут\",\"author\":\"Іван Франко\",\"copiesAmount\":1}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/books/author").param("author", "іван франко").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]", aMapWithSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Захар Беркут"));
+    }
+
+    @Test
+    void membersSearch_withFields_keepsPageMetadata() throws Exception {
+        mockMvc.perform(post("/api/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Олена Пчілка\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/members/search").param("name", "олена").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0]", aMapWithSize(1)))
+                .andExpect(jsonPath("$.content[0].name").value("Олена Пчілка"))
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    void unknownField_returns400() throws Exception {
+        mockMvc.perform(get("/api/books").param("fields", "id,titleKey"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_FAILED"));
+    }
+}
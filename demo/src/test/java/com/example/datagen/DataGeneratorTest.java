@@ -0,0 +1,92 @@
+package com.example.datagen;
+
+import com.example.entity.Book;
+import com.example.repository.BookRepository;
+import com.example.validator.BookValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Генератор запускається як ApplicationRunner під час старту контексту з профілем datagen
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:datagen",
+        "library.datagen.books=5000",
+        "library.datagen.members=500",
+        "library.datagen.loans=4000",
+        "library.datagen.threads=4",
+        "library.datagen.chunk-size=700",
+        "library.datagen.batch-size=100"
+})
+@ActiveProfiles("datagen")
+class DataGeneratorTest {
+    private static final int BOOKS = 5000;
+    private static final int LOANS = 4000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private DataGeneratorProperties properties;
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    @Test
+    void generatedCatalog_passesValidationAndRespectsLimits() {
+        assertEquals(BOOKS, count("select count(*) from book where id <= " + BOOKS));
+        assertEquals(LOANS, count("select count(*) from borrowed_book where id <= " + LOANS));
+
+        BookValidator validator = new BookValidator();
+        jdbcTemplate.query("select title, author from book where id <= " + BOOKS, row -> {
+            Book book = new Book(null, row.getString("title"), row.getString("author"), 1);
+            Errors errors = new BeanPropertyBindingResult(book, "book");
+            validator.validate(book, errors);
+            assertFalse(errors.hasErrors(), () -> book + ": " + errors.getAllErrors());
+        });
+
+        assertEquals(0, count("select count(*) from (select title_key, author_key from book"
+                + " group by title_key, author_key having count(*) > 1)"));
+        assertTrue(count("select max(c) from (select count(*) c from borrowed_book group by member_id)") <= 10);
+        assertEquals(0, count("select count(*) from book where copies_amount < 0"));
+
+        // Для Ціпфа з s=1 на 5000 книг перші 1% рангів мають близько половини позичень
+        List<Long> perBook = jdbcTemplate.queryForList("select count(*) from borrowed_book where id <= " + LOANS
+                + " group by book_id order by count(*) desc", Long.class);
+        long top = perBook.stream().limit(BOOKS / 100).mapToLong(Long::longValue).sum();
+        assertTrue(top > LOANS * 0.35, "Перші 1% книг мають лише " + top + " позичень");
+    }
+
+    @Test
+    void rerun_appendsSameSequenceAfterExistingRows() throws InterruptedException {
+        long bookBase = count("select max(id) from book");
+        long loanBase = count("select max(id) from borrowed_book");
+
+        dataGenerator.generate(properties);
+
+        // Той самий seed дає ті самі ранги книг, зсунуті на кількість уже наявних книг
+        List<Long> first = jdbcTemplate.queryForList(
+                "select book_id from borrowed_book where id <= ? order by id", Long.class, LOANS);
+        List<Long> second = jdbcTemplate.queryForList(
+                "select book_id - ? from borrowed_book where id > ? and id <= ? order by id", Long.class,
+                bookBase, loanBase, loanBase + LOANS);
+        assertEquals(first, second);
+
+        Book saved = bookRepository.save(new Book(null, "Нова книга", "Тарас Шевченко", 1));
+        assertEquals(bookBase + BOOKS + 1, saved.getId());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.etag;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+
+    private CatalogVersions catalogVersions;
+    private ConditionalGet conditionalGet;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersions = new CatalogVersions();
+        conditionalGet = new ConditionalGet(catalogVersions);
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    @Test
+    void respond_withoutIfNoneMatch_returnsBodyAndEtag() {
+        ResponseEntity<String> response = conditionalGet.respond(request(null, null), () -> "книги", CatalogScope.BOOKS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("книги", response.getBody());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void respond_matchingEtag_returns304WithoutLoadingBody() {
+        String etag = conditionalGet.respond(request(null, null), () -> "книги", CatalogScope.BOOKS)
+                .getHeaders().getETag();
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<String> response = conditionalGet.respond(request(etag, null), () -> {
+            loads.incrementAndGet();
+            return "книги";
+        }, CatalogScope.BOOKS);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void respond_afterChange_returnsFreshBody() {
+        String etag = conditionalGet.respond(request(null, null), () -> "книги", CatalogScope.BOOKS)
+                .getHeaders().getETag();
+
+        catalogVersions.changed(CatalogScope.BOOKS);
+        ResponseEntity<String> response = conditionalGet.respond(request(etag, null), () -> "нові книги", CatalogScope.BOOKS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("нові книги", response.getBody());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void respond_changeWhileLoadingBody_omitsEtag() {
+        String before = conditionalGet.etag(request(null, null), CatalogScope.BOOKS);
+
+        ResponseEntity<String> response = conditionalGet.respond(request(null, null), () -> {
+            catalogVersions.changed(CatalogScope.BOOKS);
+            return "книги до зміни";
+        }, CatalogScope.BOOKS);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("книги до зміни", response.getBody());
+        assertNull(response.getHeaders().getETag());
+        assertNotEquals(before, conditionalGet.etag(request(null, null), CatalogScope.BOOKS));
+    }
+
+    @Test
+    void etag_ignoresChangesInUnrelatedScopes() {
+        String before = conditionalGet.etag(request(null, null), CatalogScope.BOOKS);
+
+        catalogVersions.changed(CatalogScope.MEMBERS);
+
+        assertEquals(before, conditionalGet.etag(request(null, null), CatalogScope.BOOKS));
+        assertNotEquals(before, conditionalGet.etag(request(null, null), CatalogScope.BOOKS, CatalogScope.MEMBERS));
+    }
+
+    @Test
+    void etag_differsByAcceptHeader() {
+        assertNotEquals(conditionalGet.etag(request(null, "application/json"), CatalogScope.BOOKS),
+                conditionalGet.etag(request(null, "application/cbor"), CatalogScope.BOOKS));
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAvailabilityStreamTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookAvailabilityStream stream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new BookAvailabilityStream(meterRegistry, 4, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private LibraryEvent event(LibraryEventType type, long bookId, int copiesAmount) {
+        return event(eventIds.incrementAndGet(), type, bookId, copiesAmount);
+    }
+
+    private static LibraryEvent event(long id, LibraryEventType type, long bookId, int copiesAmount) {
+        return new LibraryEvent(id, type, bookId, null, null, copiesAmount, null);
+    }
+
+    // Емітер без HTTP-з'єднання, що запам'ятовує надіслані події
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch received) {
+            this(received, null);
+        }
+
+        RecordingEmitter(CountDownLatch received, CountDownLatch release) {
+            this.received = received;
+            this.release = release;
+        }
+
+        private static Object payload(SseEventBuilder builder) {
+            return builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .filter(BookAvailability.class::isInstance)
+                    .findFirst().orElseThrow();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+            received.countDown();
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+    }
+
+    @Test
+    void flush_tenThousandSubscribers_eachReceivesCoalescedUpdate() throws InterruptedException {
+        int subscribers = 10_000;
+        CountDownLatch received = new CountDownLatch(subscribers);
+        List<RecordingEmitter> emitters = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(received);
+            emitters.add(emitter);
+            // Половина стежить за конкретною книгою, половина — за всіма
+            stream.register(emitter, i % 2 == 0 ? Set.of(7L) : Set.of());
+        }
+        assertEquals(subscribers, stream.subscriberCount());
+
+        for (int copies = 10; copies > 0; copies--) {
+            stream.onEvent(event(LibraryEventType.BOOK_BORROWED, 7L, copies));
+        }
+        stream.flush();
+
+        assertTrue(received.await(30, TimeUnit.SECONDS));
+        for (RecordingEmitter emitter : emitters) {
+            assertEquals(1, emitter.sent.size());
+        }
+    }
+
+    @Test
+    void flush_subscriberForOtherBook_receivesNothing() throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(1);
+        RecordingEmitter watching = new RecordingEmitter(received);
+        RecordingEmitter other = new RecordingEmitter(new CountDownLatch(1));
+        stream.register(watching, Set.of(1L));
+        stream.register(other, Set.of(2L));
+
+        stream.onEvent(event(LibraryEventType.BOOK_RETURNED, 1L, 3));
+        stream.flush();
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertTrue(other.sent.isEmpty());
+    }
+
+    @Test
+    void onEvent_redeliveredOlderEvent_doesNotOverwriteNewerCount() throws InterruptedException {
+        CountDownLatch received = new CountDownLatch(2);
+        RecordingEmitter emitter = new RecordingEmitter(received);
+        stream.register(emitter, Set.of(1L));
+
+        stream.onEvent(event(11L, LibraryEventType.BOOK_BORROWED, 1L, 2));
+        // Повтор старішої події після невдалої першої доставки — і в тому ж вікні, і після розсилки
+        stream.onEvent(event(10L, LibraryEventType.BOOK_BORROWED, 1L, 3));
+        stream.flush();
+        stream.onEvent(event(10L, LibraryEventType.BOOK_BORROWED, 1L, 3));
+        stream.flush();
+        stream.onEvent(event(12L, LibraryEventType.BOOK_RETURNED, 1L, 3));
+        stream.flush();
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(new BookAvailability(1L, 2), new BookAvailability(1L, 3)),
+                emitter.sent.stream().map(RecordingEmitter::payload).toList());
+    }
+
+    @Test
+    void onEvent_ignoresEventsWithoutCopiesAmount() {
+        stream.register(new RecordingEmitter(new CountDownLatch(1)), Set.of());
+
+        stream.onEvent(new LibraryEvent(1L, LibraryEventType.BOOK_BORROWED, 1L, null, null, null, null));
+        stream.flush();
+
+        assertEquals(0.0, meterRegistry.counter("library.availability.subscribers.dropped").count());
+    }
+
+    @Test
+    void flush_slowSubscriber_isDisconnectedWhenBufferOverflows() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1), release);
+        stream.register(slow, Set.of());
+
+        // Перше оновлення блокує відправку, наступні заповнюють буфер на 4 елементи
+        for (long bookId = 1; bookId <= 10; bookId++) {
+            stream.onEvent(event(LibraryEventType.BOOK_CREATED, bookId, 1));
+            stream.flush();
+        }
+        release.countDown();
+
+        assertTrue(slow.completed);
+        assertEquals(0, stream.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("library.availability.subscribers.dropped").count());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.event;
+
+import com.example.entity.Book;
+import com.example.entity.OutboxDeadLetter;
+import com.example.repository.OutboxDeadLetterRepository;
+import com.example.repository.OutboxEventRepository;
+import com.example.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Пакет і буфер на одну подію: отруйна подія на початку outbox раніше блокувала б усе, що за нею
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxpoison",
+        "library.outbox.poll-interval-ms=20",
+        "library.outbox.batch-size=1",
+        "library.outbox.buffer-capacity=1",
+        "library.outbox.max-attempts=3",
+        "library.outbox.retry-backoff-ms=20",
+        "library.outbox.max-retry-backoff-ms=100",
+        "spring.jpa.show-sql=false"
+})
+class OutboxPoisonEventTest {
+    private static final Set<Long> delivered = ConcurrentHashMap.newKeySet();
+
+    @TestConfiguration
+    static class PoisonListenerConfig {
+        @Bean
+        LibraryEventListener poisonListener() {
+            return event -> {
+                // Жоден підписник не може обробити видалення: кожна спроба завершується помилкою
+                if (event.type() == LibraryEventType.BOOK_DELETED) {
+                    throw new IllegalStateException("poison");
+                }
+                if (event.type() == LibraryEventType.BOOK_CREATED) {
+                    delivered.add(event.bookId());
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Test
+    void poisonEvent_isDeadLettered_andLaterEventsAreDelivered() throws InterruptedException {
+        Book poison = bookService.createBook(new Book(null, "Отрута", "Невідомий Автор", 1));
+        bookService.deleteBook(poison.getId());
+        List<Long> healthy = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            healthy.add(bookService.createBook(new Book(null, "Книга " + i, "Тарас Шевченко", 1)).getId());
+        }
+
+        for (int attempt = 0; attempt < 200 && (!delivered.containsAll(healthy)
+                || outboxDeadLetterRepository.count() == 0 || outboxEventRepository.count() > 0); attempt++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue(delivered.containsAll(healthy), () -> "Доставлено " + delivered + " з " + healthy);
+        List<OutboxDeadLetter> deadLetters = outboxDeadLetterRepository.findAll();
+        assertEquals(1, deadLetters.size());
+        assertEquals(poison.getId(), deadLetters.get(0).getBookId());
+        assertEquals(LibraryEventType.BOOK_DELETED, deadLetters.get(0).getEventType());
+        assertEquals(3, deadLetters.get(0).getAttempts());
+        assertEquals(0, outboxEventRepository.count());
+    }
+}
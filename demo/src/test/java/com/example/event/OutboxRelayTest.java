@@ -0,0 +1,129 @@
+package com.example.event;
+
+import com.example.entity.OutboxDeadLetter;
+import com.example.entity.OutboxEvent;
+import com.example.repository.OutboxDeadLetterRepository;
+import com.example.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxDeadLetterRepository outboxDeadLetterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<LibraryEvent> received = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private OutboxRelay relay(LibraryEventListener listener) {
+        return new OutboxRelay(outboxEventRepository, outboxDeadLetterRepository,
+                new TransactionTemplate(transactionManager), List.of(listener), meterRegistry, 100, 16, 3, 1000, 60000);
+    }
+
+    private OutboxEvent event(long id, LibraryEventType type) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventType(type);
+        event.setBookId(10L);
+        event.setCopiesAmount(3);
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    @Test
+    void dispatch_deliversEventsInOrderAndDeletesThem() {
+        OutboxRelay relay = relay(received::add);
+
+        relay.dispatch(List.of(event(1L, LibraryEventType.BOOK_BORROWED), event(2L, LibraryEventType.BOOK_RETURNED)));
+
+        assertEquals(2, received.size());
+        assertEquals(LibraryEventType.BOOK_BORROWED, received.get(0).type());
+        assertEquals(LibraryEventType.BOOK_RETURNED, received.get(1).type());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2.0, meterRegistry.counter("library.outbox.dispatched").count());
+    }
+
+    @Test
+    void dispatch_failedEventIsRetriedWithBackoff() {
+        OutboxRelay relay = relay(event -> {
+            if (event.id() == 2L) {
+                throw new IllegalStateException("subscriber down");
+            }
+            received.add(event);
+        });
+
+        relay.dispatch(List.of(event(1L, LibraryEventType.BOOK_CREATED), event(2L, LibraryEventType.BOOK_DELETED)));
+
+        assertEquals(1, received.size());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxEventRepository).scheduleRetry(eq(2L), eq(1),
+                argThat(next -> next.isAfter(Instant.now().plusMillis(500))));
+        assertEquals(1.0, meterRegistry.counter("library.outbox.failed").count());
+        verifyNoInteractions(outboxDeadLetterRepository);
+    }
+
+    @Test
+    void dispatch_backoffGrowsWithAttempts() {
+        OutboxEvent event = event(5L, LibraryEventType.BOOK_UPDATED);
+        event.setAttempts(1);
+
+        relay(failing -> {
+            throw new IllegalStateException("subscriber down");
+        }).dispatch(List.of(event));
+
+        verify(outboxEventRepository).scheduleRetry(eq(5L), eq(2),
+                argThat(next -> next.isAfter(Instant.now().plusMillis(1500))));
+    }
+
+    @Test
+    void dispatch_lastAttempt_movesEventToDeadLetter() {
+        OutboxEvent event = event(4L, LibraryEventType.BOOK_UPDATED);
+        event.setAttempts(2);
+
+        relay(failing -> {
+            throw new IllegalStateException("poison");
+        }).dispatch(List.of(event));
+
+        verify(outboxDeadLetterRepository).save(argThat((OutboxDeadLetter deadLetter) ->
+                deadLetter.getEventId() == 4L && deadLetter.getAttempts() == 3
+                        && deadLetter.getLastError().contains("poison")));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+        verify(outboxEventRepository, never()).scheduleRetry(any(), anyInt(), any());
+        assertEquals(1.0, meterRegistry.counter("library.outbox.dead-lettered").count());
+    }
+
+    @Test
+    void poll_notRunning_doesNotQueryOutbox() {
+        relay(received::add).poll();
+
+        verify(outboxEventRepository, never()).findReady(any(), any());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.exception;
+
+import com.example.admission.EndpointClass;
+import com.example.dto.ApiError;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void domainException_isPreallocatedAndStackless() {
+        DomainException ex = DomainException.of(ErrorCode.BOOK_UNAVAILABLE);
+
+        assertSame(ex, DomainException.of(ErrorCode.BOOK_UNAVAILABLE));
+        assertEquals(0, ex.getStackTrace().length);
+        assertInstanceOf(ValidationException.class, ex);
+    }
+
+    @Test
+    void handleDomainException_returnsPrecomputedResponse() {
+        ResponseEntity<ApiError> first = handler.handleDomainException(DomainException.of(ErrorCode.MEMBER_NOT_FOUND));
+        ResponseEntity<ApiError> second = handler.handleDomainException(DomainException.of(ErrorCode.MEMBER_NOT_FOUND));
+
+        assertSame(first, second);
+        assertEquals(HttpStatus.NOT_FOUND, first.getStatusCode());
+        assertEquals(new ApiError("MEMBER_NOT_FOUND", "Учасника не знайдено"), first.getBody());
+    }
+
+    @Test
+    void handleValidationException_keepsMessage() {
+        ResponseEntity<ApiError> response = handler.handleValidationException(new ValidationException("Порожня назва"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(new ApiError("VALIDATION_FAILED", "Порожня назва"), response.getBody());
+    }
+
+    @Test
+    void handleInvalidRequest_namesOffendingParameterOrHeader() throws NoSuchMethodException {
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionHandlerTest.class.getDeclaredMethod("handler", String.class, int.class), 1);
+
+        assertEquals(new ApiError("INVALID_REQUEST", "Некоректний запит: відсутній параметр 'memberId'"),
+                handler.handleInvalidRequest(new MissingServletRequestParameterException("memberId", "Long")).getBody());
+        assertEquals(new ApiError("INVALID_REQUEST", "Некоректний запит: відсутній заголовок 'Idempotency-Key'"),
+                handler.handleInvalidRequest(new MissingRequestHeaderException("Idempotency-Key", parameter)).getBody());
+        ResponseEntity<ApiError> mismatch = handler.handleInvalidRequest(
+                new MethodArgumentTypeMismatchException("abc", int.class, "page", parameter, null));
+        assertEquals(HttpStatus.BAD_REQUEST, mismatch.getStatusCode());
+        assertEquals("Некоректний запит: некоректне значення параметра 'page'", mismatch.getBody().error());
+    }
+
+    @SuppressWarnings("unused")
+    private static void handler(String idempotencyKey, int page) {
+    }
+
+    @Test
+    void handleEntityNotFound_returns404() {
+        ResponseEntity<ApiError> response = handler.handleEntityNotFound(
+                new EntityNotFoundException("Книгу з ID 1 не знайдено"));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("NOT_FOUND", response.getBody().code());
+    }
+
+    @Test
+    void handleRateLimitExceeded_roundsRetryAfterUp() {
+        ResponseEntity<ApiError> response = handler.handleRateLimitExceeded(
+                new RateLimitExceededException(Duration.ofMillis(1_200)));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("RATE_LIMITED", response.getBody().code());
+    }
+
+    @Test
+    void handleBulkheadRejected_returns503WithRetryAfter() {
+        ResponseEntity<ApiError> response = handler.handleBulkheadRejected(
+                new BulkheadRejectedException(EndpointClass.HEAVY_READ, Duration.ofSeconds(5)));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("OVERLOADED", response.getBody().code());
+    }
+}
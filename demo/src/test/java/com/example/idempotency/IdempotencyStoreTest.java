@@ -0,0 +1,151 @@
+package com.example.idempotency;
+
+import com.example.exception.ValidationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger executions = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new IdempotencyStore(meterRegistry, 1_000, 3, 5_000, clock::get);
+    }
+
+    private String borrow() {
+        return "loan-" + executions.incrementAndGet();
+    }
+
+    @Test
+    void execute_repeatedKey_replaysFirstResult() {
+        String first = store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        String second = store.execute("borrow:client", "key-1", "1:2", this::borrow);
+
+        assertEquals("loan-1", first);
+        assertEquals("loan-1", second);
+        assertEquals(1, executions.get());
+        assertEquals(1.0, meterRegistry.counter("library.idempotency.replayed").count());
+    }
+
+    @Test
+    void execute_sameKeyDifferentParameters_throwsValidationException() {
+        store.execute("borrow:client", "key-1", "1:2", this::borrow);
+
+        assertThrows(ValidationException.class,
+                () -> store.execute("borrow:client", "key-1", "1:3", this::borrow));
+    }
+
+    @Test
+    void execute_differentScopes_doNotShareKeys() {
+        store.execute("borrow:a", "key-1", "1:2", this::borrow);
+        store.execute("borrow:b", "key-1", "1:2", this::borrow);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_failedExecution_isNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> store.execute("borrow:client", "key-1", "1:2", () -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals("loan-1", store.execute("borrow:client", "key-1", "1:2", this::borrow));
+    }
+
+    @Test
+    void execute_afterTtl_executesAgain() {
+        store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals("loan-2", store.execute("borrow:client", "key-1", "1:2", this::borrow));
+    }
+
+    @Test
+    void evict_afterKeyReuse_stillExpiresOlderKeys() {
+        store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        store.execute("borrow:client", "key-2", "1:3", this::borrow);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(700));
+        // key-1 прострочений і використовується знову, поки key-2 ще живий
+        store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+
+        store.evict();
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void evict_afterKeyReuse_overflowEvictsOldestLiveEntry() {
+        store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        store.execute("borrow:client", "key-2", "1:3", this::borrow);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(700));
+        String reused = store.execute("borrow:client", "key-1", "1:2", this::borrow);
+        store.execute("borrow:client", "key-3", "1:4", this::borrow);
+        store.execute("borrow:client", "key-4", "1:5", this::borrow);
+
+        assertEquals(3, store.size());
+        assertEquals(reused, store.execute("borrow:client", "key-1", "1:2", this::borrow));
+    }
+
+    @Test
+    void evict_keepsStoreWithinMaxEntries() {
+        for (int i = 0; i < 10; i++) {
+            store.execute("borrow:client", "key-" + i, "1:2", this::borrow);
+        }
+
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void execute_concurrentDuplicates_waitForInFlightExecution() throws Exception {
+        int duplicates = 50;
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(duplicates);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> store.execute("borrow:client", "key-1", "1:2", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return borrow();
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < duplicates; i++) {
+                results.add(executor.submit(() -> store.execute("borrow:client", "key-1", "1:2", this::borrow)));
+            }
+
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("loan-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
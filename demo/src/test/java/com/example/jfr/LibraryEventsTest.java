@@ -0,0 +1,158 @@
+package com.example.jfr;
+
+import com.example.entity.Book;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import com.example.validator.BookValidator;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryEventsTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        recording = new Recording();
+        for (Class<? extends jdk.jfr.Event> type : List.of(BorrowBookEvent.class, ReturnBookEvent.class,
+                CreateBookEvent.class, UpdateBookEvent.class, ValidationEvent.class)) {
+            recording.enable(type).withThreshold(Duration.ZERO);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+    }
+
+    private List<RecordedEvent> stop() throws IOException {
+        recording.stop();
+        Path file = tempDir.resolve("library.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.example.library."))
+                .toList();
+    }
+
+    @Test
+    void events_areDisabledWithoutRecording() {
+        assertFalse(new BorrowBookEvent(1L, 2L).isEnabled());
+        assertFalse(new ValidationEvent().isEnabled());
+    }
+
+    @Test
+    void borrowBook_recordsIdsOutcomeAndSqlCount() throws IOException {
+        recording.start();
+        SqlStatementCounter counter = new SqlStatementCounter();
+
+        BorrowBookEvent event = new BorrowBookEvent(3L, 7L);
+        event.start();
+        counter.inspect("select * from member where id=?");
+        counter.inspect("select * from book where id=?");
+        event.borrowed(42L);
+        event.finish();
+
+        RecordedEvent recorded = stop().getFirst();
+        assertEquals("com.example.library.BorrowBook", recorded.getEventType().getName());
+        assertEquals(3L, recorded.getLong("memberId"));
+        assertEquals(7L, recorded.getLong("bookId"));
+        assertEquals(42L, recorded.getLong("borrowingId"));
+        assertEquals("BORROWED", recorded.getString("outcome"));
+        assertEquals(2, recorded.getInt("sqlStatements"));
+        // Службові поля не потрапляють у запис
+        assertFalse(recorded.hasField("sqlAtStart"));
+        assertFalse(recorded.hasField("failed"));
+    }
+
+    @Test
+    void failedOperation_recordsErrorCode() throws IOException {
+        recording.start();
+
+        ReturnBookEvent event = new ReturnBookEvent(9L);
+        event.start();
+        event.failed(DomainException.of(ErrorCode.BORROWING_NOT_FOUND));
+        event.finish();
+
+        assertEquals("BORROWING_NOT_FOUND", stop().getFirst().getString("outcome"));
+    }
+
+    @Test
+    void insideTransaction_eventIsCommittedAfterCompletion() throws IOException {
+        recording.start();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            UpdateBookEvent event = new UpdateBookEvent(5L);
+            event.start();
+            event.updatedInPlace();
+            event.finish();
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals("ROLLED_BACK", stop().getFirst().getString("outcome"));
+    }
+
+    @Test
+    void validator_recordsErrorCount() throws IOException {
+        recording.start();
+        Book book = new Book(null, "ab", "одне", 1);
+
+        new BookValidator().validate(book, new BeanPropertyBindingResult(book, "book"));
+
+        RecordedEvent recorded = stop().getFirst();
+        assertEquals("BookValidator", recorded.getString("validator"));
+        assertEquals("INVALID", recorded.getString("outcome"));
+        assertEquals(3, recorded.getInt("errors"));
+    }
+
+    @Test
+    void analyzer_groupsByOperationAndOutcome() throws IOException {
+        recording.start();
+        for (long id = 1; id <= 3; id++) {
+            CreateBookEvent event = new CreateBookEvent();
+            event.start();
+            if (id == 3) {
+                event.deduplicated(1L);
+            } else {
+                event.inserted(id);
+            }
+            event.finish();
+        }
+        recording.stop();
+        Path file = tempDir.resolve("analyzer.jfr");
+        recording.dump(file);
+
+        List<RecordingAnalyzer.Row> rows = RecordingAnalyzer.summarize(file);
+
+        assertEquals(2, rows.size());
+        assertEquals("CreateBook", rows.get(0).operation());
+        assertEquals("DEDUPLICATED", rows.get(0).outcome());
+        assertEquals(1, rows.get(0).count());
+        assertEquals("INSERTED", rows.get(1).outcome());
+        assertEquals(2, rows.get(1).count());
+        assertTrue(RecordingAnalyzer.format(rows).contains("INSERTED"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.projection;
+
+import com.example.entity.Book;
+import com.example.exception.ValidationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionCatalogTest {
+
+    private final ProjectionCatalog<Book> catalog = new ProjectionCatalog<Book>()
+            .field("id", root -> root.get("id"))
+            .field("title", root -> root.get("title"))
+            .field("author", root -> root.get("author"));
+
+    @Test
+    void resolve_ordersFieldsCanonicallyAndCachesProjection() {
+        Projection<Book> first = catalog.resolve("title, id");
+        Projection<Book> second = catalog.resolve("id,title,id");
+
+        assertSame(first, second);
+        assertEquals(List.of("id", "title"), first.names());
+    }
+
+    @Test
+    void resolve_unknownField_throwsValidationException() {
+        ValidationException ex = assertThrows(ValidationException.class, () -> catalog.resolve("id,titleKey"));
+
+        assertTrue(ex.getMessage().contains("titleKey"));
+    }
+
+    @Test
+    void resolve_noFields_throwsValidationException() {
+        assertThrows(ValidationException.class, () -> catalog.resolve(" , "));
+    }
+
+    @Test
+    void sparseRow_serializesOnlyProjectedFields() throws Exception {
+        Projection<Book> projection = catalog.resolve("author,id");
+        SparseRow row = projection.row(new Object[]{7L, "Іван Франко"});
+
+        assertEquals("{\"id\":7,\"author\":\"Іван Франко\"}", new ObjectMapper().writeValueAsString(row));
+
+        ObjectMapper smile = new ObjectMapper(new SmileFactory());
+        assertEquals(Map.of("id", 7, "author", "Іван Франко"),
+                smile.readValue(smile.writeValueAsBytes(row), Map.class));
+    }
+}
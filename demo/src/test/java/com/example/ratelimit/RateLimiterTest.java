@@ -0,0 +1,186 @@
+package com.example.ratelimit;
+
+import com.example.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties(Map.of(
+                "borrow", new RateLimitProperties.Route(1, 3, 100, 100, 1_000)));
+        rateLimiter = new RateLimiter(properties, meterRegistry, clock::get);
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void check_burstExhausted_throwsWithRetryAfter() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.check("borrow", 1L, "client");
+        }
+
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.check("borrow", 1L, "client"));
+
+        assertEquals(Duration.ofSeconds(1), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.counter("library.ratelimit.rejected", "route", "borrow").count());
+    }
+
+    @Test
+    void check_tokensRefillOverTime() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.check("borrow", 1L, "client");
+        }
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.check("borrow", 1L, "client"));
+
+        advance(Duration.ofSeconds(1));
+
+        assertDoesNotThrow(() -> rateLimiter.check("borrow", 1L, "client"));
+    }
+
+    @Test
+    void check_membersHaveIndependentBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.check("borrow", 1L, "client");
+        }
+
+        assertDoesNotThrow(() -> rateLimiter.check("borrow", 2L, "client"));
+    }
+
+    @Test
+    void check_unknownRoute_isNotLimited() {
+        for (int i = 0; i < 1_000; i++) {
+            rateLimiter.check("return", 1L, "client");
+        }
+    }
+
+    @Test
+    void check_clientLimitAppliesWithoutMember() {
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(Map.of(
+                "return", new RateLimitProperties.Route(1, 1, 1, 2, 1_000))), meterRegistry, clock::get);
+
+        limiter.check("return", null, "client");
+        limiter.check("return", null, "client");
+
+        assertThrows(RateLimitExceededException.class, () -> limiter.check("return", null, "client"));
+        assertDoesNotThrow(() -> limiter.check("return", null, "other"));
+    }
+
+    @Test
+    void sweep_removesOnlyRefilledBuckets() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 2, 1_000, clock::get);
+        limiter.tryAcquire("a");
+        advance(Duration.ofMillis(500));
+        limiter.tryAcquire("b");
+
+        advance(Duration.ofMillis(600));
+
+        assertEquals(1, limiter.sweep());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void tryAcquire_beyondMaxBuckets_evictsIdleBucketFirst() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2, clock::get);
+        limiter.tryAcquire(1L);
+        advance(Duration.ofMillis(500));
+        limiter.tryAcquire(2L);
+        advance(Duration.ofMillis(600));
+
+        assertEquals(0, limiter.tryAcquire(3L));
+        assertEquals(2, limiter.size());
+        // Відро 2 не витіснено, тож його ліміт діє далі
+        assertTrue(limiter.tryAcquire(2L) > 0);
+    }
+
+    @Test
+    void tryAcquire_beyondMaxBuckets_newKeysDoNotShareBucket() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2, clock::get);
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(2L));
+
+        assertEquals(0, limiter.tryAcquire(3L));
+        assertEquals(0, limiter.tryAcquire(4L));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void sweep_nearMaxBuckets_evictsLeastRecentlyUsedDownToWatermark() {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 32, clock::get);
+        for (long key = 1; key <= 32; key++) {
+            limiter.tryAcquire(key);
+            advance(Duration.ofMillis(10));
+        }
+
+        assertEquals(2, limiter.sweep());
+
+        assertEquals(30, limiter.size());
+        // Витіснено два найстаріші відра, решта зберегла свій ліміт
+        assertEquals(0, limiter.tryAcquire(1L));
+        assertEquals(0, limiter.tryAcquire(2L));
+        assertTrue(limiter.tryAcquire(3L) > 0);
+    }
+
+    @Test
+    void tryAcquire_fullWhileAnotherThreadHoldsHand_usesSharedBucketWithoutGrowing() throws Exception {
+        KeyedRateLimiter limiter = new KeyedRateLimiter(1, 1, 2, clock::get);
+        limiter.tryAcquire(1L);
+        limiter.tryAcquire(2L);
+        ReentrantLock hand = (ReentrantLock) ReflectionTestUtils.getField(limiter, "handLock");
+
+        hand.lock();
+        try {
+            long[] waits = new long[2];
+            Thread other = new Thread(() -> {
+                waits[0] = limiter.tryAcquire(3L);
+                waits[1] = limiter.tryAcquire(4L);
+            });
+            other.start();
+            other.join();
+
+            assertEquals(0, waits[0]);
+            assertTrue(waits[1] > 0);
+            assertEquals(2, limiter.size());
+        } finally {
+            hand.unlock();
+        }
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(0, 1, 2, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(-1, 1, 2, clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(Double.NaN, 1, 2, clock::get));
+    }
+
+    @Test
+    void check_memberLimited_doesNotSpendClientTokens() {
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(Map.of(
+                "borrow", new RateLimitProperties.Route(1, 1, 1, 2, 1_000))), meterRegistry, clock::get);
+        limiter.check("borrow", 1L, "client");
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RateLimitExceededException.class, () -> limiter.check("borrow", 1L, "client"));
+        }
+
+        assertDoesNotThrow(() -> limiter.check("borrow", 2L, "client"));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.readmodel;
+
+import com.example.dto.MemberLoansResponse;
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BookService;
+import com.example.service.BorrowingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Після кожного шторму модель у пам'яті має збігатися з БД для кожного учасника
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:memberloansconsistency",
+        "library.max.books.per.member=3",
+        "spring.jpa.show-sql=false"
+})
+class MemberLoansConsistencyTest {
+    private static final int LIMIT = 3;
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 1500;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberLoansViewLoader memberLoansViewLoader;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger names = new AtomicInteger();
+
+    private Book book(int copies) {
+        return bookRepository.save(new Book(null, "Книга " + names.incrementAndGet(), "Тарас Шевченко", copies));
+    }
+
+    // Учасників створено повз сервіс, тож модель дізнається про них лише з перебудови
+    private Member member() {
+        return memberRepository.save(new Member(0, "Читач " + names.incrementAndGet(), null));
+    }
+
+    private void assertMatchesDatabase(List<Member> members) {
+        for (Member member : members) {
+            List<Long> expected = jdbcTemplate.queryForList(
+                    "select id from borrowed_book where member_id = ? order by id", Long.class, member.getId());
+            MemberLoansResponse loans = borrowingService.getMemberLoans(member.getId());
+
+            assertEquals(member.getName(), loans.memberName());
+            assertEquals(expected, loans.loans().stream().map(MemberLoansResponse.Loan::borrowingId).toList(),
+                    () -> "позичення учасника " + member.getId());
+            assertEquals(expected.size(), loans.loanCount());
+            assertEquals(LIMIT - expected.size(), loans.remainingAllowance());
+        }
+    }
+
+    @Test
+    void borrowReturnStorm_withConcurrentRebuild_viewMatchesDatabase() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(book(4));
+        }
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            members.add(member());
+        }
+        memberLoansViewLoader.rebuild();
+
+        ConcurrentLinkedQueue<Long> loans = new ConcurrentLinkedQueue<>();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                SplittableRandom random = new SplittableRandom(7 + t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (next.getAndIncrement() < OPERATIONS) {
+                        // peek дозволяє кільком потокам повертати те саме позичення
+                        Long loan = random.nextInt(100) < 45 ? (random.nextBoolean() ? loans.poll() : loans.peek()) : null;
+                        try {
+                            if (loan != null) {
+                                borrowingService.returnBook(loan);
+                            } else {
+                                Member member = members.get(random.nextInt(members.size()));
+                                Book book = books.get(random.nextInt(books.size()));
+                                loans.add(borrowingService.borrowBook(member.getId(), book.getId()).getId());
+                            }
+                        } catch (DomainException e) {
+                            assertTrue(e.getErrorCode() == ErrorCode.BOOK_UNAVAILABLE
+                                    || e.getErrorCode() == ErrorCode.BORROW_LIMIT_EXCEEDED
+                                    || e.getErrorCode() == ErrorCode.BORROWING_NOT_FOUND, e::toString);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Перебудова посеред шторму не повинна повертати вже повернені позичення
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (next.get() < OPERATIONS / 2) {
+                    Thread.sleep(5);
+                }
+                memberLoansViewLoader.rebuild();
+                return null;
+            }));
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertMatchesDatabase(members);
+    }
+
+    @Test
+    void rebuild_picksUpLoansWrittenPastServices() throws InterruptedException {
+        Member member = member();
+        Book book = book(2);
+        jdbcTemplate.update("insert into borrowed_book (member_id, book_id) values (?, ?)", member.getId(), book.getId());
+
+        memberLoansViewLoader.rebuild();
+
+        assertMatchesDatabase(List.of(member));
+        MemberLoansResponse.Loan loan = borrowingService.getMemberLoans(member.getId()).loans().get(0);
+        assertEquals(book.getId(), loan.bookId());
+        assertEquals(book.getTitle(), loan.title());
+        assertEquals("Тарас Шевченко", loan.author());
+    }
+
+    @Test
+    void mergeBookWithActiveLoan_loanMovesToSurvivingBook() throws InterruptedException {
+        Member member = member();
+        memberLoansViewLoader.rebuild();
+        // Через сервіс, щоб фільтри ключів знали про обидві книги і перейменування дійшло до злиття
+        Book merged = bookService.createBook(new Book(null, "Кобзар (перше видання)", "Тарас Шевченко", 1));
+        Book surviving = bookService.createBook(new Book(null, "Кобзар", "Тарас Шевченко", 1));
+        long borrowingId = borrowingService.borrowBook(member.getId(), merged.getId()).getId();
+
+        Book result = bookService.updateBook(merged.getId(), new Book(null, "кобзар", "Тарас Шевченко", 0));
+
+        assertEquals(surviving.getId(), result.getId());
+        assertMatchesDatabase(List.of(member));
+        MemberLoansResponse.Loan loan = borrowingService.getMemberLoans(member.getId()).loans().get(0);
+        assertEquals(surviving.getId(), loan.bookId());
+        assertEquals("Кобзар", loan.title());
+
+        borrowingService.returnBook(borrowingId);
+
+        assertEquals(0, borrowingService.getMemberLoans(member.getId()).loanCount());
+        // Примірник злитої книги повертається до книги, що лишилася
+        assertEquals(2, bookRepository.findById(surviving.getId()).orElseThrow().getCopiesAmount());
+    }
+
+    @Test
+    void getMemberLoans_unknownMember_throwsMemberNotFound() {
+        DomainException ex = assertThrows(DomainException.class, () -> borrowingService.getMemberLoans(-1L));
+        assertEquals(ErrorCode.MEMBER_NOT_FOUND, ex.getErrorCode());
+    }
+}
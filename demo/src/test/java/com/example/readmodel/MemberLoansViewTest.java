@@ -0,0 +1,231 @@
+package com.example.readmodel;
+
+import com.example.dto.MemberLoansResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemberLoansViewTest {
+
+    private MemberLoansView view;
+
+    @BeforeEach
+    void setUp() {
+        view = new MemberLoansView(3);
+        view.startRebuild();
+        view.finishRebuild(true);
+    }
+
+    private List<Long> borrowingIds(long memberId) {
+        return view.find(memberId).orElseThrow().loans().stream().map(MemberLoansResponse.Loan::borrowingId).toList();
+    }
+
+    @Test
+    void loanAdded_countsLoansAndRemainingAllowance() {
+        view.memberSaved(1L, "Тарас Шевченко");
+        view.loanAdded(11L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+        view.loanAdded(10L, 1L, 101L, "Гайдамаки", "Тарас Шевченко");
+
+        MemberLoansResponse loans = view.find(1L).orElseThrow();
+
+        assertEquals("Тарас Шевченко", loans.memberName());
+        assertEquals(2, loans.loanCount());
+        assertEquals(1, loans.remainingAllowance());
+        assertEquals(List.of(10L, 11L), borrowingIds(1L));
+        assertEquals("Гайдамаки", loans.loans().get(0).title());
+    }
+
+    @Test
+    void loanAdded_sameBorrowingTwice_isCountedOnce() {
+        view.memberSaved(1L, "Тарас Шевченко");
+        view.loanAdded(10L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+        view.loanAdded(10L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+
+        assertEquals(1, view.find(1L).orElseThrow().loanCount());
+    }
+
+    @Test
+    void loanRemoved_beforeLoanAdded_loanNeverAppears() {
+        view.memberSaved(1L, "Тарас Шевченко");
+
+        // Хуки різних транзакцій не впорядковані: повернення може випередити позичення
+        view.loanRemoved(10L, 1L);
+        view.loanAdded(10L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+
+        assertEquals(0, view.find(1L).orElseThrow().loanCount());
+        assertEquals(3, view.find(1L).orElseThrow().remainingAllowance());
+    }
+
+    @Test
+    void bookChanged_updatesTitleForEveryBorrower_andOlderTitleDoesNotWin() {
+        view.memberSaved(1L, "Тарас Шевченко");
+        view.memberSaved(2L, "Леся Українка");
+        view.loanAdded(10L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+
+        view.bookChanged(100L, "Кобзар Повний", "Тарас Шевченко");
+        view.loanAdded(11L, 2L, 100L, "Кобзар", "Тарас Шевченко");
+
+        assertEquals("Кобзар Повний", view.find(1L).orElseThrow().loans().get(0).title());
+        assertEquals("Кобзар Повний", view.find(2L).orElseThrow().loans().get(0).title());
+    }
+
+    @Test
+    void bookMerged_movesLoansToSurvivingBook_andLateLoanFollows() {
+        view.memberSaved(1L, "Тарас Шевченко");
+        view.memberSaved(2L, "Леся Українка");
+        view.loanAdded(10L, 1L, 100L, "Кобзар (перше видання)", "Тарас Шевченко");
+
+        view.bookMerged(100L, 101L, "Кобзар", "Тарас Шевченко");
+        // Хук позичення, закоміченого до злиття, виконався вже після нього
+        view.loanAdded(11L, 2L, 100L, "Кобзар (перше видання)", "Тарас Шевченко");
+
+        for (long memberId : List.of(1L, 2L)) {
+            MemberLoansResponse.Loan loan = view.find(memberId).orElseThrow().loans().get(0);
+            assertEquals(101L, loan.bookId());
+            assertEquals("Кобзар", loan.title());
+        }
+        assertEquals(1, view.bookCount());
+    }
+
+    @Test
+    void bookEntries_withoutLoans_arePrunedAfterTombstoneTtl() {
+        AtomicLong now = new AtomicLong();
+        view = new MemberLoansView(3, now::get);
+        view.memberSaved(1L, "Тарас Шевченко");
+        view.loanAdded(10L, 1L, 100L, "Кобзар", "Тарас Шевченко");
+        view.loanAdded(11L, 1L, 101L, "Гайдамаки", "Тарас Шевченко");
+        view.bookChanged(102L, "Катерина", "Тарас Шевченко");
+        view.bookRemoved(102L);
+        assertEquals(2, view.bookCount());
+
+        view.loanRemoved(10L, 1L);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        view.loanRemoved(12L, 1L);
+
+        // Книга, на яку ще посилається позичення, лишається
+        assertEquals(1, view.bookCount());
+        assertEquals("Гайдамаки", view.find(1L).orElseThrow().loans().get(0).title());
+    }
+
+    @Test
+    void memberDeleted_removesMember() {
+        view.memberSaved(1L, "Тарас Шевченко");
+
+        view.memberDeleted(1L);
+
+        assertTrue(view.find(1L).isEmpty());
+    }
+
+    @Test
+    void rebuild_notReadyUntilFinished_andFailedRebuildStaysNotReady() {
+        MemberLoansView fresh = new MemberLoansView(3);
+        assertFalse(fresh.isReady());
+
+        fresh.startRebuild();
+        assertFalse(fresh.isReady());
+        fresh.finishRebuild(false);
+        assertFalse(fresh.isReady());
+
+        fresh.startRebuild();
+        fresh.finishRebuild(true);
+        assertTrue(fresh.isReady());
+    }
+
+    @Test
+    void rebuild_hookStateIsNewerThanSnapshot() {
+        MemberLoansView fresh = new MemberLoansView(3);
+        fresh.startRebuild();
+
+        // Учасника перейменовано, видалено, а позичення повернено після того, як завантажувач прочитав рядки
+        fresh.memberSaved(1L, "Нове Ім'я");
+        fresh.memberSaved(2L, "Леся Українка");
+        fresh.memberDeleted(2L);
+        fresh.memberLoaded(3L, "Іван Франко");
+        fresh.loanLoaded(20L, 3L, 100L, "Кобзар", "Тарас Шевченко");
+        fresh.loanRemoved(20L, 3L);
+        fresh.loanRemoved(21L, 3L);
+
+        fresh.memberLoaded(1L, "Старе Ім'я");
+        fresh.memberLoaded(2L, "Леся Українка");
+        fresh.loanLoaded(30L, 2L, 100L, "Кобзар", "Тарас Шевченко");
+        fresh.loanLoaded(20L, 3L, 100L, "Кобзар", "Тарас Шевченко");
+        fresh.loanLoaded(21L, 3L, 100L, "Кобзар", "Тарас Шевченко");
+        fresh.loanLoaded(22L, 3L, 101L, "Гайдамаки", "Тарас Шевченко");
+        fresh.finishRebuild(true);
+
+        assertEquals("Нове Ім'я", fresh.find(1L).orElseThrow().memberName());
+        assertTrue(fresh.find(2L).isEmpty());
+        assertEquals(List.of(22L), fresh.find(3L).orElseThrow().loans().stream()
+                .map(MemberLoansResponse.Loan::borrowingId).toList());
+    }
+
+    @Test
+    void concurrentWrites_readersNeverSeeTornSnapshot() throws Exception {
+        int writers = 4;
+        int rounds = 5_000;
+        view = new MemberLoansView(writers);
+        view.startRebuild();
+        view.finishRebuild(true);
+        view.memberSaved(1L, "Тарас Шевченко");
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                long base = (long) w * rounds;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // Кожен потік позичає та повертає свої позичення; на руках лишається лише останнє
+                    for (long i = 1; i <= rounds; i++) {
+                        view.loanAdded(base + i, 1L, i % 7, "Кобзар", "Тарас Шевченко");
+                        if (i < rounds) {
+                            view.loanRemoved(base + i, 1L);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> reader = executor.submit(() -> {
+                start.await();
+                int reads = 0;
+                do {
+                    MemberLoansResponse loans = view.find(1L).orElseThrow();
+                    assertEquals(loans.loans().size(), loans.loanCount());
+                    assertEquals(writers - loans.loanCount(), loans.remainingAllowance());
+                    assertTrue(loans.loanCount() <= writers);
+                    reads++;
+                } while (writing.get());
+                return reads;
+            });
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertTrue(reader.get(60, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            expected.add((long) w * rounds + rounds);
+        }
+        assertEquals(expected, borrowingIds(1L));
+        assertEquals(0, view.find(1L).orElseThrow().remainingAllowance());
+    }
+}
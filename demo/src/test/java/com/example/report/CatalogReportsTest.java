@@ -0,0 +1,173 @@
+package com.example.report;
+
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.exception.ValidationException;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BorrowingService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Маленький фрагмент і кілька потоків, щоб звіт справді ділився й зливався
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:catalogreports",
+        "library.report.parallelism=3",
+        "library.report.chunk-size=7",
+        "library.max.books.per.member=3",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CatalogReportsTest {
+    private static final String[] AUTHORS = {"Тарас Шевченко", "Леся Українка", "Іван Франко", "Ольга Кобилянська"};
+
+    @Autowired
+    private CatalogReports catalogReports;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void seed() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            books.add(bookRepository.save(new Book(null, "Книга " + i, AUTHORS[i % AUTHORS.length], i % 5)));
+        }
+        // Видалені рядки лишають дірки в ID, які фрагменти мають пропускати
+        bookRepository.deleteAll(books.subList(20, 25));
+
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            members.add(memberRepository.save(new Member(0, "Читач " + i, null)));
+        }
+        int next = 0;
+        for (int m = 0; m < members.size(); m++) {
+            for (int loan = 0; loan < m % 4; loan++) {
+                while (books.get(next % books.size()).getCopiesAmount() == 0 || (next % books.size() >= 20 && next % books.size() < 25)) {
+                    next++;
+                }
+                Book book = books.get(next % books.size());
+                borrowingService.borrowBook(members.get(m).getId(), book.getId());
+                book.setCopiesAmount(book.getCopiesAmount() - 1);
+                next++;
+            }
+        }
+    }
+
+    private static <T> List<T> collect(ReportStream<T> report) {
+        List<T> rows = new ArrayList<>();
+        report.forEach(rows::add);
+        return rows;
+    }
+
+    @Test
+    void copiesPerAuthor_matchesDatabaseTotals() {
+        Map<String, long[]> expected = new TreeMap<>();
+        jdbcTemplate.query("select author, copies_amount from book", rs -> {
+            long[] totals = expected.computeIfAbsent(rs.getString(1), author -> new long[3]);
+            totals[0]++;
+            totals[1] += rs.getInt(2);
+            totals[2] += rs.getInt(2) == 0 ? 1 : 0;
+        });
+
+        List<AuthorCopies> report = collect(catalogReports.copiesPerAuthor());
+
+        assertEquals(expected.size(), report.size());
+        for (AuthorCopies row : report) {
+            long[] totals = expected.get(row.author());
+            assertEquals(totals[0], row.titles(), row::author);
+            assertEquals(totals[1], row.copies(), row::author);
+            assertEquals(totals[2], row.titlesWithoutCopies(), row::author);
+        }
+        assertEquals(report.stream().sorted(Comparator.comparingLong(AuthorCopies::copies).reversed()
+                .thenComparing(AuthorCopies::author)).toList(), report);
+    }
+
+    @Test
+    void booksWithoutCopies_inIdOrder() {
+        List<Long> expected = jdbcTemplate.queryForList(
+                "select id from book where copies_amount = 0 order by id", Long.class);
+
+        List<UnavailableBook> report = collect(catalogReports.booksWithoutCopies());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, report.stream().map(UnavailableBook::id).toList());
+    }
+
+    @Test
+    void membersNearLimit_matchesLoanCounts() {
+        List<Long> atLimit = jdbcTemplate.queryForList(
+                "select member_id from borrowed_book group by member_id having count(*) >= 3 order by member_id", Long.class);
+        List<Long> nearLimit = jdbcTemplate.queryForList(
+                "select member_id from borrowed_book group by member_id having count(*) >= 2 order by member_id", Long.class);
+
+        List<MemberNearLimit> exact = collect(catalogReports.membersNearLimit(0));
+        List<MemberNearLimit> withMargin = collect(catalogReports.membersNearLimit(1));
+
+        assertEquals(atLimit, exact.stream().map(MemberNearLimit::memberId).toList());
+        assertTrue(exact.stream().allMatch(row -> row.loans() == 3 && row.remainingAllowance() == 0));
+        assertEquals(nearLimit, withMargin.stream().map(MemberNearLimit::memberId).toList());
+        assertTrue(withMargin.stream().allMatch(row -> row.name().startsWith("Читач ")));
+    }
+
+    @Test
+    void membersNearLimit_invalidMargin_isRejectedBeforeScanning() {
+        assertThrows(ValidationException.class, () -> catalogReports.membersNearLimit(-1));
+        assertThrows(ValidationException.class, () -> catalogReports.membersNearLimit(3));
+    }
+
+    @Test
+    void reportEndpoint_streamsNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/reports/books/unavailable"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(collect(catalogReports.booksWithoutCopies()).size(), lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{\"id\":")), body);
+    }
+
+    @Test
+    void reportEndpoint_invalidMargin_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reports/members/near-limit").param("margin", "5"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.search;
+
+import com.example.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex(0.4);
+        index.index(new Book(1L, "Лісова пісня", "Леся Українка", 1));
+        index.index(new Book(2L, "Кобзар", "Тарас Шевченко", 1));
+        index.index(new Book(3L, "Гайдамаки", "Тарас Шевченко", 1));
+        index.index(new Book(4L, "Clean Code", "Robert Martin", 1));
+        index.index(new Book(5L, "Ґрунт під ногами", "Олесь Гончар", 1));
+    }
+
+    private List<Long> ids(List<BookSearchHit> hits) {
+        return hits.stream().map(BookSearchHit::id).toList();
+    }
+
+    @Test
+    void search_exactTokenIsCaseInsensitiveForCyrillic() {
+        assertEquals(List.of(2L), ids(index.search("КОБЗАР", 10)));
+        assertEquals(List.of(1L), ids(index.search("лісова", 10)));
+    }
+
+    @Test
+    void search_prefixMatchesTitlesAndAuthors() {
+        assertEquals(List.of(2L, 3L), ids(index.search("шевч", 10)));
+        assertEquals(List.of(4L), ids(index.search("cle", 10)));
+    }
+
+    @Test
+    void search_trigramMatchesTypos() {
+        assertEquals(List.of(3L), ids(index.search("Гайдамакі", 10)));
+    }
+
+    @Test
+    void search_foldsApostrophesAndGhe() {
+        index.index(new Book(6L, "Обов’язок", "Іван Франко", 1));
+
+        assertEquals(List.of(6L), ids(index.search("обовязок", 10)));
+        assertEquals(List.of(5L), ids(index.search("грунт", 10)));
+    }
+
+    @Test
+    void search_ranksTitleMatchAboveAuthorMatchAndLimitsResults() {
+        index.index(new Book(7L, "Тарас Бульба", "Микола Гоголь", 1));
+
+        List<BookSearchHit> hits = index.search("тарас", 2);
+
+        assertEquals(2, hits.size());
+        assertEquals(7L, hits.get(0).id());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void index_updateReplacesOldTokens() {
+        index.index(new Book(2L, "Заповіт", "Тарас Шевченко", 1));
+
+        assertTrue(index.search("кобзар", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("заповіт", 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void remove_dropsBookFromResults() {
+        index.remove(4L);
+
+        assertTrue(index.search("clean", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void rebuild_staleRowReadBeforeDelete_isNotRestored() {
+        Book snapshot = new Book(6L, "Захар Беркут", "Іван Франко", 1);
+        index.index(snapshot);
+        index.startRebuild();
+
+        // Завантажувач прочитав рядок, потім книгу видалили, і лише тоді фрагмент застосовано
+        index.remove(6L);
+        index.indexLoaded(snapshot);
+        index.finishRebuild();
+
+        assertTrue(index.search("беркут", 10).isEmpty());
+    }
+
+    @Test
+    void rebuild_staleRowReadBeforeRename_keepsNewTokens() {
+        index.startRebuild();
+
+        index.index(new Book(2L, "Заповіт", "Тарас Шевченко", 1));
+        index.indexLoaded(new Book(2L, "Кобзар", "Тарас Шевченко", 1));
+        index.indexLoaded(new Book(7L, "Intermezzo", "Михайло Коцюбинський", 1));
+        index.finishRebuild();
+
+        assertTrue(index.search("кобзар", 10).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("заповіт", 10)));
+        assertEquals(List.of(7L), ids(index.search("intermezzo", 10)));
+    }
+
+    @Test
+    void search_blankQuery_returnsEmpty() {
+        assertTrue(index.search("  ,. ", 10).isEmpty());
+    }
+}
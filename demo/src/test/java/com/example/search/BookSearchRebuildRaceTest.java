@@ -0,0 +1,97 @@
+package com.example.search;
+
+import com.example.entity.Book;
+import com.example.service.BookService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Маленькі фрагменти розтягують перебудову, щоб видалення й перейменування припадали на її середину
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchrebuildrace",
+        "library.search.rebuild-parallelism=2",
+        "library.search.rebuild-chunk-size=5",
+        "spring.jpa.show-sql=false"
+})
+class BookSearchRebuildRaceTest {
+    private static final int BOOKS = 400;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookSearchIndexLoader bookSearchIndexLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deletesAndRenamesDuringRebuild_areNotUndone() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(bookService.createBook(new Book(null, "Видалена" + i + " книга", "Автор Перегонів", 1)));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < 3; round++) {
+                    bookSearchIndexLoader.rebuild();
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKS; i += 2) {
+                    bookService.deleteBook(books.get(i).getId());
+                }
+                return null;
+            }));
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 1; i < BOOKS; i += 2) {
+                    Book renamed = new Book(null, "Перейменована" + i + " книга", "Автор Перегонів", 1);
+                    bookService.updateBook(books.get(i).getId(), renamed);
+                }
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Жоден рядок, прочитаний перебудовою до видалення чи перейменування, не повернувся в індекс
+        assertEquals(List.of(), bookSearchIndex.search("видалена", BOOKS).stream()
+                .filter(hit -> hit.title().startsWith("Видалена")).map(BookSearchHit::id).toList());
+        Set<Long> renamed = new HashSet<>();
+        for (int i = 1; i < BOOKS; i += 2) {
+            renamed.add(books.get(i).getId());
+        }
+        assertEquals(renamed, bookSearchIndex.search("перейменована", BOOKS).stream()
+                .map(BookSearchHit::id).collect(Collectors.toSet()));
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from book", Integer.class), bookSearchIndex.size());
+    }
+}
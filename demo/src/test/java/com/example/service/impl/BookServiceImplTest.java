@@ -1,13 +1,24 @@
 package com.example.service.impl;
 
+import com.example.bloom.CatalogKeyFilters;
+import com.example.bloom.KeyFilter;
+import com.example.dto.LookupResult;
 import com.example.entity.Book;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
 import com.example.exception.ValidationException;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.BookRepository;
+import com.example.repository.BorrowedBookRepository;
+import com.example.search.BookSearchHit;
+import com.example.search.BookSearchIndex;
+import com.example.service.OutboxService;
 import com.example.validator.BookValidator;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
 
 
 import java.util.List;
@@ -21,15 +32,36 @@ class BookServiceImplTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private BorrowedBookRepository borrowedBookRepository;
+
     @Mock
     private BookValidator bookValidator;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private CatalogKeyFilters catalogKeyFilters;
+
+    @Mock
+    private MemberLoansView memberLoansView;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(bookService, "maxLookupIds", 5);
+        ReflectionTestUtils.setField(bookService, "lookupChunkSize", 2);
+        ReflectionTestUtils.setField(bookService, "maxSearchResults", 100);
     }
 
     // 1. createBook
@@ -43,7 +75,7 @@ class BookServiceImplTest {
 
         doNothing().when(bookValidator).validate(any(), any());
 
-        when(bookRepository.findByTitleAndAuthor("Title", "Author")).thenReturn(Optional.empty());
+        when(bookRepository.findByTitleKeyAndAuthorKeyForUpdate("title", "author")).thenReturn(Optional.empty());
         when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Book result = bookService.createBook(book);
@@ -52,6 +84,22 @@ class BookServiceImplTest {
         assertEquals("Author", result.getAuthor());
         assertEquals(1, result.getCopiesAmount());
         verify(bookRepository).save(any(Book.class));
+        verify(outboxService).bookCreated(result);
+        verify(bookSearchIndex).index(result);
+    }
+
+    @Test
+    void createBook_keyDefinitelyAbsent_skipsDedupQueryAndRegistersKey() {
+        Book book = new Book(null, "Title", "Author", 0);
+        when(bookValidator.supports(Book.class)).thenReturn(true);
+        when(catalogKeyFilters.definitelyAbsentBook("title", "author")).thenReturn(true);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Book result = bookService.createBook(book);
+
+        assertEquals(1, result.getCopiesAmount());
+        verify(bookRepository, never()).findByTitleKeyAndAuthorKeyForUpdate(any(), any());
+        verify(catalogKeyFilters).bookAdded(book);
     }
 
     @Test
@@ -63,7 +111,7 @@ class BookServiceImplTest {
 
         doNothing().when(bookValidator).validate(any(), any());
 
-        when(bookRepository.findByTitleAndAuthor("Title", "Author")).thenReturn(Optional.of(existing));
+        when(bookRepository.findByTitleKeyAndAuthorKeyForUpdate("title", "author")).thenReturn(Optional.of(existing));
         when(bookRepository.save(existing)).thenReturn(existing);
 
         Book result = bookService.createBook(book);
@@ -90,9 +138,25 @@ class BookServiceImplTest {
 
         ValidationException ex = assertThrows(ValidationException.class, () -> bookService.createBook(book));
         assertTrue(ex.getMessage().contains("Invalid data"));
+        verifyNoInteractions(outboxService);
     }
 
 
+    @Test
+    void createBook_differentCaseAndSpacing_dedupsByNormalizedKey() {
+        Book book = new Book(null, " лісова  ПІСНЯ ", "Леся   Українка", 0);
+        Book existing = new Book(1L, "Лісова пісня", "Леся Українка", 3);
+
+        when(bookValidator.supports(Book.class)).thenReturn(true);
+        when(bookRepository.findByTitleKeyAndAuthorKeyForUpdate("лісова пісня", "леся українка")).thenReturn(Optional.of(existing));
+        when(bookRepository.save(existing)).thenReturn(existing);
+
+        Book result = bookService.createBook(book);
+
+        assertSame(existing, result);
+        assertEquals(4, result.getCopiesAmount());
+    }
+
     // 2. getAllBooks
 
     @Test
@@ -147,8 +211,8 @@ class BookServiceImplTest {
         Book details = new Book(null, "NewTitle", "NewAuthor", 3);
         Book existing = new Book(2L, "NewTitle", "NewAuthor", 5);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(current));
-        when(bookRepository.findByTitleAndAuthor("NewTitle", "NewAuthor")).thenReturn(Optional.of(existing));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(current));
+        when(bookRepository.findByTitleKeyAndAuthorKeyForUpdate("newtitle", "newauthor")).thenReturn(Optional.of(existing));
         when(bookRepository.save(existing)).thenReturn(existing);
 
         Book result = bookService.updateBook(1L, details);
@@ -157,6 +221,13 @@ class BookServiceImplTest {
         assertEquals(7, result.getCopiesAmount());
         verify(bookRepository).delete(current);
         verify(bookRepository).save(existing);
+        verify(outboxService).bookDeleted(current);
+        verify(outboxService).bookUpdated(existing);
+        verify(bookSearchIndex).remove(1L);
+        verify(catalogVersions).changed(CatalogScope.BOOKS);
+        // Позичення старої книги переходять до тієї, що лишилася, разом з її назвою
+        verify(borrowedBookRepository).moveToBook(1L, 2L);
+        verify(memberLoansView).bookMerged(1L, 2L, "NewTitle", "NewAuthor");
     }
 
     @Test
@@ -164,8 +235,8 @@ class BookServiceImplTest {
         Book current = new Book(1L, "OldTitle", "OldAuthor", 2);
         Book details = new Book(null, "NewTitle", "NewAuthor", 3);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(current));
-        when(bookRepository.findByTitleAndAuthor("NewTitle", "NewAuthor")).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(current));
+        when(bookRepository.findByTitleKeyAndAuthorKeyForUpdate("newtitle", "newauthor")).thenReturn(Optional.empty());
         when(bookRepository.save(current)).thenAnswer(i -> i.getArgument(0));
 
         Book result = bookService.updateBook(1L, details);
@@ -174,6 +245,7 @@ class BookServiceImplTest {
         assertEquals("NewAuthor", result.getAuthor());
         assertEquals(3, result.getCopiesAmount());
         verify(bookRepository).save(current);
+        verify(bookSearchIndex).index(current);
     }
 
     @Test
@@ -181,18 +253,36 @@ class BookServiceImplTest {
         Book current = new Book(1L, "Title", "Author", 2);
         Book details = new Book(null, "Title", "Author", 5);
 
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(current));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(current));
         when(bookRepository.save(current)).thenAnswer(i -> i.getArgument(0));
 
         Book result = bookService.updateBook(1L, details);
 
         assertEquals(5, result.getCopiesAmount());
         verify(bookRepository).save(current);
+        verify(outboxService).bookUpdated(current);
+        verify(catalogVersions).changed(CatalogScope.BOOKS);
+    }
+
+    @Test
+    void updateBook_onlyCaseAndSpacingChanged_keepsBookWithoutMerge() {
+        Book current = new Book(1L, "Лісова пісня", "Леся Українка", 2);
+        Book details = new Book(null, "  ЛІСОВА   Пісня ", "леся українка", 2);
+
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(current));
+        when(bookRepository.save(current)).thenAnswer(i -> i.getArgument(0));
+
+        Book result = bookService.updateBook(1L, details);
+
+        assertEquals("ЛІСОВА   Пісня", result.getTitle());
+        assertEquals("лісова пісня", result.getTitleKey());
+        verify(bookRepository, never()).findByTitleKeyAndAuthorKeyForUpdate(any(), any());
+        verify(bookRepository, never()).delete(any());
     }
 
     @Test
     void updateBook_bookNotFound_throwsException() {
-        when(bookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class,
                 () -> bookService.updateBook(1L, new Book()));
@@ -210,6 +300,9 @@ class BookServiceImplTest {
         bookService.deleteBook(1L);
 
         verify(bookRepository).delete(book);
+        verify(outboxService).bookDeleted(book);
+        verify(bookSearchIndex).remove(1L);
+        verify(memberLoansView).bookRemoved(1L);
     }
 
     @Test
@@ -227,7 +320,7 @@ class BookServiceImplTest {
     @Test
     void findByTitle_found_returnsBook() {
         Book book = new Book(1L, "Title", "Author", 1);
-        when(bookRepository.findByTitle("Title")).thenReturn(Optional.of(book));
+        when(bookRepository.findFirstByTitleKeyOrderByIdAsc("title")).thenReturn(Optional.of(book));
 
         Optional<Book> result = bookService.findByTitle("Title");
 
@@ -237,13 +330,21 @@ class BookServiceImplTest {
 
     @Test
     void findByTitle_notFound_returnsEmpty() {
-        when(bookRepository.findByTitle("Title")).thenReturn(Optional.empty());
+        when(bookRepository.findFirstByTitleKeyOrderByIdAsc("title")).thenReturn(Optional.empty());
 
         Optional<Book> result = bookService.findByTitle("Title");
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findByTitle_definitelyAbsent_skipsQuery() {
+        when(catalogKeyFilters.definitelyAbsent(KeyFilter.TITLE, "title")).thenReturn(true);
+
+        assertTrue(bookService.findByTitle("Title").isEmpty());
+        verify(bookRepository, never()).findFirstByTitleKeyOrderByIdAsc(any());
+    }
+
     // 7. findByAuthor
 
     @Test
@@ -253,7 +354,7 @@ class BookServiceImplTest {
                 new Book(2L, "Title2", "Author", 2)
         );
 
-        when(bookRepository.findByAuthor("Author")).thenReturn(books);
+        when(bookRepository.findByAuthorKey("author")).thenReturn(books);
 
         List<Book> result = bookService.findByAuthor("Author");
 
@@ -262,7 +363,7 @@ class BookServiceImplTest {
 
     @Test
     void findByAuthor_notFound_returnsEmptyList() {
-        when(bookRepository.findByAuthor("Author")).thenReturn(List.of());
+        when(bookRepository.findByAuthorKey("author")).thenReturn(List.of());
 
         List<Book> result = bookService.findByAuthor("Author");
 
@@ -274,7 +375,7 @@ class BookServiceImplTest {
     @Test
     void findByTitleAndAuthor_found_returnsBook() {
         Book book = new Book(1L, "Title", "Author", 1);
-        when(bookRepository.findByTitleAndAuthor("Title", "Author")).thenReturn(Optional.of(book));
+        when(bookRepository.findByTitleKeyAndAuthorKey("title", "author")).thenReturn(Optional.of(book));
 
         Optional<Book> result = bookService.findByTitleAndAuthor("Title", "Author");
 
@@ -284,10 +385,67 @@ class BookServiceImplTest {
 
     @Test
     void findByTitleAndAuthor_notFound_returnsEmpty() {
-        when(bookRepository.findByTitleAndAuthor("Title", "Author")).thenReturn(Optional.empty());
+        when(bookRepository.findByTitleKeyAndAuthorKey("title", "author")).thenReturn(Optional.empty());
 
         Optional<Book> result = bookService.findByTitleAndAuthor("Title", "Author");
 
         assertTrue(result.isEmpty());
     }
+
+    // 9. lookupBooks
+
+    @Test
+    void lookupBooks_returnsResultsInRequestOrderWithMissingMarkers() {
+        Book first = new Book(1L, "Title1", "Author", 1);
+        Book third = new Book(3L, "Title3", "Author", 1);
+
+        when(bookRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(third));
+        when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(first));
+
+        List<LookupResult<Book>> result = bookService.lookupBooks(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(3L, 2L, 1L, 3L), result.stream().map(LookupResult::id).toList());
+        assertEquals(third, result.get(0).item());
+        assertFalse(result.get(1).found());
+        assertNull(result.get(1).item());
+        assertEquals(first, result.get(2).item());
+        assertTrue(result.get(3).found());
+        // Унікальні ID розбиваються на частини по lookupChunkSize
+        verify(bookRepository, times(2)).findAllById(any());
+    }
+
+    @Test
+    void lookupBooks_emptyRequest_doesNotQuery() {
+        assertTrue(bookService.lookupBooks(List.of()).isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void lookupBooks_tooManyIds_throwsValidationException() {
+        assertThrows(ValidationException.class,
+                () -> bookService.lookupBooks(List.of(1L, 2L, 3L, 4L, 5L, 6L)));
+        verifyNoInteractions(bookRepository);
+    }
+
+    // 10. searchBooks
+
+    @Test
+    void searchBooks_delegatesToIndex() {
+        List<BookSearchHit> hits = List.of(new BookSearchHit(1L, "Title", "Author", 2.0));
+        when(bookSearchIndex.search("tit", 10)).thenReturn(hits);
+
+        assertEquals(hits, bookService.searchBooks("tit", 10));
+    }
+
+    @Test
+    void searchBooks_blankQuery_throwsValidationException() {
+        assertThrows(ValidationException.class, () -> bookService.searchBooks("  ", 10));
+        verifyNoInteractions(bookSearchIndex);
+    }
+
+    @Test
+    void searchBooks_limitOutOfRange_throwsValidationException() {
+        assertThrows(ValidationException.class, () -> bookService.searchBooks("tit", 101));
+        assertThrows(ValidationException.class, () -> bookService.searchBooks("tit", 0));
+    }
 }
@@ -0,0 +1,263 @@
+package com.example.service.impl;
+
+import com.example.entity.Book;
+import com.example.entity.BorrowedBook;
+import com.example.entity.Member;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BookService;
+import com.example.service.BorrowingService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Реальний контекст і H2: моки репозиторіїв не бачать втрачених оновлень і гонок за лімітом
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowingconcurrency",
+        "library.max.books.per.member=3",
+        "spring.jpa.show-sql=false"
+})
+class BorrowingConcurrencyTest {
+    private static final int LIMIT = 3;
+    private static final int THREADS = Integer.getInteger("borrowing.concurrency.threads", 8);
+    private static final int STORM_OPERATIONS = Integer.getInteger("borrowing.concurrency.operations", 3000);
+
+    private static ExecutorService executor;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger names = new AtomicInteger();
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    private Book book(int copies) {
+        return bookRepository.save(new Book(null, "Книга " + suffix(), "Тарас Шевченко", copies));
+    }
+
+    private Member member() {
+        return memberRepository.save(new Member(0, "Читач " + suffix(), null));
+    }
+
+    // Назви лише з літер, щоб проходити валідацію, якщо її колись додадуть до збереження
+    private String suffix() {
+        int n = names.incrementAndGet();
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('а' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return sb.toString();
+    }
+
+    private int copies(Book book) {
+        return jdbcTemplate.queryForObject("select copies_amount from book where id = ?", Integer.class, book.getId());
+    }
+
+    private long loansOf(Book book) {
+        return jdbcTemplate.queryForObject("select count(*) from borrowed_book where book_id = ?", Long.class, book.getId());
+    }
+
+    private long loansOf(Member member) {
+        return jdbcTemplate.queryForObject("select count(*) from borrowed_book where member_id = ?", Long.class, member.getId());
+    }
+
+    // Усі завдання стартують одночасно, щоб максимізувати перекриття транзакцій
+    private <T> List<T> race(List<Callable<T>> tasks) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>(tasks.size());
+        for (Future<T> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    // Очікувані відмови повертають свій код, будь-що інше (дедлок, таймаут блокування) — провал тесту
+    private ErrorCode attempt(Runnable operation) {
+        try {
+            operation.run();
+            return null;
+        } catch (DomainException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Test
+    void borrowStorm_lastCopies_areNeverOversold() throws Exception {
+        Book book = book(5);
+        List<Callable<ErrorCode>> tasks = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            Member member = member();
+            tasks.add(() -> attempt(() -> borrowingService.borrowBook(member.getId(), book.getId())));
+        }
+
+        List<ErrorCode> results = race(tasks);
+
+        assertEquals(5, results.stream().filter(code -> code == null).count());
+        assertTrue(results.stream().allMatch(code -> code == null || code == ErrorCode.BOOK_UNAVAILABLE), results::toString);
+        assertEquals(0, copies(book));
+        assertEquals(5, loansOf(book));
+    }
+
+    @Test
+    void borrowStorm_sameMember_neverExceedsLimit() throws Exception {
+        Member member = member();
+        List<Callable<ErrorCode>> tasks = new ArrayList<>();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Book book = book(2);
+            books.add(book);
+            tasks.add(() -> attempt(() -> borrowingService.borrowBook(member.getId(), book.getId())));
+        }
+
+        List<ErrorCode> results = race(tasks);
+
+        assertEquals(LIMIT, results.stream().filter(code -> code == null).count());
+        assertTrue(results.stream().allMatch(code -> code == null || code == ErrorCode.BORROW_LIMIT_EXCEEDED), results::toString);
+        assertEquals(LIMIT, loansOf(member));
+        assertEquals(books.size() * 2 - LIMIT, books.stream().mapToInt(this::copies).sum());
+    }
+
+    @Test
+    void returnStorm_sameBorrowing_returnsCopyOnce() throws Exception {
+        Book book = book(1);
+        BorrowedBook borrowed = borrowingService.borrowBook(member().getId(), book.getId());
+        List<Callable<ErrorCode>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(() -> attempt(() -> borrowingService.returnBook(borrowed.getId())));
+        }
+
+        List<ErrorCode> results = race(tasks);
+
+        assertEquals(1, results.stream().filter(code -> code == null).count());
+        assertTrue(results.stream().allMatch(code -> code == null || code == ErrorCode.BORROWING_NOT_FOUND), results::toString);
+        assertEquals(1, copies(book));
+        assertEquals(0, loansOf(book));
+    }
+
+    @Test
+    void mixedStorm_conservesCopies() throws Exception {
+        int initialCopies = 4;
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            books.add(book(initialCopies));
+        }
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            members.add(member());
+        }
+        // Спільна черга позичень: кілька потоків можуть спробувати повернути одне й те саме
+        ConcurrentLinkedQueue<Long> loans = new ConcurrentLinkedQueue<>();
+        Map<ErrorCode, AtomicInteger> rejected = new ConcurrentHashMap<>();
+        AtomicInteger next = new AtomicInteger();
+
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(42 + t);
+            workers.add(() -> {
+                int done = 0;
+                int op;
+                while ((op = next.getAndIncrement()) < STORM_OPERATIONS) {
+                    Long loan = random.nextInt(100) < 45 ? (random.nextBoolean() ? loans.poll() : loans.peek()) : null;
+                    ErrorCode code;
+                    if (loan != null) {
+                        code = attempt(() -> borrowingService.returnBook(loan));
+                    } else {
+                        Member member = members.get(random.nextInt(members.size()));
+                        Book book = books.get(random.nextInt(books.size()));
+                        code = attempt(() -> loans.add(
+                                borrowingService.borrowBook(member.getId(), book.getId()).getId()));
+                    }
+                    if (code != null) {
+                        rejected.computeIfAbsent(code, c -> new AtomicInteger()).incrementAndGet();
+                    }
+                    done++;
+                }
+                return done;
+            });
+        }
+
+        int completed = race(workers).stream().mapToInt(Integer::intValue).sum();
+
+        assertEquals(STORM_OPERATIONS, completed);
+        for (Book book : books) {
+            int copies = copies(book);
+            assertTrue(copies >= 0, () -> "від'ємна кількість примірників: " + copies);
+            assertEquals(initialCopies, copies + loansOf(book), "примірники мають зберігатися");
+        }
+        for (Member member : members) {
+            assertTrue(loansOf(member) <= LIMIT);
+        }
+        assertTrue(rejected.keySet().stream().allMatch(code -> code == ErrorCode.BOOK_UNAVAILABLE
+                || code == ErrorCode.BORROW_LIMIT_EXCEEDED || code == ErrorCode.BORROWING_NOT_FOUND), rejected::toString);
+    }
+
+    @Test
+    void createDuplicateStorm_duringBorrows_conservesCopies() throws Exception {
+        int initialCopies = 6;
+        // Через сервіс, щоб ключ книги потрапив і до фільтра Блума, інакше дублікати вставлялися б новими рядками
+        Book created = bookService.createBook(new Book(null, "Кобзар", "Тарас Шевченко", 1));
+        Book book = bookService.updateBook(created.getId(), new Book(null, "Кобзар", "Тарас Шевченко", initialCopies));
+        List<Callable<ErrorCode>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Member member = member();
+            tasks.add(() -> attempt(() -> borrowingService.borrowBook(member.getId(), book.getId())));
+            // Повторне створення тієї ж книги додає примірник до рядка, який паралельно змінюють позичення
+            tasks.add(() -> attempt(() -> bookService.createBook(new Book(null, book.getTitle(), book.getAuthor(), 1))));
+        }
+
+        List<ErrorCode> results = race(tasks);
+
+        assertTrue(results.stream().allMatch(code -> code == null || code == ErrorCode.BOOK_UNAVAILABLE), results::toString);
+        assertEquals(initialCopies + 12, copies(book) + loansOf(book));
+    }
+}
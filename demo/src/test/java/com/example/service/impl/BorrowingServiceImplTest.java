@@ -1,18 +1,32 @@
 package com.example.service.impl;
 
+import com.example.analytics.HeavyHitter;
+import com.example.analytics.PopularTitles;
+import com.example.analytics.PopularityWindow;
+import com.example.bloom.CatalogKeyFilters;
+import com.example.bloom.KeyFilter;
+import com.example.dto.MemberLoansResponse;
+import com.example.dto.PopularBookResponse;
 import com.example.entity.Book;
 import com.example.entity.BorrowedBook;
 import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
 import com.example.exception.ValidationException;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.BookRepository;
 import com.example.repository.BorrowedBookRepository;
 import com.example.repository.MemberRepository;
+import com.example.service.OutboxService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -30,6 +44,21 @@ class BorrowingServiceImplTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private CatalogKeyFilters catalogKeyFilters;
+
+    @Mock
+    private MemberLoansView memberLoansView;
+
+    @Mock
+    private PopularTitles popularTitles;
+
     @InjectMocks
     private BorrowingServiceImpl borrowingService;
 
@@ -54,11 +83,12 @@ class BorrowingServiceImplTest {
         book.setId(bookId);
         book.setCopiesAmount(5);
 
-        when(memberRepository.findById(memberId)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+        when(memberRepository.findByIdForUpdate(memberId)).thenReturn(Optional.of(member));
+        when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
         when(borrowedBookRepository.countByMemberId(memberId)).thenReturn(3L);
 
         BorrowedBook borrowedBook = new BorrowedBook();
+        borrowedBook.setId(7L);
         borrowedBook.setMember(member);
         borrowedBook.setBook(book);
 
@@ -73,11 +103,15 @@ class BorrowingServiceImplTest {
 
         verify(bookRepository).save(book);
         verify(borrowedBookRepository).save(any(BorrowedBook.class));
+        verify(outboxService).bookBorrowed(result);
+        verify(catalogVersions).changed(CatalogScope.BOOKS, CatalogScope.LOANS);
+        // Без транзакції хук моделі читання виконується одразу
+        verify(memberLoansView).loanAdded(7L, memberId, bookId, null, null);
     }
 
     @Test
     void borrowBook_memberNotFound_throwsValidationException() {
-        when(memberRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(memberRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         ValidationException ex = assertThrows(ValidationException.class,
                 () -> borrowingService.borrowBook(1L, 1L));
@@ -87,8 +121,8 @@ class BorrowingServiceImplTest {
     @Test
     void borrowBook_bookNotFound_throwsValidationException() {
         Member member = new Member();
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(memberRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(member));
+        when(bookRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         ValidationException ex = assertThrows(ValidationException.class,
                 () -> borrowingService.borrowBook(1L, 1L));
@@ -101,8 +135,8 @@ class BorrowingServiceImplTest {
         Book book = new Book();
         book.setCopiesAmount(0);
 
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(memberRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(member));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
 
         ValidationException ex = assertThrows(ValidationException.class,
                 () -> borrowingService.borrowBook(1L, 1L));
@@ -115,13 +149,15 @@ class BorrowingServiceImplTest {
         Book book = new Book();
         book.setCopiesAmount(2);
 
-        when(memberRepository.findById(1L)).thenReturn(Optional.of(member));
-        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(memberRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(member));
+        when(bookRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(book));
         when(borrowedBookRepository.countByMemberId(1L)).thenReturn(10L);
 
         ValidationException ex = assertThrows(ValidationException.class,
                 () -> borrowingService.borrowBook(1L, 1L));
         assertEquals("Перевищено ліміт позичених книг", ex.getMessage());
+        verifyNoInteractions(outboxService);
+        verifyNoInteractions(catalogVersions);
     }
 
     // 2. returnBook
@@ -131,13 +167,20 @@ class BorrowingServiceImplTest {
         Long borrowingId = 1L;
 
         Book book = new Book();
+        book.setId(5L);
         book.setCopiesAmount(2);
 
+        Member member = new Member();
+        member.setId(3L);
+
         BorrowedBook borrowedBook = new BorrowedBook();
         borrowedBook.setId(borrowingId);
+        borrowedBook.setMember(member);
         borrowedBook.setBook(book);
 
+        when(borrowedBookRepository.findBookIdById(borrowingId)).thenReturn(Optional.of(5L));
         when(borrowedBookRepository.findById(borrowingId)).thenReturn(Optional.of(borrowedBook));
+        when(bookRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(book));
         when(bookRepository.save(any(Book.class))).thenAnswer(i -> i.getArgument(0));
 
         borrowingService.returnBook(borrowingId);
@@ -146,17 +189,48 @@ class BorrowingServiceImplTest {
 
         verify(bookRepository).save(book);
         verify(borrowedBookRepository).delete(borrowedBook);
+        verify(outboxService).bookReturned(borrowedBook);
+        verify(catalogVersions).changed(CatalogScope.BOOKS, CatalogScope.LOANS);
+        verify(memberLoansView).loanRemoved(borrowingId, 3L);
     }
 
     @Test
     void returnBook_borrowingNotFound_throwsValidationException() {
-        when(borrowedBookRepository.findById(1L)).thenReturn(Optional.empty());
+        when(borrowedBookRepository.findBookIdById(1L)).thenReturn(Optional.empty());
 
         ValidationException ex = assertThrows(ValidationException.class,
                 () -> borrowingService.returnBook(1L));
         assertEquals("Запис про позичення не знайдено", ex.getMessage());
     }
 
+    @Test
+    void getMemberLoans_servedFromReadModelWithoutRepositories() {
+        MemberLoansResponse loans = new MemberLoansResponse(1L, "Тарас Шевченко", 0, 10, List.of());
+        when(memberLoansView.isReady()).thenReturn(true);
+        when(memberLoansView.find(1L)).thenReturn(Optional.of(loans));
+
+        assertSame(loans, borrowingService.getMemberLoans(1L));
+        verifyNoInteractions(borrowedBookRepository, bookRepository, memberRepository);
+    }
+
+    @Test
+    void getMemberLoans_unknownMember_throwsMemberNotFound() {
+        when(memberLoansView.isReady()).thenReturn(true);
+        when(memberLoansView.find(1L)).thenReturn(Optional.empty());
+
+        DomainException ex = assertThrows(DomainException.class, () -> borrowingService.getMemberLoans(1L));
+        assertEquals(ErrorCode.MEMBER_NOT_FOUND, ex.getErrorCode());
+    }
+
+    @Test
+    void getMemberLoans_beforeRebuild_throwsWarmingUp() {
+        when(memberLoansView.isReady()).thenReturn(false);
+
+        DomainException ex = assertThrows(DomainException.class, () -> borrowingService.getMemberLoans(1L));
+        assertEquals(ErrorCode.WARMING_UP, ex.getErrorCode());
+        verify(memberLoansView, never()).find(anyLong());
+    }
+
     // 3. getBorrowedBooksByMemberName
 
     @Test
@@ -165,25 +239,33 @@ class BorrowingServiceImplTest {
 
         List<BorrowedBook> borrowedBooks = List.of(new BorrowedBook(), new BorrowedBook());
 
-        when(borrowedBookRepository.findByMemberName(memberName)).thenReturn(borrowedBooks);
+        when(borrowedBookRepository.findByMemberNameKey(memberName.toLowerCase(Locale.ROOT))).thenReturn(borrowedBooks);
 
         List<BorrowedBook> result = borrowingService.getBorrowedBooksByMemberName(memberName);
 
         assertEquals(2, result.size());
-        verify(borrowedBookRepository).findByMemberName(memberName);
+        verify(borrowedBookRepository).findByMemberNameKey("john");
     }
 
     @Test
     void getBorrowedBooksByMemberName_emptyList() {
         String memberName = "Unknown";
 
-        when(borrowedBookRepository.findByMemberName(memberName)).thenReturn(List.of());
+        when(borrowedBookRepository.findByMemberNameKey(memberName.toLowerCase(Locale.ROOT))).thenReturn(List.of());
 
         List<BorrowedBook> result = borrowingService.getBorrowedBooksByMemberName(memberName);
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void getBorrowedBooksByMemberName_definitelyAbsent_skipsQuery() {
+        when(catalogKeyFilters.definitelyAbsent(KeyFilter.MEMBER_NAME, "unknown")).thenReturn(true);
+
+        assertTrue(borrowingService.getBorrowedBooksByMemberName("Unknown").isEmpty());
+        verify(borrowedBookRepository, never()).findByMemberNameKey(any());
+    }
+
     // 4. getAllBorrowedBookNames
 
     @Test
@@ -232,4 +314,30 @@ class BorrowingServiceImplTest {
 
         assertTrue(result.isEmpty());
     }
+
+    // 6. getPopularBooks
+
+    @Test
+    void getPopularBooks_keepsRankingAndSkipsDeletedBooks() {
+        when(popularTitles.capacity()).thenReturn(256);
+        when(popularTitles.top(PopularityWindow.DAY, 3)).thenReturn(List.of(
+                new HeavyHitter(2L, 40), new HeavyHitter(9L, 25), new HeavyHitter(1L, 10)));
+        when(bookRepository.findAllById(List.of(2L, 9L, 1L))).thenReturn(List.of(
+                new Book(1L, "Кобзар", "Тарас Шевченко", 1),
+                new Book(2L, "Лісова пісня", "Леся Українка", 1)));
+
+        List<PopularBookResponse> result = borrowingService.getPopularBooks(PopularityWindow.DAY, 3);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(PopularBookResponse::id).toList());
+        assertEquals(40, result.get(0).borrowings());
+    }
+
+    @Test
+    void getPopularBooks_limitAboveCapacity_throwsValidationException() {
+        when(popularTitles.capacity()).thenReturn(256);
+
+        assertThrows(ValidationException.class, () -> borrowingService.getPopularBooks(PopularityWindow.HOUR, 257));
+        assertThrows(ValidationException.class, () -> borrowingService.getPopularBooks(PopularityWindow.HOUR, 0));
+        verifyNoInteractions(bookRepository);
+    }
 }
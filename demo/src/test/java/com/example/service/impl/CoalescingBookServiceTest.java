@@ -0,0 +1,196 @@
+package com.example.service.impl;
+
+import com.example.bloom.CatalogKeyFilters;
+import com.example.entity.Book;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
+import com.example.exception.CoalescedCallTimeoutException;
+import com.example.readmodel.MemberLoansView;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowedBookRepository;
+import com.example.search.BookSearchIndex;
+import com.example.service.OutboxService;
+import com.example.validator.BookValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingBookServiceTest {
+    private static final int CALLERS = 1_000;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private BorrowedBookRepository borrowedBookRepository;
+
+    @Mock
+    private BookValidator bookValidator;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private CatalogKeyFilters catalogKeyFilters;
+
+    @Mock
+    private MemberLoansView memberLoansView;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CoalescingBookService bookService;
+
+    // Справжні лічильники для покоління single-flight; catalogVersions сервісу — мок
+    private final CatalogVersions generations = new CatalogVersions();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BookServiceImpl delegate = new BookServiceImpl(bookRepository, borrowedBookRepository, bookValidator, outboxService, bookSearchIndex, catalogVersions,
+                catalogKeyFilters, memberLoansView);
+        bookService = new CoalescingBookService(delegate, generations, meterRegistry, 500);
+    }
+
+    private double collapsed() {
+        return meterRegistry.counter("library.coalescing.collapsed", "name", "books").count();
+    }
+
+    // Запит "виконується", доки решта викликів не приєднається до нього
+    private void awaitCollapsed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (collapsed() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void getBookById_concurrentIdenticalReads_produceSingleQuery() throws Exception {
+        Book book = new Book(1L, "Title", "Author", 3);
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            awaitCollapsed(CALLERS - 1);
+            return Optional.of(book);
+        });
+
+        List<Future<Book>> results = new ArrayList<>(CALLERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> bookService.getBookById(1L)));
+            }
+        }
+
+        for (Future<Book> result : results) {
+            assertSame(book, result.get());
+        }
+        verify(bookRepository, times(1)).findById(1L);
+        assertEquals(CALLERS - 1, collapsed());
+    }
+
+    @Test
+    void getBookById_sequentialReads_areNotCoalesced() {
+        Book book = new Book(1L, "Title", "Author", 3);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+
+        bookService.getBookById(1L);
+        bookService.getBookById(1L);
+
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getBookById_afterCommittedChange_doesNotJoinOlderRead() throws Exception {
+        Book stale = new Book(1L, "Old", "Author", 3);
+        Book fresh = new Book(1L, "New", "Author", 3);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    release.await(30, TimeUnit.SECONDS);
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.of(fresh));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Book> leader = executor.submit(() -> bookService.getBookById(1L));
+            awaitInFlight();
+            // Зміна закомічена, поки перший запит ще читає: новий виклик має прочитати сам
+            generations.changed(CatalogScope.BOOKS);
+            Book afterChange = bookService.getBookById(1L);
+            release.countDown();
+
+            assertSame(fresh, afterChange);
+            assertSame(stale, leader.get());
+        }
+        verify(bookRepository, times(2)).findById(1L);
+        assertEquals(0, collapsed());
+    }
+
+    @Test
+    void getBookById_failure_isPropagatedToWaitingCallers() throws Exception {
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            awaitCollapsed(1);
+            return Optional.empty();
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Book> first = executor.submit(() -> bookService.getBookById(1L));
+            Future<Book> second = executor.submit(() -> bookService.getBookById(1L));
+
+            ExecutionException ex = assertThrows(ExecutionException.class, first::get);
+            assertInstanceOf(EntityNotFoundException.class, ex.getCause());
+            ex = assertThrows(ExecutionException.class, second::get);
+            assertInstanceOf(EntityNotFoundException.class, ex.getCause());
+        }
+        verify(bookRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findByTitleAndAuthor_waitingCallerTimesOut() throws Exception {
+        when(bookRepository.findByTitleKeyAndAuthorKey("title", "author")).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return Optional.empty();
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Optional<Book>> leader = executor.submit(() -> bookService.findByTitleAndAuthor("Title", "Author"));
+            awaitInFlight();
+            // Інше написання того самого ключа приєднується до запиту, що вже виконується
+            Future<Optional<Book>> follower = executor.submit(() -> bookService.findByTitleAndAuthor(" TITLE ", "author"));
+
+            ExecutionException ex = assertThrows(ExecutionException.class, follower::get);
+            assertInstanceOf(CoalescedCallTimeoutException.class, ex.getCause());
+            assertTrue(leader.get().isEmpty());
+        }
+        verify(bookRepository, times(1)).findByTitleKeyAndAuthorKey("title", "author");
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("library.coalescing.calls", "name", "books").count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+    }
+}
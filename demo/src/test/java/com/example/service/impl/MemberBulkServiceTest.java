@@ -0,0 +1,253 @@
+package com.example.service.impl;
+
+import com.example.dto.MemberDeleteReport;
+import com.example.dto.MemberImportReport;
+import com.example.entity.Book;
+import com.example.entity.BorrowedBook;
+import com.example.entity.Member;
+import com.example.exception.DomainException;
+import com.example.exception.ErrorCode;
+import com.example.exception.ValidationException;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BorrowingService;
+import com.example.service.MemberBulkService;
+import com.example.service.MemberService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:memberbulk",
+        "library.bulk.batch-size=100",
+        "library.bulk.max-delete-ids=500",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class MemberBulkServiceTest {
+
+    @Autowired
+    private MemberBulkService memberBulkService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final AtomicInteger names = new AtomicInteger();
+
+    private Book book(int copies) {
+        return bookRepository.save(new Book(null, "Книга " + names.incrementAndGet(), "Тарас Шевченко", copies));
+    }
+
+    private Member member() {
+        return memberService.createMember(new Member(0, "Читач " + names.incrementAndGet(), null));
+    }
+
+    private int copies(Book book) {
+        return jdbcTemplate.queryForObject("select copies_amount from book where id = ?", Integer.class, book.getId());
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    // Рядки генеруються на льоту: імпорт не повинен вимагати всього списку в пам'яті
+    private static Iterator<Member> rows(String prefix, long count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(i -> new Member(0, i % 500 == 0 ? " " : prefix + " " + i, null))
+                .iterator();
+    }
+
+    @Test
+    void importMembers_insertsInBatches_andRejectsInvalidRows() {
+        long before = count("select count(*) from member");
+
+        MemberImportReport report = memberBulkService.importMembers(rows("Імпорт", 1_050));
+
+        assertEquals(1_050, report.received());
+        assertEquals(1_048, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of(500L, 1_000L), report.errors().stream().map(MemberImportReport.RowError::row).toList());
+        assertEquals("Ім'я користувача є обов'язковим", report.errors().get(0).message());
+        assertTrue(report.rowsPerSecond() > 0);
+        assertEquals(before + 1_048, count("select count(*) from member"));
+        assertEquals(1, count("select count(*) from member where name_key = ? and creation_date is not null", "імпорт 7"));
+
+        // Імпортовані учасники видимі для пошуку, фільтрів імен і моделі позичень
+        Member imported = memberService.searchByName("імпорт 1049", 0, 1).getContent().get(0);
+        assertEquals("Імпорт 1049", borrowingService.getMemberLoans(imported.getId()).memberName());
+        assertTrue(borrowingService.getBorrowedBooksByMemberName("Імпорт 1049").isEmpty());
+    }
+
+    @Test
+    void importEndpoint_acceptsArrayAndNdjson() throws Exception {
+        mockMvc.perform(post("/api/members/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Масив Перший\"},{\"name\":\"\"},{\"name\":\"Масив Другий\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        mockMvc.perform(post("/api/members/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Рядок Перший\"}\n{\"name\":\"Рядок Другий\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2));
+
+        mockMvc.perform(get("/api/members/search").param("name", "рядок"))
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
+    @Test
+    void importEndpoint_malformedJson_isRejected() throws Exception {
+        mockMvc.perform(post("/api/members/import")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\":\"Зламаний Запис\"}, {\"name\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(ErrorCode.VALIDATION_FAILED.name()));
+    }
+
+    @Test
+    void deleteMembers_closesLoansAndReturnsCopies() {
+        Book first = book(3);
+        Book second = book(2);
+        Member alice = member();
+        Member bob = member();
+        Member keeper = member();
+        borrowingService.borrowBook(alice.getId(), first.getId());
+        borrowingService.borrowBook(alice.getId(), second.getId());
+        borrowingService.borrowBook(bob.getId(), first.getId());
+        BorrowedBook kept = borrowingService.borrowBook(keeper.getId(), first.getId());
+        assertEquals(0, copies(first));
+
+        MemberDeleteReport report = memberBulkService.deleteMembers(List.of(alice.getId(), bob.getId(), -1L, bob.getId()));
+
+        assertEquals(4, report.requested());
+        assertEquals(2, report.deleted());
+        assertEquals(3, report.loansClosed());
+        assertEquals(2, report.booksRestocked());
+        assertEquals(2, copies(first));
+        assertEquals(2, copies(second));
+        assertEquals(0, count("select count(*) from borrowed_book where member_id in (?, ?)", alice.getId(), bob.getId()));
+        assertFalse(memberRepository.existsById(alice.getId()));
+        assertTrue(memberRepository.existsById(keeper.getId()));
+
+        DomainException gone = assertThrows(DomainException.class, () -> borrowingService.getMemberLoans(alice.getId()));
+        assertEquals(ErrorCode.MEMBER_NOT_FOUND, gone.getErrorCode());
+        assertEquals(List.of(kept.getId()), borrowingService.getMemberLoans(keeper.getId()).loans().stream()
+                .map(loan -> loan.borrowingId()).toList());
+    }
+
+    @Test
+    void deleteMember_withActiveLoans_cascades() {
+        Book book = book(1);
+        Member member = member();
+        borrowingService.borrowBook(member.getId(), book.getId());
+
+        memberService.deleteMember(member.getId());
+
+        assertFalse(memberRepository.existsById(member.getId()));
+        assertEquals(1, copies(book));
+    }
+
+    @Test
+    void deleteMembers_invalidIds_areRejected() {
+        assertThrows(ValidationException.class, () -> memberBulkService.deleteMembers(List.of()));
+        assertThrows(ValidationException.class, () -> memberBulkService.deleteMembers(Collections.singletonList(null)));
+        List<Long> tooMany = LongStream.rangeClosed(1, 501).boxed().toList();
+        assertThrows(ValidationException.class, () -> memberBulkService.deleteMembers(tooMany));
+    }
+
+    // Позичення паралельно з видаленням: жоден примірник не губиться і не з'являється двічі
+    @Test
+    void deleteMembers_racingBorrows_conservesCopies() throws Exception {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            books.add(book(5));
+        }
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            members.add(member());
+        }
+        List<Long> doomed = members.subList(0, 20).stream().map(Member::getId).toList();
+
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 5; t++) {
+                int offset = t;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < 30; i++) {
+                        Member member = members.get((offset * 7 + i) % members.size());
+                        Book book = books.get((offset + i) % books.size());
+                        try {
+                            borrowingService.borrowBook(member.getId(), book.getId());
+                        } catch (DomainException e) {
+                            assertTrue(e.getErrorCode() == ErrorCode.MEMBER_NOT_FOUND
+                                    || e.getErrorCode() == ErrorCode.BOOK_UNAVAILABLE
+                                    || e.getErrorCode() == ErrorCode.BORROW_LIMIT_EXCEEDED, e::toString);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            futures.add(executor.submit((Callable<Void>) () -> {
+                start.await();
+                memberBulkService.deleteMembers(doomed);
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Book book : books) {
+            assertEquals(5, copies(book) + count("select count(*) from borrowed_book where book_id = ?", book.getId()));
+        }
+        assertEquals(0, count("select count(*) from member where id in (" +
+                String.join(",", doomed.stream().map(String::valueOf).toList()) + ")"));
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.service.impl;
 
+import com.example.bloom.CatalogKeyFilters;
+import com.example.dto.LookupResult;
 import com.example.entity.Member;
+import com.example.etag.CatalogScope;
+import com.example.etag.CatalogVersions;
 import com.example.exception.ValidationException;
+import com.example.readmodel.MemberLoansView;
 import com.example.repository.MemberRepository;
+import com.example.service.MemberBulkService;
 import com.example.validator.MemberValidator;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.validation.Errors;
 
 import java.util.Arrays;
@@ -19,7 +30,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +42,18 @@ class MemberServiceImplTest {
     @Mock
     private MemberValidator memberValidator;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private CatalogKeyFilters catalogKeyFilters;
+
+    @Mock
+    private MemberLoansView memberLoansView;
+
+    @Mock
+    private MemberBulkService memberBulkService;
+
     @InjectMocks
     private MemberServiceImpl memberService;
 
@@ -41,6 +64,9 @@ class MemberServiceImplTest {
         testMember = new Member();
         testMember.setId(1L);
         testMember.setName("Іван Франко");
+        ReflectionTestUtils.setField(memberService, "maxLookupIds", 100);
+        ReflectionTestUtils.setField(memberService, "lookupChunkSize", 100);
+        ReflectionTestUtils.setField(memberService, "maxPageSize", 100);
     }
 
     @Test
@@ -111,25 +137,58 @@ class MemberServiceImplTest {
         Member result = memberService.updateMember(1L, updatedMember);
 
         assertEquals(updatedMember.getName(), result.getName());
+        verify(catalogVersions).changed(CatalogScope.MEMBERS);
     }
 
     @Test
     void deleteMember_Success() {
         when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
-        doNothing().when(memberRepository).delete(any(Member.class));
 
         memberService.deleteMember(1L);
 
-        verify(memberRepository).delete(testMember);
+        // Видалення йде через масовий шлях, що закриває позичення учасника
+        verify(memberBulkService).deleteMembers(List.of(testMember.getId()));
+        verify(memberRepository, never()).delete(any(Member.class));
+    }
+
+    @Test
+    void searchByName_UsesNormalizedPrefixAndPaging() {
+        Page<Member> page = new PageImpl<>(List.of(testMember));
+        when(memberRepository.findByNameKeyStartingWith(eq("іван фр"), any(Pageable.class))).thenReturn(page);
+
+        Page<Member> result = memberService.searchByName("  ІВАН  Фр", 1, 10);
+
+        assertEquals(testMember, result.getContent().get(0));
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(memberRepository).findByNameKeyStartingWith(eq("іван фр"), pageable.capture());
+        assertEquals(1, pageable.getValue().getPageNumber());
+        assertEquals(10, pageable.getValue().getPageSize());
     }
 
     @Test
-    void findByName_Success() {
-        when(memberRepository.findByName(anyString())).thenReturn(testMember);
+    void searchByName_BlankName_ThrowsException() {
+        assertThrows(ValidationException.class, () -> memberService.searchByName("   ", 0, 10));
+        verifyNoInteractions(memberRepository);
+    }
 
-        Optional<Member> result = memberService.findByName("Іван Франко");
+    @Test
+    void searchByName_PageTooLarge_ThrowsException() {
+        assertThrows(ValidationException.class, () -> memberService.searchByName("Іван", 0, 1000));
+    }
 
-        assertTrue(result.isPresent());
-        assertEquals(testMember.getName(), result.get().getName());
+    @Test
+    void lookupMembers_MarksMissingIds() {
+        when(memberRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testMember));
+
+        List<LookupResult<Member>> result = memberService.lookupMembers(List.of(2L, 1L));
+
+        assertEquals(2, result.size());
+        assertFalse(result.get(0).found());
+        assertEquals(testMember, result.get(1).item());
+    }
+
+    @Test
+    void lookupMembers_NullId_ThrowsException() {
+        assertThrows(ValidationException.class, () -> memberService.lookupMembers(Arrays.asList(1L, null)));
     }
 }
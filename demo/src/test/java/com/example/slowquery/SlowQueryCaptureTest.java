@@ -0,0 +1,129 @@
+package com.example.slowquery;
+
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.repository.BookRepository;
+import com.example.repository.MemberRepository;
+import com.example.service.BookService;
+import com.example.service.BorrowingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Нульовий поріг: записується кожен запит, тож можна перевірити параметри, виклик і плани
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slowquerycapture",
+        "library.slow-query.enabled=true",
+        "management.endpoints.web.exposure.include=health,slowqueries",
+        "library.slow-query.threshold=0ms",
+        "library.slow-query.capacity=50",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureMockMvc
+class SlowQueryCaptureTest {
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog.clear();
+    }
+
+    private QueryPlan awaitPlan(Predicate<String> shape) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Optional<QueryPlan> plan = slowQueryLog.report().plans().stream()
+                    .filter(candidate -> shape.test(candidate.shape()) && candidate.plan() != null)
+                    .findFirst();
+            if (plan.isPresent()) {
+                return plan.get();
+            }
+            Thread.sleep(50);
+        }
+        return fail("План не отримано: " + slowQueryLog.report().plans());
+    }
+
+    @Test
+    void serviceQuery_isRecordedWithRedactedParametersCallerAndIndexPlan() throws InterruptedException {
+        bookRepository.save(new Book(null, "Захар Беркут", "Іван Франко", 2));
+
+        bookService.findByAuthor("Іван  Франко");
+
+        SlowQuery query = slowQueryLog.report().recent().stream()
+                .filter(entry -> entry.sql().contains("author_key=?"))
+                .findFirst().orElseThrow();
+        assertEquals(List.of("String[11]"), query.parameters());
+        assertTrue(query.caller().startsWith("BookServiceImpl.findByAuthor:"), query.caller());
+        assertTrue(query.millis() >= 0);
+
+        // План показує, що пошук за автором іде індексом, а не повним скануванням
+        QueryPlan plan = awaitPlan(shape -> shape.endsWith("where b1_0.author_key=?"));
+        assertTrue(plan.plan().toUpperCase().contains("IDX_BOOK_AUTHOR_KEY"), plan.plan());
+        assertFalse(plan.plan().contains("іван франко"), plan.plan());
+        assertTrue(plan.occurrences() >= 1);
+    }
+
+    @Test
+    void writeStatements_areExplainedWithoutBeingExecutedAgain() throws InterruptedException {
+        Book book = bookRepository.save(new Book(null, "Лісова пісня", "Леся Українка", 3));
+        Member member = memberRepository.save(new Member(0, "Читач Планів", null));
+        slowQueryLog.clear();
+
+        borrowingService.borrowBook(member.getId(), book.getId());
+
+        QueryPlan update = awaitPlan(shape -> shape.startsWith("update book"));
+        QueryPlan insert = awaitPlan(shape -> shape.startsWith("insert into borrowed_book"));
+        assertFalse(update.plan().startsWith("Не вдалося"), update.plan());
+        assertFalse(insert.plan().startsWith("Не вдалося"), insert.plan());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select copies_amount from book where id = ?", Integer.class, book.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from borrowed_book where member_id = ?", Integer.class, member.getId()));
+    }
+
+    @Test
+    void endpoint_exposesBufferReadOnly() throws Exception {
+        jdbcTemplate.queryForObject("select count(*) from book where copies_amount > 5", Long.class);
+
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.thresholdMillis").value(0))
+                .andExpect(jsonPath("$.recent[0].sql").exists())
+                .andExpect(jsonPath("$.plans[?(@.shape == 'select count(*) from book where copies_amount > ?')]").exists());
+
+        mockMvc.perform(delete("/actuator/slowqueries")).andExpect(status().is4xxClientError());
+        assertFalse(slowQueryLog.report().plans().isEmpty());
+    }
+}
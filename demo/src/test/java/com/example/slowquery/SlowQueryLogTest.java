@@ -0,0 +1,95 @@
+package com.example.slowquery;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+    private final SlowQueryLog slowQueryLog =
+            new SlowQueryLog(new SlowQueryProperties(Duration.ofMillis(100), 3, 2, false, 5, true));
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.shutdown();
+    }
+
+    private void record(String sql, long millis, Object... parameters) {
+        slowQueryLog.record(null, sql, parameters, parameters.length, 0, Duration.ofMillis(millis).toNanos());
+    }
+
+    @Test
+    void record_belowThreshold_isIgnored() {
+        record("select * from book where id = ?", 99, 1L);
+
+        SlowQueryReport report = slowQueryLog.report();
+        assertEquals(0, report.recorded());
+        assertTrue(report.recent().isEmpty());
+        assertTrue(report.plans().isEmpty());
+    }
+
+    @Test
+    void record_keepsNewestEntries_inBoundedBuffer() {
+        for (int i = 1; i <= 5; i++) {
+            record("select * from book where id = ?", 100 + i, (long) i);
+        }
+
+        SlowQueryReport report = slowQueryLog.report();
+        assertEquals(5, report.recorded());
+        assertEquals(List.of(5L, 4L, 3L), report.recent().stream().map(SlowQuery::id).toList());
+        assertEquals(List.of("5"), report.recent().get(0).parameters());
+        assertEquals(105.0, report.recent().get(0).millis(), 0.001);
+    }
+
+    @Test
+    void record_groupsByShape_andCapsShapes() {
+        record("select  *\n from book where author_key = 'франко' and copies_amount > 0", 150);
+        record("select * from book where author_key = 'шевченко' and copies_amount > 2", 300);
+        record("select * from member where id = ?", 120, 1L);
+        record("select * from borrowed_book where id = ?", 120, 1L);
+
+        List<QueryPlan> plans = slowQueryLog.report().plans();
+        assertEquals(2, plans.size());
+        assertEquals("select * from book where author_key = ? and copies_amount > ?", plans.get(0).shape());
+        assertEquals(2, plans.get(0).occurrences());
+        assertEquals(300.0, plans.get(0).maxMillis(), 0.001);
+        assertNull(plans.get(0).plan());
+        // Записи про запити понад ліміт форм однаково потрапляють у буфер
+        assertEquals(3, slowQueryLog.report().recent().size());
+    }
+
+    @Test
+    void record_truncatesLongParameters() {
+        record("update member set name = ? where id = ?", 200, "Дуже довге ім'я", null);
+
+        assertEquals(List.of("Дуже …", "null"), slowQueryLog.report().recent().get(0).parameters());
+    }
+
+    @Test
+    void record_byDefault_showsOnlyParameterTypesAndLiteralFreeSql() {
+        SlowQueryLog redacting = new SlowQueryLog(new SlowQueryProperties(Duration.ofMillis(100), 3, 2, false, 5, false));
+        try {
+            redacting.record(null, "select * from member where name_key = 'тарас' and id = ?",
+                    new Object[]{"Тарас Шевченко", 7L, null, new byte[3]}, 4, 0, Duration.ofMillis(200).toNanos());
+
+            SlowQuery query = redacting.report().recent().get(0);
+            assertEquals(List.of("String[14]", "Long", "null", "byte[3]"), query.parameters());
+            assertEquals("select * from member where name_key = ? and id = ?", query.sql());
+        } finally {
+            redacting.shutdown();
+        }
+    }
+
+    @Test
+    void clear_dropsEntriesAndShapes() {
+        record("select * from book where id = ?", 200, 1L);
+
+        slowQueryLog.clear();
+
+        assertTrue(slowQueryLog.report().recent().isEmpty());
+        assertTrue(slowQueryLog.report().plans().isEmpty());
+    }
+}
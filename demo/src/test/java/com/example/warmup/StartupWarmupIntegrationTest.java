@@ -0,0 +1,41 @@
+package com.example.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Генератор наповнює БД до ApplicationReadyEvent, тож прогрів бачить справжній гарячий набір
+// і має виконуватися вже після завантаження пошукового індексу та моделі позичень
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmupordering",
+        "library.datagen.books=300",
+        "library.datagen.members=60",
+        "library.datagen.loans=150",
+        "library.datagen.threads=2",
+        "library.warmup.enabled=true",
+        "library.warmup.iterations=20",
+        "library.warmup.aggregate-iterations=2"
+})
+@ActiveProfiles("datagen")
+class StartupWarmupIntegrationTest {
+
+    @Autowired
+    private StartupWarmup startupWarmup;
+
+    private static WarmupReport.Step step(WarmupReport report, String name) {
+        return report.steps().stream().filter(step -> step.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void warmUp_runsAfterInMemoryModelsAreLoaded() {
+        WarmupReport report = startupWarmup.report();
+
+        assertNotNull(report);
+        assertEquals(WarmupReport.Status.COMPLETED, report.status(), report::toString);
+        assertEquals(20, step(report, "member-loans").calls());
+        assertTrue(step(report, "book-search").items() > 0, report::toString);
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.warmup;
+
+import com.example.dto.LookupResult;
+import com.example.dto.MemberLoansResponse;
+import com.example.entity.Book;
+import com.example.entity.Member;
+import com.example.repository.BorrowedBookRepository;
+import com.example.service.BookService;
+import com.example.service.BorrowingService;
+import com.example.service.MemberService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StartupWarmupTest {
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private MemberService memberService;
+
+    @Mock
+    private BorrowingService borrowingService;
+
+    @Mock
+    private BorrowedBookRepository borrowedBookRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Book book = new Book(1L, "Кобзар", "Тарас Шевченко", 3);
+    private final Member member = new Member(10L, "Олена Пчілка", null);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(borrowedBookRepository.findMostBorrowedBookIds(any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(borrowedBookRepository.findMostActiveMemberIds(any(Pageable.class))).thenReturn(List.of(10L));
+        when(bookService.lookupBooks(List.of(1L, 2L)))
+                .thenReturn(List.of(LookupResult.found(1L, book), LookupResult.missing(2L)));
+        when(memberService.lookupMembers(List.of(10L))).thenReturn(List.of(LookupResult.found(10L, member)));
+        when(bookService.getBookById(1L)).thenReturn(book);
+        when(bookService.findByTitle("Кобзар")).thenReturn(Optional.of(book));
+        when(bookService.findByAuthor("Тарас Шевченко")).thenReturn(List.of(book));
+        when(memberService.getMemberById(10L)).thenReturn(member);
+        Page<Member> page = new PageImpl<>(List.of(member));
+        when(memberService.searchByName("Оле", 0, 20)).thenReturn(page);
+        when(borrowingService.getBorrowedBooksByMemberName("Олена Пчілка")).thenReturn(List.of());
+        when(bookService.searchBooks("Кобзар", 20)).thenReturn(List.of());
+        when(borrowingService.getMemberLoans(10L)).thenReturn(new MemberLoansResponse(10L, "Олена Пчілка", 0, 3, List.of()));
+        when(borrowingService.getAllBorrowedBookNames()).thenReturn(List.of("Кобзар"));
+        when(borrowingService.getBorrowedBooksWithCount()).thenReturn(List.of(Map.of("title", "Кобзар", "count", 1L)));
+    }
+
+    private StartupWarmup warmup(Duration budget, int iterations, int aggregateIterations) {
+        WarmupProperties properties = new WarmupProperties(budget, 100, 100, 50, 2, iterations, aggregateIterations);
+        return new StartupWarmup(bookService, memberService, borrowingService, borrowedBookRepository,
+                properties, eventPublisher);
+    }
+
+    private static WarmupReport.Step step(WarmupReport report, String name) {
+        return report.steps().stream().filter(step -> step.name().equals(name)).findFirst().orElseThrow();
+    }
+
+    @Test
+    void warmUp_preloadsHotSetAndRunsReadPaths() {
+        WarmupReport report = warmup(Duration.ofSeconds(30), 50, 5).warmUp();
+
+        assertEquals(WarmupReport.Status.COMPLETED, report.status());
+        assertEquals(1, step(report, "hot-books").items());
+        assertEquals(1, step(report, "hot-members").items());
+        assertEquals(50, step(report, "book-reads").calls());
+        assertEquals(50, step(report, "member-reads").calls());
+        assertEquals(50, step(report, "borrowing-reads").calls());
+        assertEquals(50, step(report, "book-search").calls());
+        assertEquals(50, step(report, "member-loans").calls());
+        assertEquals(5, step(report, "borrowing-aggregates").calls());
+        verify(bookService, times(50)).getBookById(1L);
+        verify(memberService, times(50)).getMemberById(10L);
+        verify(bookService, never()).getBookById(2L);
+        verify(bookService, times(50)).searchBooks("Кобзар", 20);
+        verify(borrowingService, times(50)).getMemberLoans(10L);
+    }
+
+    @Test
+    void warmUp_refusesTrafficUntilFinished() {
+        warmup(Duration.ofSeconds(30), 1, 1).warmUp();
+
+        ArgumentCaptor<ApplicationEvent> event = ArgumentCaptor.forClass(ApplicationEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, ((AvailabilityChangeEvent<?>) event.getValue()).getState());
+    }
+
+    @Test
+    void warmUp_stopsWhenBudgetIsExhausted() {
+        when(borrowingService.getAllBorrowedBookNames()).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return List.of();
+        });
+
+        WarmupReport report = warmup(Duration.ofMillis(300), 10, 10_000).warmUp();
+
+        assertEquals(WarmupReport.Status.BUDGET_EXCEEDED, report.status());
+        assertFalse(step(report, "borrowing-aggregates").completed());
+        assertTrue(step(report, "book-reads").completed());
+        assertTrue(report.millis() < 2_000, () -> "прогрів тривав " + report.millis() + " мс");
+    }
+
+    @Test
+    void warmUp_failingReadPath_isReportedAndOthersContinue() {
+        when(bookService.getBookById(1L)).thenThrow(new IllegalStateException("boom"));
+
+        WarmupReport report = warmup(Duration.ofSeconds(30), 20, 2).warmUp();
+
+        assertEquals(WarmupReport.Status.FAILED, report.status());
+        assertEquals("java.lang.IllegalStateException: boom", step(report, "book-reads").error());
+        assertEquals(20, step(report, "member-reads").calls());
+        assertTrue(step(report, "borrowing-aggregates").completed());
+    }
+
+    @Test
+    void warmUp_emptyCatalog_completesWithoutPointReads() {
+        when(borrowedBookRepository.findMostBorrowedBookIds(any(Pageable.class))).thenReturn(List.of());
+        when(borrowedBookRepository.findMostActiveMemberIds(any(Pageable.class))).thenReturn(List.of());
+
+        WarmupReport report = warmup(Duration.ofSeconds(30), 20, 2).warmUp();
+
+        assertEquals(WarmupReport.Status.COMPLETED, report.status());
+        assertEquals(0, step(report, "book-reads").calls());
+        verify(bookService, never()).getBookById(anyLong());
+    }
+}